@@ -0,0 +1,41 @@
+package com.workfolio.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.workfolio.WorkFolioApplication;
+
+/**
+ * BenchmarkContext starts the complete WorkFolio application on an in-memory H2
+ * database, in MySQL compatibility mode, and fills the employee table with a
+ * given number of generated rows before a benchmark trial.
+ */
+final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	/**
+	 * Starts the application with the given number of employees.
+	 *
+	 * @param rows The number of employees to generate.
+	 * @return The started application context.
+	 */
+	static ConfigurableApplicationContext start(int rows) {
+
+		// command line arguments, so they take precedence over application.properties
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(WorkFolioApplication.class).run(
+				"--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+				"--spring.datasource.password=", "--spring.jpa.hibernate.ddl-auto=create-drop",
+				"--spring.jpa.show-sql=false", "--server.port=0", "--logging.level.root=WARN",
+				"--workfolio.typeahead.enabled=false");
+
+		// generated by the database itself, a million rows take seconds
+		context.getBean(JdbcTemplate.class).update("insert into employee (id, name, email, phone, address, salary, version) "
+				+ "select x, 'Person ' || x, 'p' || x || '@corp.com', '98' || lpad(cast(x as varchar), 8, '0'), "
+				+ "'Street ' || x || ', City', 5000 + mod(x * 7919, 195000), 0 from system_range(1, ?)", rows);
+		return context;
+	}
+}
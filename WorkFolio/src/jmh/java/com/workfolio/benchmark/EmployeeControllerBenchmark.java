@@ -0,0 +1,105 @@
+package com.workfolio.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.workfolio.dto.EmployeeCursor;
+
+/**
+ * Measures complete request round trips through the EmployeeController and the
+ * EmployeeRestController with MockMvc, including the Thymeleaf rendering of
+ * index.html and JSON serialization. Security filters are not applied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeControllerBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	private ConfigurableApplicationContext context;
+
+	private MockMvc mvc;
+
+	private int added;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BenchmarkContext.start(rows);
+		mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public String home() throws Exception {
+		return perform(get("/home")).getContentAsString();
+	}
+
+	@Benchmark
+	public String offsetPage() throws Exception {
+		return perform(get("/page/{pageno}", 1 + ThreadLocalRandom.current().nextInt(rows / 10)))
+				.getContentAsString();
+	}
+
+	@Benchmark
+	public String seekPage() throws Exception {
+		EmployeeCursor cursor = new EmployeeCursor(EmployeeCursor.SortColumn.id, null, randomId());
+		return perform(get("/page").param("after", cursor.encode())).getContentAsString();
+	}
+
+	@Benchmark
+	public String search() throws Exception {
+		return perform(get("/search").param("namePrefix", "Person " + randomId())).getContentAsString();
+	}
+
+	@Benchmark
+	public String apiGetEmployee() throws Exception {
+		return perform(get("/api/employees/{id}", randomId())).getContentAsString();
+	}
+
+	@Benchmark
+	public String register() throws Exception {
+		return perform(post("/register").param("name", "Benchmark " + added)
+				.param("email", "bench" + added++ + "@corp.com").param("phone", "9123456789")
+				.param("address", "Benchmark Street, City").param("salary", "50000")).getRedirectedUrl();
+	}
+
+	private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+		return mvc.perform(request).andReturn().getResponse();
+	}
+
+	private int randomId() {
+		return 1 + ThreadLocalRandom.current().nextInt(rows);
+	}
+}
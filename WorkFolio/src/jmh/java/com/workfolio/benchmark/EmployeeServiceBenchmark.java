@@ -0,0 +1,99 @@
+package com.workfolio.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.service.EmployeeService;
+
+/**
+ * Measures the EmployeeService operations behind every page of the application,
+ * on employee tables of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeServiceBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	private ConfigurableApplicationContext context;
+
+	private EmployeeService service;
+
+	private int added;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BenchmarkContext.start(rows);
+		service = context.getBean(EmployeeService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public Employee addEmployee() throws EmployeeException {
+		Employee e = new Employee();
+		e.setName("Benchmark " + added);
+		e.setEmail("bench" + added++ + "@corp.com");
+		e.setPhone("9123456789");
+		e.setAddress("Benchmark Street, City");
+		e.setSalary(50000.0);
+		service.addEmployee(e);
+		return e;
+	}
+
+	@Benchmark
+	public void updateEmployee() throws EmployeeException {
+		Employee e = new Employee();
+		e.setId(randomId());
+		e.setSalary(5001.0 + ThreadLocalRandom.current().nextInt(190000));
+		service.updateEmployee(e);
+	}
+
+	@Benchmark
+	public Employee getEmployeeById() throws EmployeeException {
+		return service.getEmployeeById(randomId());
+	}
+
+	@Benchmark
+	public Page<Employee> getEmployeeByPaginate() throws EmployeeException {
+		return service.getEmployeeByPaginate(ThreadLocalRandom.current().nextInt(rows / 10), 10);
+	}
+
+	@Benchmark
+	public EmployeeSlice getEmployeeBySeek() throws EmployeeException {
+		EmployeeCursor cursor = new EmployeeCursor(EmployeeCursor.SortColumn.id, null, randomId());
+		return service.getEmployeeBySeek(EmployeeCursor.SortColumn.id, cursor, false, 10, false);
+	}
+
+	private int randomId() {
+		return 1 + ThreadLocalRandom.current().nextInt(rows);
+	}
+}
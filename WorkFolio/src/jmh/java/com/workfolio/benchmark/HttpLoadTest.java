@@ -0,0 +1,94 @@
+package com.workfolio.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HttpLoadTest drives a running WorkFolio instance with a fixed number of
+ * concurrent clients for a fixed time, and prints the throughput and the
+ * latency percentiles. Each client is a virtual thread sending one request at a
+ * time, so thousands of clients can be simulated from one process.
+ *
+ * In the URL, {id} is replaced by a random employee id and {cursor} by a page
+ * cursor at a random id, both between 1 and the given number of rows.
+ *
+ * Requests are authenticated with HTTP Basic, with a session cookie when the
+ * last argument is a cookie such as JSESSIONID=..., or with a bearer token
+ * when it is "Bearer <token>", as issued by POST /api/auth/token.
+ *
+ * Usage: HttpLoadTest url clients seconds rows [user:password | cookie | "Bearer token"]
+ */
+public class HttpLoadTest {
+
+	public static void main(String[] args) throws Exception {
+
+		String url = args[0];
+		int clients = Integer.parseInt(args[1]);
+		Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+		int rows = Integer.parseInt(args[3]);
+		String credentials = args.length > 4 ? args[4] : "user:1234";
+		boolean bearer = credentials.startsWith("Bearer ");
+		boolean cookie = !bearer && credentials.contains("=");
+		String header = cookie ? "Cookie" : "Authorization";
+		String value = cookie || bearer ? credentials
+				: "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(30)).build();
+		ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+		AtomicLong errors = new AtomicLong();
+		long end = System.nanoTime() + duration.toNanos();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < clients; i++) {
+				executor.submit(() -> {
+					long[] own = new long[1 << 16];
+					int n = 0;
+					while (System.nanoTime() < end) {
+						HttpRequest request = HttpRequest.newBuilder(URI.create(expand(url, rows)))
+								.header(header, value).timeout(Duration.ofSeconds(60)).build();
+						long start = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() >= 400)
+								errors.incrementAndGet();
+						} catch (Exception ex) {
+							errors.incrementAndGet();
+						}
+						if (n == own.length)
+							own = Arrays.copyOf(own, n * 2);
+						own[n++] = System.nanoTime() - start;
+					}
+					latencies.add(Arrays.copyOf(own, n));
+				});
+			}
+		}
+
+		long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+		System.out.printf("clients=%d requests=%d errors=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+				clients, all.length, errors.get(), all.length / (double) duration.toSeconds(), percentile(all, 0.50),
+				percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+	}
+
+	private static String expand(String url, int rows) {
+		int id = 1 + ThreadLocalRandom.current().nextInt(rows);
+		String cursor = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(("id:" + id + ":").getBytes(StandardCharsets.UTF_8));
+		return url.replace("{id}", Integer.toString(id)).replace("{cursor}", cursor);
+	}
+
+	private static double percentile(long[] sorted, double q) {
+		return sorted.length == 0 ? 0 : sorted[(int) Math.floor(q * (sorted.length - 1))] / 1e6;
+	}
+}
@@ -0,0 +1,112 @@
+package com.workfolio.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * StartupBenchmark compares how fast WorkFolio starts when built in different
+ * modes, such as the regular jar, the ahead of time processed jar with a class
+ * data sharing archive and the native image. Each mode is a command starting
+ * the application; it is launched once to warm up, which also writes the
+ * archive of the CDS mode, and then the given number of times. Every run is
+ * timed from the launch of the process to the first answer from the URL, after
+ * which the resident memory of the process is read and the process stopped.
+ *
+ * Every mode must serve the URL on the same port, and be the only process
+ * doing so. Their output goes to target/startup-benchmark.log. The resident
+ * memory is read from /proc and only reported on Linux.
+ *
+ * Usage: StartupBenchmark runs url name=command...
+ * e.g. StartupBenchmark 5 http://localhost:8088/api/employees "jvm=java -jar target/WorkFolio-0.0.1-SNAPSHOT.jar --spring.profiles.active=embedded"
+ */
+public class StartupBenchmark {
+
+	private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+	public static void main(String[] args) throws Exception {
+
+		int runs = Integer.parseInt(args[0]);
+		URI url = URI.create(args[1]);
+		String authorization = "Basic "
+				+ Base64.getEncoder().encodeToString("user:1234".getBytes(StandardCharsets.UTF_8));
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(1)).build();
+
+		for (String mode : Arrays.copyOfRange(args, 2, args.length)) {
+			int equals = mode.indexOf('=');
+			String name = mode.substring(0, equals);
+			List<String> command = Arrays.asList(mode.substring(equals + 1).trim().split("\\s+"));
+
+			long[] millis = new long[runs];
+			long[] rss = new long[runs];
+			for (int i = -1; i < runs; i++) {
+				long[] run = start(command, client, url, authorization);
+				if (i >= 0) {
+					millis[i] = run[0];
+					rss[i] = run[1];
+				}
+			}
+
+			Arrays.sort(millis);
+			Arrays.sort(rss);
+			System.out.printf("%s: runs=%d first response min=%d ms median=%d ms max=%d ms, rss median=%s%n", name, runs,
+					millis[0], millis[runs / 2], millis[runs - 1], rss[runs / 2] < 0 ? "-" : rss[runs / 2] / 1024 + " MB");
+		}
+	}
+
+	/**
+	 * Launches the command and waits for the first answer from the URL.
+	 *
+	 * @return the milliseconds until that answer, and the resident memory of the
+	 *         process then, in kB, or -1 when it cannot be read
+	 */
+	private static long[] start(List<String> command, HttpClient client, URI url, String authorization)
+			throws Exception {
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.appendTo(new File("target/startup-benchmark.log"))).start();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(url).header("Authorization", authorization)
+					.timeout(Duration.ofSeconds(30)).build();
+			while (true) {
+				if (!process.isAlive())
+					throw new IllegalStateException(command + " exited with " + process.exitValue()
+							+ ", see target/startup-benchmark.log");
+				if (System.nanoTime() - start > TIMEOUT.toNanos())
+					throw new IllegalStateException(command + " did not answer " + url + " within " + TIMEOUT);
+				try {
+					client.send(request, HttpResponse.BodyHandlers.discarding());
+					break;
+				} catch (IOException ex) {
+					Thread.sleep(10);
+				}
+			}
+			return new long[] { (System.nanoTime() - start) / 1_000_000, residentKilobytes(process) };
+		} finally {
+			process.destroy();
+			process.waitFor();
+		}
+	}
+
+	private static long residentKilobytes(Process process) throws Exception {
+		Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+		if (!Files.isReadable(status))
+			return -1;
+		for (String line : Files.readAllLines(status))
+			if (line.startsWith("VmRSS:"))
+				return Long.parseLong(line.replaceAll("\\D", ""));
+		return -1;
+	}
+}
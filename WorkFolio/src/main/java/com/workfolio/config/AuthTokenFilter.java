@@ -0,0 +1,67 @@
+package com.workfolio.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.workfolio.service.AuthTokenService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * AuthTokenFilter authenticates API requests that carry an
+ * "Authorization: Bearer" header with a token issued by the AuthTokenService.
+ * A request with an invalid or expired token is rejected with 401; requests
+ * without a bearer token are left to the other authentication filters.
+ */
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+	private static final String BEARER = "Bearer ";
+
+	private final AuthTokenService tokens;
+
+	private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
+	private final SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
+
+	public AuthTokenFilter(AuthTokenService tokens) {
+		this.tokens = tokens;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		Authentication authentication = tokens.verify(header.substring(BEARER.length()).trim());
+		if (authentication == null) {
+			// not sendError: the error page would add the challenge of the other chain
+			response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+			response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+			return;
+		}
+
+		SecurityContext context = contextHolder.createEmptyContext();
+		context.setAuthentication(authentication);
+		contextHolder.setContext(context);
+		// kept for the async dispatch of the reactive controller
+		contextRepository.saveContext(context, request, response);
+		chain.doFilter(request, response);
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.workfolio.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collection;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * CachingAuthenticationProvider remembers credentials that another provider
+ * has verified, so that a client sending the same username and password with
+ * every request, as HTTP Basic clients do, pays for the slow password hash
+ * (bcrypt) once rather than on every call. Credentials that do not match a
+ * remembered pair are verified by the delegate as usual, so wrong passwords
+ * remain as expensive to try as before.
+ *
+ * Only a keyed hash of the password is kept, under a key that is generated at
+ * startup and never leaves the process. The cache is bounded, and its entries
+ * expire after the configured time, which is therefore also how long a
+ * password change or a disabled account may take to apply to a client that
+ * is already authenticated with the old credentials. Hits and misses are
+ * published as the cache.gets meter tagged cache=verifiedCredentials.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	/**
+	 * Credentials the delegate accepted, and what it authenticated them as.
+	 */
+	private record Verified(byte[] digest, Object principal, Collection<? extends GrantedAuthority> authorities) {
+	}
+
+	private final AuthenticationProvider delegate;
+
+	private final Cache<String, Verified> verified;
+
+	private final SecretKeySpec key;
+
+	public CachingAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration ttl,
+			MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.verified = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+		CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedCredentials");
+	}
+
+	@Override
+	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+
+		String username = authentication.getName();
+		if (authentication.getCredentials() == null)
+			return delegate.authenticate(authentication);
+
+		byte[] digest = digest(username, authentication.getCredentials().toString());
+		Verified hit = verified.getIfPresent(username);
+		if (hit != null && MessageDigest.isEqual(hit.digest(), digest)) {
+			UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken
+					.authenticated(hit.principal(), null, hit.authorities());
+			result.setDetails(authentication.getDetails());
+			return result;
+		}
+
+		Authentication result = delegate.authenticate(authentication);
+		if (result != null && result.isAuthenticated())
+			verified.put(username, new Verified(digest, result.getPrincipal(), result.getAuthorities()));
+		return result;
+	}
+
+	@Override
+	public boolean supports(Class<?> authentication) {
+		return delegate.supports(authentication);
+	}
+
+	/**
+	 * Forgets the verified credentials of a user, e.g. after changing them.
+	 *
+	 * @param username The name of the user.
+	 */
+	public void evict(String username) {
+		verified.invalidate(username);
+	}
+
+	private byte[] digest(String username, String password) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			mac.update(username.getBytes(StandardCharsets.UTF_8));
+			mac.update((byte) 0);
+			return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException ex) {
+			throw new AuthenticationServiceException("cannot hash the credentials", ex);
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.workfolio.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * ConcurrencyLimitedDataSource lets at most a fixed number of threads hold a
+ * connection at a time, by taking a permit from a semaphore before borrowing a
+ * connection and returning it when the connection is closed. Threads beyond the
+ * limit wait on the semaphore, where a virtual thread parks and frees its
+ * carrier, instead of waiting inside the connection pool or the JDBC driver,
+ * where it may hold a monitor and pin the carrier. Sized to the connection
+ * pool, this lets thousands of virtual threads queue for the database at the
+ * cost of a few hundred bytes each.
+ *
+ * The semaphore is not fair. A fair one hands a released permit to the thread
+ * that has waited longest, which is parked and must first be given a carrier
+ * again; under load the connection sits idle until it is, and every waiter
+ * waits behind the whole queue. A thread that is already running takes the
+ * permit at once instead; waits stay bounded by the acquire timeout.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+
+	private final Duration timeout;
+
+	/**
+	 * @param target         The data source to limit.
+	 * @param maxConcurrency The maximum number of connections in use at a time.
+	 * @param timeout        How long a thread waits for a permit before failing.
+	 */
+	public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, Duration timeout) {
+		super(target);
+		this.permits = new Semaphore(maxConcurrency);
+		this.timeout = timeout;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return releasing(super.getConnection());
+		} catch (SQLException | RuntimeException ex) {
+			permits.release();
+			throw ex;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return releasing(super.getConnection(username, password));
+		} catch (SQLException | RuntimeException ex) {
+			permits.release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns the number of threads currently waiting for a connection.
+	 *
+	 * @return The length of the queue in front of the connection pool.
+	 */
+	public int getQueueLength() {
+		return permits.getQueueLength();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS))
+				throw new SQLTransientConnectionException(
+						"no database connection available within " + timeout.toMillis() + " ms");
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("interrupted while waiting for a database connection", ex);
+		}
+	}
+
+	/**
+	 * Wraps a connection so that closing it, once, returns the permit.
+	 */
+	private Connection releasing(Connection connection) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+						try {
+							connection.close();
+						} finally {
+							permits.release();
+						}
+						return null;
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException ex) {
+						throw ex.getTargetException();
+					}
+				});
+	}
+}
@@ -0,0 +1,167 @@
+package com.workfolio.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.AbstractFlashMapManager;
+import org.springframework.web.util.WebUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * CookieFlashMapManager keeps flash attributes, such as the message shown after
+ * adding an employee, in a short-lived cookie instead of the HTTP session, so
+ * that the redirect after a POST may be served by any node. The cookie holds
+ * the pending flash maps as JSON, signed with HMAC-SHA256: a cookie that was
+ * tampered with, or signed with another key, is ignored. It expires with the
+ * flash maps it holds and is removed once they have been used.
+ *
+ * Flash attributes should be small values such as strings, as they travel with
+ * every request until they are used.
+ */
+public class CookieFlashMapManager extends AbstractFlashMapManager {
+
+	private static final Logger log = LoggerFactory.getLogger(CookieFlashMapManager.class);
+
+	public static final String COOKIE_NAME = "WORKFOLIO_FLASH";
+
+	/**
+	 * Request attribute holding the flash maps once updated, so later reads in
+	 * the same request do not see the cookie the request came with.
+	 */
+	private static final String UPDATED_ATTRIBUTE = CookieFlashMapManager.class.getName() + ".UPDATED";
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	/**
+	 * A flash map as stored in the cookie.
+	 */
+	private record Entry(String path, Map<String, List<String>> params, long expires,
+			Map<String, Object> attributes) {
+	}
+
+	private final SecretKeySpec key;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * @param secret The key the cookie is signed with; every node serving the
+	 *               application must use the same key.
+	 */
+	public CookieFlashMapManager(byte[] secret) {
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected List<FlashMap> retrieveFlashMaps(HttpServletRequest request) {
+
+		Object updated = request.getAttribute(UPDATED_ATTRIBUTE);
+		if (updated != null)
+			return (List<FlashMap>) updated;
+
+		Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+		if (cookie == null || !StringUtils.hasText(cookie.getValue()))
+			return null;
+
+		String value = cookie.getValue();
+		int dot = value.indexOf('.');
+		try {
+			if (dot < 0 || !MessageDigest.isEqual(sign(value.substring(0, dot)),
+					DECODER.decode(value.substring(dot + 1))))
+				return null;
+
+			List<Entry> entries = objectMapper.readValue(DECODER.decode(value.substring(0, dot)),
+					new TypeReference<List<Entry>>() {
+					});
+			List<FlashMap> flashMaps = new ArrayList<>(entries.size());
+			for (Entry entry : entries) {
+				FlashMap flashMap = new FlashMap();
+				flashMap.setTargetRequestPath(entry.path());
+				if (entry.params() != null)
+					flashMap.addTargetRequestParams(new LinkedMultiValueMap<>(entry.params()));
+				flashMap.setExpirationTime(entry.expires());
+				flashMap.putAll(entry.attributes());
+				flashMaps.add(flashMap);
+			}
+			return flashMaps;
+		} catch (Exception ex) {
+			log.debug("Ignoring unreadable flash cookie: {}", ex.getMessage());
+			return null;
+		}
+	}
+
+	@Override
+	protected void updateFlashMaps(List<FlashMap> flashMaps, HttpServletRequest request,
+			HttpServletResponse response) {
+
+		request.setAttribute(UPDATED_ATTRIBUTE, flashMaps);
+
+		String path = StringUtils.hasLength(request.getContextPath()) ? request.getContextPath() : "/";
+		ResponseCookie.ResponseCookieBuilder cookie = ResponseCookie.from(COOKIE_NAME).path(path).httpOnly(true)
+				.secure(request.isSecure()).sameSite("Lax");
+
+		if (flashMaps.isEmpty()) {
+			if (WebUtils.getCookie(request, COOKIE_NAME) != null)
+				response.addHeader(HttpHeaders.SET_COOKIE, cookie.value("").maxAge(0).build().toString());
+			return;
+		}
+
+		List<Entry> entries = new ArrayList<>(flashMaps.size());
+		long expires = 0;
+		for (FlashMap flashMap : flashMaps) {
+			entries.add(new Entry(flashMap.getTargetRequestPath(), flashMap.getTargetRequestParams(),
+					flashMap.getExpirationTime(), flashMap));
+			expires = Math.max(expires, flashMap.getExpirationTime());
+		}
+
+		try {
+			String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(entries));
+			String value = payload + "." + ENCODER.encodeToString(sign(payload));
+			long maxAge = Math.max(1, (expires - System.currentTimeMillis()) / 1000);
+			response.addHeader(HttpHeaders.SET_COOKIE, cookie.value(value).maxAge(maxAge).build().toString());
+		} catch (Exception ex) {
+			log.warn("Could not write the flash cookie", ex);
+		}
+	}
+
+	/**
+	 * Flash maps live in the request and response cookies only, so there is no
+	 * shared state to guard.
+	 */
+	@Override
+	protected Object getFlashMapsMutex(HttpServletRequest request) {
+		return null;
+	}
+
+	private byte[] sign(String payload) throws GeneralSecurityException {
+		Mac mac = Mac.getInstance(ALGORITHM);
+		mac.init(key);
+		return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+	}
+
+}
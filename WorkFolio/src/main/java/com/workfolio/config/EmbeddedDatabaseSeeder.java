@@ -0,0 +1,76 @@
+package com.workfolio.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * EmbeddedDatabaseSeeder fills the H2 database of the "embedded" profile with
+ * workfolio.embedded.employees generated employees at startup, once Hibernate
+ * has created the schema and before the web server accepts requests, even when
+ * the other beans are initialized lazily. It only runs on an empty employee
+ * table, so a file database keeps its data across restarts.
+ *
+ * The rows are generated by the database itself with set-based statements, so
+ * a hundred thousand employees take a few seconds. The employees form a
+ * reporting hierarchy (employee n reports to employee n / 10, from 10 on), and
+ * their path in the hierarchy and their INSERT in the change history are
+ * written with them, as the EmployeeService would. Emails, phones and names
+ * are unique and valid.
+ */
+@Component
+@Profile("embedded")
+@Lazy(false)
+@DependsOn("entityManagerFactory")
+public class EmbeddedDatabaseSeeder implements InitializingBean {
+
+	private static final Logger log = LoggerFactory.getLogger(EmbeddedDatabaseSeeder.class);
+
+	private static final String EMPLOYEES = "insert into employee "
+			+ "(id, name, email, phone, address, salary, version, manager_id) "
+			+ "select x, 'Person ' || x, 'p' || x || '@corp.com', '98' || lpad(cast(x as varchar), 8, '0'), "
+			+ "'Street ' || x || ', City', 5000 + mod(x * 7919, 195000), 0, case when x >= 10 then x / 10 end "
+			+ "from system_range(1, ?)";
+
+	private static final String PATHS = "insert into employee_path (employee_id, path) "
+			+ "with recursive t(id, path) as (select id, '/' || id || '/' from employee where manager_id is null "
+			+ "union all select e.id, t.path || e.id || '/' from employee e join t on e.manager_id = t.id) "
+			+ "select id, path from t";
+
+	private static final String HISTORY = "insert into employee_history (employee_id, operation, changed_at, "
+			+ "version, name, address, email, phone, salary, manager_id, department_id) "
+			+ "select id, 'INSERT', current_timestamp, version, name, address, email, phone, salary, manager_id, "
+			+ "department_id from employee";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${workfolio.embedded.employees:1000}")
+	private int employees;
+
+	@Override
+	public void afterPropertiesSet() {
+
+		if (employees <= 0 || jdbcTemplate.queryForObject("select count(*) from employee", Long.class) > 0)
+			return;
+
+		long start = System.nanoTime();
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.update(EMPLOYEES, employees);
+			jdbcTemplate.update(PATHS);
+			jdbcTemplate.update(HISTORY);
+		});
+		log.info("Seeded {} employees in {} ms", employees, (System.nanoTime() - start) / 1_000_000);
+	}
+}
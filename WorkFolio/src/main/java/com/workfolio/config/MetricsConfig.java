@@ -0,0 +1,36 @@
+package com.workfolio.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.workfolio.metrics.ViewRenderMetricsInterceptor;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * MetricsConfig enables the @Timed annotation on service classes and registers
+ * the view rendering timer. With the repository aspect and the error counters
+ * of the metrics package, the actuator's http.server.requests and Spring Security
+ * filter chain observations, and the Hibernate statistics, every stage of a
+ * request can be told apart on the /actuator/prometheus endpoint.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private ViewRenderMetricsInterceptor viewRenderMetricsInterceptor;
+
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(viewRenderMetricsInterceptor);
+	}
+}
@@ -0,0 +1,83 @@
+package com.workfolio.config;
+
+import java.sql.Connection;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.domain.PageImpl;
+
+import com.workfolio.dto.AuthToken;
+import com.workfolio.dto.DepartmentSummary;
+import com.workfolio.dto.EmployeeChange;
+import com.workfolio.dto.EmployeeChangeFeed;
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSearchCriteria;
+import com.workfolio.dto.EmployeeSearchResult;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.dto.FieldViolation;
+import com.workfolio.dto.ImportReport;
+import com.workfolio.dto.SalaryStatistics;
+import com.workfolio.dto.TeamStatistics;
+import com.workfolio.dto.TypeaheadStats;
+import com.workfolio.entity.Department;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.CustomError;
+import com.workfolio.repository.EmployeeRepositoryCustom;
+
+/**
+ * NativeHintsConfig declares what the application reaches by reflection or
+ * loads as a resource beyond what Spring infers on its own, so that the ahead
+ * of time processed builds (the native image, and the AOT mode of the JVM)
+ * behave like the regular one. Spring derives the hints of the beans, the JPA
+ * entities, the repositories and the request and response bodies of the REST
+ * controllers, and Spring Security and the libraries of the GraalVM
+ * reachability metadata repository bring their own; what is left is:
+ * <ul>
+ * <li>the properties Thymeleaf reads from the model, and the form fields it
+ * binds, through the accessors Lombok generates on Employee and the DTOs;</li>
+ * <li>the Thymeleaf templates, which are resources of the image;</li>
+ * <li>the private records written as JSON by the flash cookie, the bearer
+ * tokens and the write-behind log;</li>
+ * <li>the results built by JPQL constructor expressions;</li>
+ * <li>the JDK proxy of Connection that ConcurrencyLimitedDataSource hands
+ * out.</li>
+ * </ul>
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.WorkFolioRuntimeHints.class)
+public class NativeHintsConfig {
+
+	static class WorkFolioRuntimeHints implements RuntimeHintsRegistrar {
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+			new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), Employee.class,
+					Department.class, AuthToken.class, DepartmentSummary.class, EmployeeChange.class,
+					EmployeeChangeFeed.class, EmployeeCursor.class, EmployeeSearchCriteria.class,
+					EmployeeSearchResult.class, EmployeeSlice.class, EmployeeSummary.class, FieldViolation.class,
+					ImportReport.class, ImportReport.RowError.class, SalaryStatistics.class, TeamStatistics.class,
+					TypeaheadStats.class, CustomError.class);
+			hints.reflection().registerType(PageImpl.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+			hints.resources().registerPattern("templates/*.html");
+
+			for (String record : new String[] { "com.workfolio.config.CookieFlashMapManager$Entry",
+					"com.workfolio.service.AuthTokenService$Claims", "com.workfolio.service.EmployeeWriteBehindQueue$Mutation",
+					"com.workfolio.service.EmployeeWriteBehindQueue$Kind" })
+				hints.reflection().registerType(TypeReference.of(record), MemberCategory.values());
+
+			hints.reflection().registerType(EmployeeRepositoryCustom.SalaryTotals.class,
+					MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+			hints.reflection().registerType(DepartmentSummary.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+			hints.proxies().registerJdkProxy(Connection.class);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.workfolio.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * ReadReplicaConfig splits reads from writes when read replicas are listed in
+ * workfolio.datasource.replica.urls. The data source configured by Spring Boot
+ * becomes the primary of a {@link ReplicaRoutingDataSource}, which sends
+ * read-only transactions to the replicas, so listing, paging and searching
+ * employees no longer compete with writes on the primary. Each replica gets a
+ * read-only connection pool of the same size as the primary's.
+ *
+ * The routing is applied before any other wrapping of the data source, such as
+ * the concurrency gate of the virtual-thread mode.
+ */
+@Configuration
+@ConditionalOnProperty(name = "workfolio.datasource.replica.urls")
+public class ReadReplicaConfig {
+
+	@Bean
+	public static ReplicaRouting replicaRouting(@Value("${workfolio.datasource.replica.urls}") String[] urls,
+			@Value("${workfolio.datasource.replica.username:${spring.datasource.username:}}") String username,
+			@Value("${workfolio.datasource.replica.password:${spring.datasource.password:}}") String password,
+			@Value("${spring.datasource.driver-class-name:}") String driverClassName,
+			@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+			@Value("${workfolio.datasource.replica.check-interval:5s}") Duration checkInterval,
+			@Value("${workfolio.datasource.replica.max-lag:2s}") Duration maxLag,
+			@Value("${workfolio.datasource.replica.lag-query:}") String lagQuery) {
+
+		return new ReplicaRouting(primary -> {
+			Map<String, DataSource> replicas = new LinkedHashMap<>();
+			for (int i = 0; i < urls.length; i++) {
+				String name = "replica-" + (i + 1);
+				HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+						.url(urls[i].trim()).username(username).password(password)
+						.driverClassName(driverClassName.isEmpty() ? null : driverClassName).build();
+				replica.setPoolName(name);
+				replica.setMaximumPoolSize(poolSize);
+				replica.setReadOnly(true);
+				replicas.put(name, replica);
+			}
+			return new ReplicaRoutingDataSource(primary, replicas, checkInterval, maxLag, lagQuery);
+		});
+	}
+
+	@Bean
+	public MeterBinder replicaMetrics(ReplicaRouting replicaRouting, ObjectProvider<DataSource> dataSource) {
+		return registry -> {
+			// the router exists once the data source bean has been created
+			dataSource.getIfAvailable();
+			if (replicaRouting.router != null)
+				replicaRouting.router.bindTo(registry);
+		};
+	}
+
+	/**
+	 * Replaces the data source bean with a lazy proxy over a
+	 * ReplicaRoutingDataSource, and closes the replicas on shutdown.
+	 */
+	public static class ReplicaRouting implements BeanPostProcessor, Ordered, DisposableBean {
+
+		private final Function<DataSource, ReplicaRoutingDataSource> factory;
+
+		private ReplicaRoutingDataSource router;
+
+		ReplicaRouting(Function<DataSource, ReplicaRoutingDataSource> factory) {
+			this.factory = factory;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (bean instanceof DataSource primary && !(bean instanceof ReplicaRoutingDataSource) && router == null) {
+				router = factory.apply(primary);
+				return new LazyConnectionDataSourceProxy(router);
+			}
+			return bean;
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+		@Override
+		public void destroy() {
+			if (router != null)
+				router.close();
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package com.workfolio.config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * ReplicaRoutingDataSource sends the connections of read-only transactions to
+ * read replicas and every other connection to the primary. Replicas are used in
+ * turn, skipping any replica that failed its last check or lags further behind
+ * the primary than the configured maximum; when none is usable, reads go to the
+ * primary as well.
+ *
+ * Replicas are checked in the background at a fixed interval, by running the
+ * lag query on each of them. Its result is the replication lag in seconds,
+ * read from the Seconds_Behind_Source (or Seconds_Behind_Master) column when
+ * there is one, such as in the result of MySQL's SHOW REPLICA STATUS, and from
+ * the first column otherwise. A replica whose query fails, returns no row or a
+ * null lag is not replicating and is not used. Without a lag query, a replica
+ * is usable whenever it answers.
+ *
+ * The routing decision is made when a connection is first used, so this data
+ * source must be wrapped in a LazyConnectionDataSourceProxy: transaction
+ * managers borrow the connection before they mark the transaction read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	private static final String PRIMARY = "primary";
+
+	private final List<Replica> replicas = new ArrayList<>();
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	private final Duration maxLag;
+
+	private final String lagQuery;
+
+	private final ScheduledExecutorService checker;
+
+	/**
+	 * @param primary       The data source of the primary.
+	 * @param replicas      The data sources of the replicas, by name.
+	 * @param checkInterval How often the replicas are checked.
+	 * @param maxLag        The maximum replication lag of a usable replica.
+	 * @param lagQuery      The query returning the lag of a replica in seconds, or
+	 *                      blank to only check that replicas answer.
+	 */
+	public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration checkInterval,
+			Duration maxLag, String lagQuery) {
+
+		this.maxLag = maxLag;
+		this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+
+		Map<Object, Object> targets = new HashMap<>(replicas);
+		targets.put(PRIMARY, primary);
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+
+		replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+		this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "replica-checker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Picks the primary for read-write work and the next usable replica for
+	 * read-only transactions.
+	 */
+	@Override
+	protected Object determineCurrentLookupKey() {
+
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+			return PRIMARY;
+
+		int size = replicas.size();
+		int start = next.getAndIncrement();
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get(Math.floorMod(start + i, size));
+			if (replica.usable)
+				return replica.name;
+		}
+		return PRIMARY;
+	}
+
+	private void checkReplicas() {
+		for (Replica replica : replicas) {
+			boolean usable = check(replica);
+			if (usable && !replica.usable)
+				log.info("Replica {} is now in use (lag {} s)", replica.name, replica.lagSeconds);
+			else if (!usable && replica.usable)
+				log.warn("Replica {} is now out of use (lag {} s)", replica.name, replica.lagSeconds);
+			replica.usable = usable;
+		}
+	}
+
+	/**
+	 * Checks that a replica answers and, with a lag query, measures its lag.
+	 *
+	 * @return true if reads may be sent to the replica.
+	 */
+	private boolean check(Replica replica) {
+
+		try (Connection connection = replica.dataSource.getConnection()) {
+			if (lagQuery == null) {
+				replica.lagSeconds = 0;
+				return connection.isValid(5);
+			}
+			try (Statement statement = connection.createStatement();
+					ResultSet result = statement.executeQuery(lagQuery)) {
+				if (!result.next()) {
+					replica.lagSeconds = Double.NaN;
+					return false;
+				}
+				double lag = result.getDouble(lagColumn(result));
+				replica.lagSeconds = result.wasNull() ? Double.NaN : lag;
+				return !result.wasNull() && lag * 1000 <= maxLag.toMillis();
+			}
+		} catch (SQLException ex) {
+			replica.lagSeconds = Double.NaN;
+			if (replica.usable)
+				log.warn("Replica {} failed its check: {}", replica.name, ex.getMessage());
+			return false;
+		}
+	}
+
+	private static int lagColumn(ResultSet result) throws SQLException {
+		for (String label : new String[] { "Seconds_Behind_Source", "Seconds_Behind_Master" }) {
+			try {
+				return result.findColumn(label);
+			} catch (SQLException ex) {
+				// not a MySQL replica status; try the next label
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Publishes the lag of every replica, in seconds, as the
+	 * workfolio.datasource.replica.lag gauge and whether it is in use as the
+	 * workfolio.datasource.replica.usable gauge, both tagged with the replica
+	 * name.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Replica replica : replicas) {
+			Gauge.builder("workfolio.datasource.replica.lag", replica, r -> r.lagSeconds).tag("replica", replica.name)
+					.baseUnit("seconds").description("Replication lag of the read replica").register(registry);
+			Gauge.builder("workfolio.datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+					.tag("replica", replica.name).description("Whether reads are sent to the read replica")
+					.register(registry);
+		}
+	}
+
+	/**
+	 * Stops checking the replicas and closes their data sources.
+	 */
+	@Override
+	public void close() {
+		checker.shutdownNow();
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof AutoCloseable closeable) {
+				try {
+					closeable.close();
+				} catch (Exception ex) {
+					log.warn("Could not close replica {}", replica.name, ex);
+				}
+			}
+		}
+	}
+
+	private static final class Replica {
+
+		private final String name;
+
+		private final DataSource dataSource;
+
+		private volatile boolean usable;
+
+		private volatile double lagSeconds = Double.NaN;
+
+		Replica(String name, DataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+	}
+}
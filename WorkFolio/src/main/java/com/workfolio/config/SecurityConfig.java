@@ -0,0 +1,131 @@
+package com.workfolio.config;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.RememberMeAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.csrf.CsrfAuthenticationStrategy;
+import org.springframework.security.web.savedrequest.CookieRequestCache;
+
+import com.workfolio.service.AuthTokenService;
+import com.workfolio.service.SigningKeys;
+import com.workfolio.service.StaffUserDetailsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * SecurityConfig secures the WorkFolio application with two filter chains. The
+ * JSON API under /api is used by integrations rather than browsers: it
+ * authenticates every request with HTTP Basic, keeps no session and needs no
+ * CSRF token, and its responses may be kept by clients and revalidated, so the
+ * default no-store header is not added. Every other path keeps the browser
+ * set-up of form login, HTTP Basic, a session and CSRF protection.
+ *
+ * Users are the HR staff accounts of the staff_user table. Since API clients
+ * send their password with every request, verified credentials are cached by
+ * the CachingAuthenticationProvider, so that bcrypt only runs on the first
+ * request of a client and on wrong passwords. With
+ * workfolio.auth.token.enabled=true, API clients may also trade their
+ * credentials for a signed bearer token at POST /api/auth/token, whose check
+ * costs an HMAC.
+ *
+ * With workfolio.session.stateless=true, the browser chain keeps no session
+ * either: a successful form login sets a signed login cookie (Spring Security's
+ * token-based remember-me, always on and valid for
+ * workfolio.session.login-validity) that authenticates the following requests,
+ * and the CSRF token and the request saved before a login are kept in cookies.
+ */
+@Configuration
+public class SecurityConfig {
+
+	@Value("${workfolio.session.stateless:false}")
+	private boolean stateless;
+
+	@Value("${workfolio.session.secret:}")
+	private String secret;
+
+	@Value("${workfolio.session.login-validity:8h}")
+	private Duration loginValidity;
+
+	@Bean
+	public PasswordEncoder passwordEncoder() {
+		return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+	}
+
+	@Bean
+	public CachingAuthenticationProvider authenticationProvider(StaffUserDetailsService users,
+			PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+			@Value("${workfolio.auth.cache.maximum-size:1000}") long maximumSize,
+			@Value("${workfolio.auth.cache.ttl:5m}") Duration ttl) {
+
+		DaoAuthenticationProvider passwords = new DaoAuthenticationProvider();
+		passwords.setUserDetailsService(users);
+		passwords.setUserDetailsPasswordService(users);
+		passwords.setPasswordEncoder(passwordEncoder);
+		return new CachingAuthenticationProvider(passwords, maximumSize, ttl, meterRegistry);
+	}
+
+	@Bean
+	@Order(1)
+	public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, ObjectProvider<AuthTokenService> tokens)
+			throws Exception {
+		http.securityMatcher("/api/**").authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+				.httpBasic(Customizer.withDefaults()).csrf(csrf -> csrf.disable())
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+				.headers(headers -> headers.cacheControl(cache -> cache.disable()));
+		tokens.ifAvailable(
+				service -> http.addFilterBefore(new AuthTokenFilter(service), BasicAuthenticationFilter.class));
+		return http.build();
+	}
+
+	@Bean
+	@Order(2)
+	public SecurityFilterChain webSecurityFilterChain(HttpSecurity http) throws Exception {
+		http.authorizeHttpRequests(auth -> auth.anyRequest().authenticated()).formLogin(Customizer.withDefaults())
+				.httpBasic(Customizer.withDefaults());
+
+		if (stateless) {
+			SimpleUrlAuthenticationFailureHandler failureHandler = new SimpleUrlAuthenticationFailureHandler(
+					"/login?error");
+			failureHandler.setAllowSessionCreation(false);
+
+			CookieCsrfTokenRepository csrfTokens = new CookieCsrfTokenRepository();
+			CsrfAuthenticationStrategy renewCsrfToken = new CsrfAuthenticationStrategy(csrfTokens);
+
+			http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+					.formLogin(form -> form.failureHandler(failureHandler))
+					.csrf(csrf -> csrf.csrfTokenRepository(csrfTokens)
+							// the login cookie authenticates every request: only renew the token on a form login,
+							// or forms open in other tabs could no longer be submitted
+							.sessionAuthenticationStrategy((authentication, request, response) -> {
+								if (!(authentication instanceof RememberMeAuthenticationToken))
+									renewCsrfToken.onAuthentication(authentication, request, response);
+							}))
+					.requestCache(cache -> cache.requestCache(new CookieRequestCache()))
+					.rememberMe(login -> {
+						login.alwaysRemember(true).rememberMeCookieName("WORKFOLIO_LOGIN")
+								.tokenValiditySeconds((int) loginValidity.toSeconds());
+						// without a secret, the remember-me configurer picks a random key
+						if (!secret.isBlank())
+							login.key(Base64.getEncoder()
+									.encodeToString(SigningKeys.derive(secret, SigningKeys.LOGIN_COOKIE)));
+					});
+		}
+		return http.build();
+	}
+}
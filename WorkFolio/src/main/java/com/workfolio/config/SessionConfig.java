@@ -0,0 +1,48 @@
+package com.workfolio.config;
+
+import java.security.SecureRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.FlashMapManager;
+
+import com.workfolio.service.SigningKeys;
+
+/**
+ * SessionConfig keeps the web tier free of server-side session state that a
+ * request would depend on. Flash attributes, used to show a message on the
+ * page a POST redirects to, are carried by a signed cookie rather than stored
+ * in the session; with workfolio.session.stateless=true, SecurityConfig also
+ * keeps logins, CSRF tokens and saved requests in cookies, so no session is
+ * created at all and any node can serve any request.
+ *
+ * The cookies are signed with keys derived from workfolio.session.secret, one
+ * per cookie, and the secret must be the same on every node. Without one, a
+ * random key is used, which only suits a single node: the cookies of a node are
+ * not accepted by another, nor after a restart.
+ */
+@Configuration
+public class SessionConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(SessionConfig.class);
+
+	@Bean
+	public FlashMapManager flashMapManager(@Value("${workfolio.session.secret:}") String secret,
+			@Value("${workfolio.session.stateless:false}") boolean stateless) {
+
+		byte[] key;
+		if (secret.isBlank()) {
+			if (stateless)
+				log.warn("workfolio.session.secret is not set: flash messages and logins are only valid on this node "
+						+ "until it restarts");
+			key = new byte[32];
+			new SecureRandom().nextBytes(key);
+		} else {
+			key = SigningKeys.derive(secret, SigningKeys.FLASH_COOKIE);
+		}
+		return new CookieFlashMapManager(key);
+	}
+}
@@ -0,0 +1,40 @@
+package com.workfolio.config;
+
+import java.lang.annotation.ElementType;
+
+import org.springframework.boot.autoconfigure.validation.ValidationConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.validation.Path;
+import jakarta.validation.TraversableResolver;
+
+/**
+ * ValidationConfig tunes the Bean Validation provider that the
+ * EmployeeValidator uses. Employees are validated as they arrive, before they
+ * are handed to JPA, so there are never lazy associations to leave alone: every
+ * property is declared reachable, instead of asking the JPA provider about each
+ * one on every validation, as the default resolver does whenever JPA is on the
+ * classpath.
+ */
+@Configuration
+public class ValidationConfig {
+
+	@Bean
+	public ValidationConfigurationCustomizer traversableResolverCustomizer() {
+		return configuration -> configuration.traversableResolver(new TraversableResolver() {
+
+			@Override
+			public boolean isReachable(Object traversableObject, Path.Node traversableProperty,
+					Class<?> rootBeanType, Path pathToTraversableObject, ElementType elementType) {
+				return true;
+			}
+
+			@Override
+			public boolean isCascadable(Object traversableObject, Path.Node traversableProperty,
+					Class<?> rootBeanType, Path pathToTraversableObject, ElementType elementType) {
+				return true;
+			}
+		});
+	}
+}
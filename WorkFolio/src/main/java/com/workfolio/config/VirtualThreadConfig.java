@@ -0,0 +1,71 @@
+package com.workfolio.config;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * VirtualThreadConfig is the opt-in virtual-thread mode of the WorkFolio
+ * application, enabled with workfolio.virtual-threads.enabled=true. Tomcat then
+ * serves each request on a new virtual thread instead of a thread from its
+ * bounded pool, so a request blocked on the database no longer holds one of a
+ * few hundred platform threads.
+ *
+ * Because requests are no longer limited by the size of a thread pool, the data
+ * source is wrapped in a {@link ConcurrencyLimitedDataSource} sized to the
+ * connection pool: requests beyond that many queue on a semaphore, where
+ * waiting is cheap, rather than inside the pool or the driver.
+ *
+ * JDBC drivers block on socket reads inside synchronized methods, which pins
+ * the virtual thread to its carrier for the duration of the call. So that the
+ * gated database calls can never occupy every carrier and stall the requests
+ * that do not need the database, the JVM should be started with at least one
+ * carrier more than the gate admits, e.g.
+ * -Djdk.virtualThreadScheduler.parallelism=11 for the default pool of 10. The
+ * scheduler reads the flag once, when the first virtual thread starts, so it
+ * cannot be set from here; a warning is logged when it is missing or too low.
+ */
+@Configuration
+@ConditionalOnProperty(name = "workfolio.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+	private static final String PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+			@Value("${workfolio.jdbc.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency) {
+
+		String parallelism = System.getProperty(PARALLELISM);
+		int carriers = parallelism == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(parallelism);
+		if (carriers <= maxConcurrency)
+			log.warn("The virtual thread scheduler has {} carrier threads, which {} database calls pinned in the "
+					+ "JDBC driver can all occupy; start the JVM with -D{}={}", carriers, maxConcurrency, PARALLELISM, maxConcurrency + 1);
+		return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	@Bean
+	public static BeanPostProcessor jdbcConcurrencyGate(
+			@Value("${workfolio.jdbc.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+			@Value("${workfolio.jdbc.acquire-timeout:30s}") Duration timeout) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource))
+					return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, timeout);
+				return bean;
+			}
+		};
+	}
+}
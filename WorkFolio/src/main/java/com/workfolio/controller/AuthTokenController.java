@@ -0,0 +1,47 @@
+package com.workfolio.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.workfolio.dto.AuthToken;
+import com.workfolio.service.AuthTokenService;
+
+/**
+ * REST controller issuing the signed bearer tokens of the JSON API, when
+ * workfolio.auth.token.enabled=true. A client authenticates once, with HTTP
+ * Basic, and then sends the token with its requests, which are authenticated
+ * by a signature check instead of a password hash. Tokens are only issued for
+ * a password: a request authenticated by a token cannot get a new one, so a
+ * leaked token expires for good.
+ */
+@RestController
+@ConditionalOnProperty(name = "workfolio.auth.token.enabled", havingValue = "true")
+@RequestMapping("/api/auth")
+public class AuthTokenController {
+
+	@Autowired
+	private AuthTokenService tokens;
+
+	/**
+	 * Handles the HTTP POST request for a new token.
+	 *
+	 * @param authentication the authentication of the client
+	 * @return a token for the client, with its expiry, or 401 if the client
+	 *         authenticated with a token rather than a password
+	 */
+	@PostMapping("/token")
+	public ResponseEntity<AuthToken> issueToken(Authentication authentication) {
+		if (authentication instanceof AuthTokenService.TokenAuthentication)
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+					.header(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"Realm\"").build();
+		return ResponseEntity.ok(tokens.issue(authentication));
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.workfolio.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.workfolio.dto.DepartmentSummary;
+import com.workfolio.entity.Department;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.service.DepartmentService;
+
+/**
+ * REST controller exposing the departments as JSON under /api/departments.
+ * Employees are assigned to a department by adding or updating them with a
+ * departmentId.
+ */
+@RestController
+@RequestMapping("/api/departments")
+public class DepartmentRestController {
+
+	@Autowired
+	private DepartmentService departmentService;
+
+	/**
+	 * Handles the HTTP GET request for the departments, each with the headcount
+	 * and the payroll of its employees.
+	 *
+	 * @return the departments, ordered by name
+	 */
+	@GetMapping
+	public List<DepartmentSummary> getDepartments() {
+		return departmentService.getDepartments();
+	}
+
+	/**
+	 * Handles the HTTP POST request to add a new department.
+	 *
+	 * @param department the department to add
+	 * @return 201 Created with the new department and its id
+	 * @throws EmployeeException if the name is blank or already in use
+	 */
+	@PostMapping
+	public ResponseEntity<Department> addDepartment(@RequestBody Department department) throws EmployeeException {
+
+		return ResponseEntity.status(HttpStatus.CREATED).body(departmentService.addDepartment(department));
+	}
+
+}
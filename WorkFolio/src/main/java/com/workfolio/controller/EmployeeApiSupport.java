@@ -0,0 +1,186 @@
+package com.workfolio.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.entity.ChangeSequence;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.service.EmployeeService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * EmployeeApiSupport holds the request and response handling of the JSON API
+ * under /api/employees that the EmployeeRestController and the
+ * EmployeeReactiveRestController share, so the API answers the same on both
+ * stacks: reading the page parameters and cursors, preparing the employees of
+ * adds and updates, and the ETags of employees and lists with the conditional
+ * requests they answer.
+ *
+ * Conditional requests are checked on a ServletWebRequest without the
+ * response, so the only validators written are those of the response actually
+ * returned: a page is tagged with the version it was read at, which may differ
+ * from the version checked before reading it.
+ */
+@Component
+public class EmployeeApiSupport {
+
+	/**
+	 * Lets clients keep responses, but only use them after revalidating.
+	 */
+	public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+	@Autowired
+	private EmployeeService service;
+
+	@Value("${workfolio.page.size:10}")
+	private int pageSize;
+
+	@Value("${workfolio.page.max-size:100}")
+	private int maxPageSize;
+
+	/**
+	 * A requested page of employees: the cursor to read from, the direction and
+	 * the number of employees.
+	 */
+	public record PageQuery(EmployeeCursor cursor, boolean backward, int size) {
+	}
+
+	/**
+	 * Reads the page parameters of a list request. A page before a cursor is only
+	 * read when no cursor to read after is given.
+	 *
+	 * @param after  the cursor of the page to read after, if any
+	 * @param before the cursor of the page to read before, if any
+	 * @param size   the requested number of employees per page, if any
+	 * @return the page to read
+	 * @throws EmployeeException if a cursor is invalid
+	 */
+	public PageQuery pageQuery(String after, String before, Integer size) throws EmployeeException {
+
+		int limit = size == null || size < 1 ? pageSize : Math.min(size, maxPageSize);
+		boolean backward = before != null && after == null;
+		EmployeeCursor cursor = null;
+		if (backward)
+			cursor = EmployeeCursor.decode(before);
+		else if (after != null)
+			cursor = EmployeeCursor.decode(after);
+		return new PageQuery(cursor, backward, limit);
+	}
+
+	/**
+	 * Answers a conditional list request before any page is read.
+	 *
+	 * @param request the request, checked for conditional headers
+	 * @param version the current version of the employee table
+	 * @return 304 if the client's copy is of that version, or null when the page
+	 *         must be read
+	 */
+	public ResponseEntity<EmployeeSlice> notModified(HttpServletRequest request, ChangeSequence version) {
+
+		if (!new ServletWebRequest(request).checkNotModified(etagOf(version.getLastValue()),
+				version.getChangedAt().toEpochMilli()))
+			return null;
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE)
+				.eTag(etagOf(version.getLastValue())).lastModified(version.getChangedAt()).build();
+	}
+
+	/**
+	 * Builds the response of a page, tagged with the version of the employee table
+	 * it was read at.
+	 *
+	 * @param slice the page
+	 * @return the response
+	 */
+	public ResponseEntity<EmployeeSlice> page(EmployeeSlice slice) {
+		return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etagOf(slice.getVersion()))
+				.lastModified(slice.getLastModified()).body(slice);
+	}
+
+	/**
+	 * Builds the response of a single employee, or 304 if the client's copy is
+	 * of its version.
+	 *
+	 * @param request the request, checked for conditional headers
+	 * @param e       the employee
+	 * @return the response
+	 */
+	public ResponseEntity<Employee> employee(HttpServletRequest request, Employee e) {
+
+		if (new ServletWebRequest(request).checkNotModified(etagOf(e)))
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(etagOf(e)).build();
+		return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etagOf(e)).body(e);
+	}
+
+	/**
+	 * Prepares the body of an add: its properties are trimmed and any version is
+	 * ignored.
+	 *
+	 * @param e the employee to add
+	 */
+	public void prepareAdd(Employee e) {
+		service.trimProperties(e);
+		e.setVersion(null);
+	}
+
+	/**
+	 * Prepares the body of a PATCH: the employee gets the id of the path, and the
+	 * version named by the If-Match header, if any, in place of that of the body.
+	 *
+	 * @param id      the id of the employee
+	 * @param ifMatch the ETag of the version the client has seen, if any
+	 * @param e       the properties to change
+	 * @throws EmployeeException if the If-Match header does not name a version
+	 */
+	public void preparePatch(int id, String ifMatch, Employee e) throws EmployeeException {
+		e.setId(id);
+		if (ifMatch != null)
+			e.setVersion(versionOf(ifMatch));
+	}
+
+	/**
+	 * Builds the ETag of an employee from its version. The tag is weak, so it
+	 * still holds when the response is compressed.
+	 *
+	 * @param e the employee
+	 * @return the ETag of the employee
+	 */
+	public static String etagOf(Employee e) {
+		return "W/\"" + e.getVersion() + "\"";
+	}
+
+	/**
+	 * Builds the ETag of the employee list from the version of the employee
+	 * table.
+	 */
+	private static String etagOf(long tableVersion) {
+		return "W/\"" + tableVersion + "\"";
+	}
+
+	/**
+	 * Reads the employee version from an ETag produced by {@link #etagOf}.
+	 *
+	 * @param etag the ETag sent by the client
+	 * @return the version it names
+	 * @throws EmployeeException if the ETag does not name a version
+	 */
+	private static Long versionOf(String etag) throws EmployeeException {
+		String tag = etag.trim();
+		if (tag.startsWith("W/"))
+			tag = tag.substring(2);
+		try {
+			return Long.valueOf(tag.replace("\"", ""));
+		} catch (NumberFormatException ex) {
+			throw new EmployeeValidationException("invalid If-Match header : " + etag);
+		}
+	}
+}
@@ -1,11 +1,14 @@
 package com.workfolio.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
-
-import javax.validation.Valid;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,11 +16,27 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSearchCriteria;
+import com.workfolio.dto.EmployeeSearchResult;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.dto.ImportReport;
+import com.workfolio.dto.TypeaheadStats;
 import com.workfolio.entity.Employee;
 import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.service.EmployeeExportService;
+import com.workfolio.service.EmployeeImportService;
 import com.workfolio.service.EmployeeService;
+import com.workfolio.service.EmployeeTypeaheadIndex;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Controller class for managing Employee-related operations and views in the
@@ -32,8 +51,9 @@ import jakarta.servlet.http.HttpSession;
  * employee. Additionally, it supports updating and deleting employees by their
  * unique IDs. The class uses JavaServer Pages (JSP) templates for rendering
  * views and Spring MVC's Model object to pass data to the views. It handles
- * user input and validation using the @Valid annotation in conjunction with the
- * Employee entity's validation rules.
+ * user input and validation through the EmployeeService, which checks the
+ * Employee entity's validation rules before anything is written; a form that
+ * breaks them is shown again with the reason of each rejected field.
  *
  * This controller class promotes good software design practices by following
  * the Single Responsibility Principle (SRP) and separating concerns. It
@@ -43,10 +63,12 @@ import jakarta.servlet.http.HttpSession;
  * capability (@Autowired) to obtain an instance of the EmployeeService class,
  * promoting modularity and testability.
  *
- * The EmployeeController class also interacts with the HttpSession object to
- * store success messages, which can be used to provide user feedback after
- * successful operations (e.g., adding or updating an employee). These success
- * messages are displayed to users on the index page of the application.
+ * The EmployeeController class also uses flash attributes to pass success
+ * messages across the redirect that follows a change, which can be used to
+ * provide user feedback after successful operations (e.g., adding or updating
+ * an employee). These success messages are displayed to users on the index page
+ * of the application once, and are carried by a signed cookie rather than the
+ * HttpSession, so the controller keeps no state between requests.
  *
  * Overall, the EmployeeController plays a critical role in the WorkFolio
  * application, allowing users to interact with employee data, perform CRUD
@@ -61,16 +83,43 @@ public class EmployeeController {
 	@Autowired
 	private EmployeeService service;
 
+	@Autowired
+	private EmployeeImportService importService;
+
+	@Autowired
+	private EmployeeExportService exportService;
+
+	@Autowired
+	private EmployeeTypeaheadIndex typeaheadIndex;
+
+	/**
+	 * Number of employees rendered per page when the request does not ask for a
+	 * specific page size.
+	 */
+	@Value("${workfolio.page.size:10}")
+	private int pageSize;
+
+	/**
+	 * Upper bound for the page size a request may ask for, so a single page can
+	 * never be used to pull the whole table into memory.
+	 */
+	@Value("${workfolio.page.max-size:100}")
+	private int maxPageSize;
+
+	/**
+	 * Number of typeahead suggestions returned when the client does not ask for a
+	 * specific number.
+	 */
+	@Value("${workfolio.typeahead.max-results:10}")
+	private int typeaheadLimit;
+
 	/**
 	 * Handles the HTTP GET request for the home page of the WorkFolio application.
-	 * This method retrieves a list of all employees from the EmployeeService and
-	 * adds them to the model attribute. It then calls the findPaginatedHandler
-	 * method to display the list of employees in a paginated manner on the index
-	 * page. The paginated list is retrieved based on the page number passed as a
-	 * path variable. The method also handles any EmployeeException that may occur
-	 * during the retrieval of employee data, ensuring proper error handling. The
-	 * list of employees and the paginated details are added to the model to be
-	 * displayed in the view.
+	 * This method delegates to the findSeekHandler method to display the first
+	 * page of employees, ordered by id, on the index page, so only the rows of that
+	 * page are fetched from the database and rendered. The method also handles any
+	 * EmployeeException that may occur during the retrieval of employee data,
+	 * ensuring proper error handling.
 	 *
 	 * @param m the Model object to pass data to the view
 	 * @return the name of the view template to be rendered (index.html)
@@ -79,9 +128,7 @@ public class EmployeeController {
 	 */
 	@GetMapping("/home")
 	public String homeHandler(Model m) throws EmployeeException {
-		List<Employee> employees = service.getAllEmployee();
-		m.addAttribute("employees", employees);
-		return findPaginatedHandler(0, m);
+		return findSeekHandler(EmployeeCursor.SortColumn.id, null, null, null, false, m);
 	}
 
 	/**
@@ -93,70 +140,76 @@ public class EmployeeController {
 	 * responsible for rendering the form view, which is displayed to the user when
 	 * they wish to add a new employee.
 	 *
+	 * @param m the Model object to pass the empty employee to the view
 	 * @return the name of the view template to be rendered (addEmployee.html)
 	 */
 	@GetMapping("/add")
-	public String addEmployeeFormHandler() {
+	public String addEmployeeFormHandler(Model m) {
+		m.addAttribute("emp", new Employee());
 		return "addEmployee";
 	}
 
 	/**
 	 * Handles the HTTP POST request to add a new employee to the WorkFolio
 	 * application. This method takes an Employee object as input and adds a new
-	 * employee to the database using the EmployeeService. The @Valid annotation
-	 * ensures that the input data is validated against the validation rules
-	 * specified in the Employee entity. If the data is valid, the new employee is
-	 * added to the database with a randomly generated unique ID (using
-	 * ThreadLocalRandom). A success message is stored in the HttpSession to provide
-	 * feedback to the user after successful addition of the employee. The method
-	 * then retrieves the updated list of all employees and adds them to the model
-	 * attribute to be displayed on the index page.
-	 *
-	 * @param emp     the Employee object representing the details of the new
-	 *                employee to be added
-	 * @param session the HttpSession to store the success message
-	 * @param m       the Model object to pass data to the view
-	 * @return the name of the view template to be rendered (index.html) with the
-	 *         updated list of employees
+	 * employee to the database using the EmployeeService, which validates the
+	 * input data against the validation rules specified in the Employee entity
+	 * before any database access. If a rule is broken, the form is shown again
+	 * with the submitted values and the violations. If the data is valid, the new
+	 * employee is added to the database with a unique ID assigned by the
+	 * EmployeeService. A
+	 * success message is added as a flash attribute to provide feedback to the
+	 * user after successful addition of the employee. The user is
+	 * then redirected to the home page, which renders only the first page of
+	 * employees instead of the whole table.
+	 *
+	 * @param emp        the Employee object representing the details of the new
+	 *                   employee to be added
+	 * @param m          the Model object to pass the violations to the form
+	 * @param attributes the RedirectAttributes to pass the success message to
+	 *                   the home page
+	 * @return a redirect response to the home page (index.html) after the
+	 *         addition, or the form (addEmployee.html) if the employee is invalid
 	 * @throws EmployeeException if an error occurs during the addition of the new
 	 *                           employee
 	 */
 	@PostMapping("/register")
-	public String addNewEmployeehandler(@Valid @ModelAttribute Employee emp, HttpSession session, Model m)
-			throws EmployeeException {
-		emp.setId(ThreadLocalRandom.current().nextInt(198));
-		service.addEmployee(emp);
-		session.setAttribute("msg", "Employee successfully added....");
-		List<Employee> employees = service.getAllEmployee();
-		m.addAttribute("employees", employees);
-		return "index";
+	public String addNewEmployeehandler(@ModelAttribute("emp") Employee emp, Model m,
+			RedirectAttributes attributes) throws EmployeeException {
+		service.trimProperties(emp);
+		try {
+			service.addEmployee(emp);
+		} catch (EmployeeValidationException ex) {
+			m.addAttribute("errors", ex.getViolations());
+			return "addEmployee";
+		}
+		attributes.addFlashAttribute("msg", "Employee successfully added....");
+		return "redirect:/home";
 	}
 
 	/**
-	 * Handles the HTTP GET request to update an existing employee in the WorkFolio
-	 * application. This method takes the unique ID of the employee to be updated as
-	 * a path variable and retrieves the corresponding employee details from the
-	 * EmployeeService. The employee details are then trimmed using the service's
-	 * trimProperties method to remove any leading or trailing white spaces. The
-	 * updated employee object is then passed to the service for updating the
-	 * employee in the database. The method adds the updated employee to the model
-	 * attribute to be displayed in the updateEmployee view, where users can make
-	 * changes to the employee details. This method is responsible for rendering the
-	 * updateEmployee.html view template.
-	 *
-	 * @param id      the unique ID of the employee to be updated
-	 * @param session the HttpSession to store the success message
-	 * @param m       the Model object to pass data to the view
+	 * Handles the HTTP GET request to display the form for updating an existing
+	 * employee in the WorkFolio application. This method takes the unique ID of the
+	 * employee to be updated as a path variable and retrieves the corresponding
+	 * employee details from the EmployeeService. The employee details are then
+	 * trimmed using the service's trimProperties method to remove any leading or
+	 * trailing white spaces. The method adds the employee, including its current
+	 * version, to the model attribute to be displayed in the updateEmployee view,
+	 * where users can make changes to the employee details. Nothing is written to
+	 * the database until the form is submitted. This method is responsible for
+	 * rendering the updateEmployee.html view template.
+	 *
+	 * @param id the unique ID of the employee to be updated
+	 * @param m  the Model object to pass data to the view
 	 * @return the name of the view template to be rendered (updateEmployee.html)
 	 *         with the employee details to be updated
-	 * @throws EmployeeException if an error occurs during the retrieval or update
-	 *                           of the employee details
+	 * @throws EmployeeException if an error occurs during the retrieval of the
+	 *                           employee details
 	 */
 	@GetMapping("/update/{id}")
-	public String updateEmployeeHandler(@PathVariable int id, HttpSession session, Model m) throws EmployeeException {
+	public String updateEmployeeHandler(@PathVariable int id, Model m) throws EmployeeException {
 		Employee e = service.getEmployeeById(id);
 		service.trimProperties(e);
-		service.updateEmployee(e);
 		m.addAttribute("emp", e);
 		return "updateEmployee";
 	}
@@ -167,30 +220,38 @@ public class EmployeeController {
 	 * input, which contains the updated details of the employee to be saved. The
 	 * employee details are first trimmed using the service's trimProperties method
 	 * to remove any leading or trailing white spaces. The updated employee object
-	 * is then passed to the service for updating the employee in the database. A
-	 * success message is stored in the HttpSession to provide feedback to the user
-	 * after successful update of the employee. The method then retrieves the
-	 * updated list of all employees and adds them to the model attribute to be
-	 * displayed on the index page.
-	 *
-	 * @param employee the Employee object representing the updated details of the
-	 *                 employee
-	 * @param session  the HttpSession to store the success message
-	 * @param m        the Model object to pass data to the view
-	 * @return the name of the view template to be rendered (index.html) with the
-	 *         updated list of employees
+	 * is then passed to the service for updating the employee in the database; the
+	 * version submitted with the form makes the update fail instead of overwriting
+	 * changes made by someone else since the form was opened. A success message is
+	 * added as a flash attribute to provide feedback to the user after successful
+	 * update of the employee. The user is then redirected to the home page, which
+	 * renders only the first page of employees.
+	 *
+	 * If a changed detail breaks the validation rules of the Employee entity, the
+	 * form is shown again with the submitted details and the violations.
+	 *
+	 * @param employee   the Employee object representing the updated details of
+	 *                   the employee
+	 * @param m          the Model object to pass the violations to the form
+	 * @param attributes the RedirectAttributes to pass the success message to
+	 *                   the home page
+	 * @return a redirect response to the home page (index.html) after the
+	 *         update, or the form (updateEmployee.html) if a detail is invalid
 	 * @throws EmployeeException if an error occurs during the update of the
 	 *                           employee details
 	 */
 	@GetMapping("/update")
-	public String updateEmployeeHandler2(@ModelAttribute Employee employee, HttpSession session, Model m)
-			throws EmployeeException {
+	public String updateEmployeeHandler2(@ModelAttribute("emp") Employee employee, Model m,
+			RedirectAttributes attributes) throws EmployeeException {
 		service.trimProperties(employee);
-		service.updateEmployee(employee);
-		session.setAttribute("msg", "Employee successfully updated....");
-		List<Employee> employees = service.getAllEmployee();
-		m.addAttribute("employees", employees);
-		return "index";
+		try {
+			service.updateEmployee(employee);
+		} catch (EmployeeValidationException ex) {
+			m.addAttribute("errors", ex.getViolations());
+			return "updateEmployee";
+		}
+		attributes.addFlashAttribute("msg", "Employee successfully updated....");
+		return "redirect:/home";
 	}
 
 	/**
@@ -198,36 +259,39 @@ public class EmployeeController {
 	 * WorkFolio application. This method takes the unique ID of the employee to be
 	 * deleted as a path variable and calls the EmployeeService to delete the
 	 * employee with the corresponding ID from the database. A success message is
-	 * stored in the HttpSession to provide feedback to the user after successful
+	 * added as a flash attribute to provide feedback to the user after successful
 	 * deletion of the employee. The method then redirects the user to the home page
 	 * to display the updated list of employees after the deletion.
 	 *
-	 * @param id      the unique ID of the employee to be deleted
-	 * @param session the HttpSession to store the success message
+	 * @param id         the unique ID of the employee to be deleted
+	 * @param attributes the RedirectAttributes to pass the success message to the
+	 *                   home page
 	 * @return a redirect response to the home page (index.html) after the deletion
 	 * @throws EmployeeException if an error occurs during the deletion of the
 	 *                           employee
 	 */
 	@GetMapping("/delete/{id}")
-	public String deleteEmployeehandler(@PathVariable int id, HttpSession session,Model m) throws EmployeeException {
+	public String deleteEmployeehandler(@PathVariable int id, RedirectAttributes attributes)
+			throws EmployeeException {
 		service.deleteEmployee(id);
-		session.setAttribute("msg", "Employee data deleted successfully...");
-		List<Employee> employees = service.getAllEmployee();
-		m.addAttribute("employees", employees);
-		return "index";
+		attributes.addFlashAttribute("msg", "Employee data deleted successfully...");
+		return "redirect:/home";
 	}
 
 	/**
 	 * Handles the HTTP GET request for paginated display of employees in the
 	 * WorkFolio application. This method takes the page number as a path variable
 	 * and calls the EmployeeService to retrieve a paginated list of employees based
-	 * on the page number and the number of employees per page (in this case, 2
-	 * employees per page). The paginated list of employees is then added to the
-	 * model attribute, along with information about the current page number, total
-	 * number of pages, and total number of items (employees) available. This
-	 * information is used to display pagination links in the index.html view.
+	 * on the page number and the number of employees per page. The page size
+	 * defaults to the configured workfolio.page.size and may be overridden with the
+	 * optional size request parameter, capped at workfolio.page.max-size. The
+	 * employees of the requested page are then added to the model attribute, along
+	 * with information about the current page number, total number of pages, and
+	 * total number of items (employees) available. This information is used to
+	 * display pagination links in the index.html view.
 	 *
 	 * @param pageno the page number to retrieve the paginated list of employees
+	 * @param size   the optional number of employees per page
 	 * @param m      the Model object to pass data to the view
 	 * @return the name of the view template to be rendered (index.html) with the
 	 *         paginated list of employees
@@ -235,14 +299,236 @@ public class EmployeeController {
 	 *                           paginated employee data
 	 */
 	@GetMapping("/page/{pageno}")
-	public String findPaginatedHandler(@PathVariable int pageno, Model m) throws EmployeeException {
+	public String findPaginatedHandler(@PathVariable int pageno, @RequestParam(required = false) Integer size,
+			Model m) throws EmployeeException {
 
-		Page<Employee> emplist = service.getEmployeeByPaginate(pageno, 2);
+		int pageSize = resolvePageSize(size);
+		Page<Employee> emplist = service.getEmployeeByPaginate(Math.max(pageno, 0), pageSize);
 		m.addAttribute("emp", emplist);
-		m.addAttribute("currentPage", pageno);
+		m.addAttribute("employees", emplist.getContent());
+		m.addAttribute("currentPage", emplist.getNumber());
+		m.addAttribute("pageSize", pageSize);
 		m.addAttribute("totalPages", emplist.getTotalPages());
 		m.addAttribute("totalItem", emplist.getTotalElements());
 		return "index";
 	}
 
+	/**
+	 * Handles the HTTP GET request for keyset (seek) paginated display of employees
+	 * in the WorkFolio application. Instead of a page number, the request carries
+	 * an opaque cursor pointing at the last employee of the previous page (after)
+	 * or the first employee of the next page (before), and the EmployeeService
+	 * reads the page with a range condition on the sort column and the employee
+	 * id. Navigating to any page therefore costs the same, and the table is only
+	 * counted (through a short-lived cache) when the total request parameter is
+	 * set. The employees of the page and the cursors of the neighbouring pages are
+	 * added to the model to be displayed in the index.html view.
+	 *
+	 * @param sort   the column the list is ordered by (id, name or salary)
+	 * @param after  the cursor of the page to read after, if any
+	 * @param before the cursor of the page to read before, if any
+	 * @param size   the optional number of employees per page
+	 * @param total  whether the approximate total number of employees is shown
+	 * @param m      the Model object to pass data to the view
+	 * @return the name of the view template to be rendered (index.html) with the
+	 *         requested page of employees
+	 * @throws EmployeeException if a cursor is invalid or an error occurs during the
+	 *                           retrieval of employee data
+	 */
+	@GetMapping("/page")
+	public String findSeekHandler(@RequestParam(defaultValue = "id") EmployeeCursor.SortColumn sort,
+			@RequestParam(required = false) String after, @RequestParam(required = false) String before,
+			@RequestParam(required = false) Integer size, @RequestParam(defaultValue = "false") boolean total,
+			Model m) throws EmployeeException {
+
+		int pageSize = resolvePageSize(size);
+		boolean backward = before != null && after == null;
+		EmployeeCursor cursor = null;
+		if (backward)
+			cursor = EmployeeCursor.decode(before);
+		else if (after != null)
+			cursor = EmployeeCursor.decode(after);
+
+		EmployeeSlice slice = service.getEmployeeBySeek(sort, cursor, backward, pageSize, total);
+		m.addAttribute("slice", slice);
+		m.addAttribute("employees", slice.getContent());
+		m.addAttribute("sort", sort);
+		m.addAttribute("pageSize", pageSize);
+		m.addAttribute("total", total);
+		return "index";
+	}
+
+	/**
+	 * Handles the HTTP GET request to search employees in the WorkFolio
+	 * application. The search filters (name prefix, email, phone, salary range and
+	 * address) are bound from the request parameters and passed to the
+	 * EmployeeService, which reads only the displayed columns of the matching
+	 * employees, one page at a time, using the database indexes on name, email,
+	 * phone and salary. The matching employees and the cursor of the next page are
+	 * added to the model to be displayed in the index.html view, together with the
+	 * filters so the search form keeps its values.
+	 *
+	 * @param criteria the search filters
+	 * @param after    the cursor of the page to read after, if any
+	 * @param size     the optional number of employees per page
+	 * @param m        the Model object to pass data to the view
+	 * @return the name of the view template to be rendered (index.html) with the
+	 *         matching employees
+	 * @throws EmployeeException if a cursor or filter is invalid, or an error
+	 *                           occurs during the search
+	 */
+	@GetMapping("/search")
+	public String searchHandler(@ModelAttribute("search") EmployeeSearchCriteria criteria,
+			@RequestParam(required = false) String after, @RequestParam(required = false) Integer size, Model m)
+			throws EmployeeException {
+
+		int pageSize = resolvePageSize(size);
+		EmployeeCursor cursor = after == null ? null : EmployeeCursor.decode(after);
+
+		EmployeeSearchResult result = service.searchEmployee(criteria, cursor, pageSize);
+		m.addAttribute("result", result);
+		m.addAttribute("employees", result.getContent());
+		m.addAttribute("pageSize", pageSize);
+		return "index";
+	}
+
+	/**
+	 * Handles the HTTP GET request for typeahead suggestions while a user types in
+	 * the directory search box. The suggestions are answered from the in-memory
+	 * EmployeeTypeaheadIndex, without a database query, and returned as JSON.
+	 *
+	 * @param q     the text typed so far
+	 * @param limit the optional maximum number of suggestions
+	 * @return the best matching employees, best match first
+	 */
+	@GetMapping("/typeahead")
+	@ResponseBody
+	public List<EmployeeSummary> typeaheadHandler(@RequestParam(defaultValue = "") String q,
+			@RequestParam(required = false) Integer limit) {
+		int max = limit == null || limit < 1 ? typeaheadLimit : Math.min(limit, maxPageSize);
+		return typeaheadIndex.search(q, max);
+	}
+
+	/**
+	 * Handles the HTTP GET request for the size and estimated memory footprint of
+	 * the typeahead index.
+	 *
+	 * @return the typeahead index statistics as JSON
+	 */
+	@GetMapping("/typeahead/stats")
+	@ResponseBody
+	public TypeaheadStats typeaheadStatsHandler() {
+		return typeaheadIndex.stats();
+	}
+
+	/**
+	 * Handles the HTTP GET request to export the complete employee directory as a
+	 * CSV file or an Excel workbook, optionally gzipped. Unlike the index page,
+	 * this method does not build a list of employees: the EmployeeExportService
+	 * writes each row to the response as soon as it is read from the database
+	 * cursor, so the memory used by an export stays flat regardless of the number
+	 * of employees.
+	 *
+	 * @param format   the format of the file, csv (the default) or xlsx
+	 * @param columns  the columns to export, in order, e.g. id,name,salary; all
+	 *                 columns when absent
+	 * @param gzip     whether to gzip the file, e.g. to download a large CSV
+	 *                 export as employees.csv.gz
+	 * @param response the HttpServletResponse the file is written to
+	 * @throws EmployeeException if the format is not supported
+	 * @throws IOException       if the response cannot be written
+	 */
+	@GetMapping("/export")
+	public void exportHandler(@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(required = false) List<EmployeeExportService.Column> columns,
+			@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response)
+			throws EmployeeException, IOException {
+
+		EmployeeExportService.Format exportFormat;
+		try {
+			exportFormat = EmployeeExportService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			throw new EmployeeValidationException("unsupported export format : " + format);
+		}
+
+		String filename = "employees." + exportFormat.name().toLowerCase(Locale.ROOT);
+		if (gzip) {
+			response.setContentType("application/gzip");
+			filename += ".gz";
+		} else if (exportFormat == EmployeeExportService.Format.XLSX) {
+			response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+		} else {
+			response.setContentType("text/csv");
+			response.setCharacterEncoding("UTF-8");
+		}
+		response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+
+		OutputStream out = response.getOutputStream();
+		if (gzip) {
+			GZIPOutputStream gzipped = new GZIPOutputStream(out, 64 * 1024);
+			exportService.exportEmployees(gzipped, exportFormat, columns);
+			gzipped.finish();
+		} else {
+			exportService.exportEmployees(out, exportFormat, columns);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Handles the HTTP GET request to display the bulk import form of the WorkFolio
+	 * application, where a CSV or JSON-lines file of employees can be uploaded.
+	 *
+	 * @return the name of the view template to be rendered (importEmployee.html)
+	 */
+	@GetMapping("/import")
+	public String importFormHandler() {
+		return "importEmployee";
+	}
+
+	/**
+	 * Handles the HTTP POST request to import employees in bulk from an uploaded
+	 * file. Files whose name ends with .jsonl or .ndjson are read as JSON lines
+	 * (one employee object per line); any other file is read as CSV with a header
+	 * row. The file is streamed to the EmployeeImportService, which validates and
+	 * persists it in chunks, and the resulting report (imported rows, rejected
+	 * rows with their reasons, and throughput) is added to the model to be
+	 * displayed in the importEmployee view.
+	 *
+	 * @param file the uploaded file of employees
+	 * @param m    the Model object to pass data to the view
+	 * @return the name of the view template to be rendered (importEmployee.html)
+	 *         with the import report
+	 * @throws EmployeeException if the file is empty or malformed
+	 * @throws IOException       if the uploaded file cannot be read
+	 */
+	@PostMapping("/import")
+	public String importHandler(@RequestParam MultipartFile file, Model m) throws EmployeeException, IOException {
+		if (file.isEmpty())
+			throw new EmployeeValidationException("the uploaded file is empty");
+
+		String filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+		EmployeeImportService.Format format = filename.endsWith(".jsonl") || filename.endsWith(".ndjson")
+				? EmployeeImportService.Format.JSONL
+				: EmployeeImportService.Format.CSV;
+
+		try (InputStream in = file.getInputStream()) {
+			ImportReport report = importService.importEmployees(in, format);
+			m.addAttribute("report", report);
+		}
+		return "importEmployee";
+	}
+
+	/**
+	 * Resolves the page size of a listing request, falling back to the configured
+	 * default and never exceeding the configured maximum.
+	 *
+	 * @param size the page size requested by the client, or null
+	 * @return the page size to use
+	 */
+	private int resolvePageSize(Integer size) {
+		if (size == null || size < 1)
+			return pageSize;
+		return Math.min(size, maxPageSize);
+	}
+
 }
\ No newline at end of file
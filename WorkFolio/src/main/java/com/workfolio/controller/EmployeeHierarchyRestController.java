@@ -0,0 +1,83 @@
+package com.workfolio.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.workfolio.dto.TeamStatistics;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.service.EmployeeHierarchyService;
+
+/**
+ * REST controller exposing the reporting hierarchy of the employees as JSON
+ * under /api/employees: the reports of an employee at any depth, the headcount
+ * and payroll of its team, and its chain of command. Each is answered from the
+ * path index of the hierarchy with a single query, whatever the depth. Managers
+ * are assigned by adding or updating employees with a managerId.
+ */
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeHierarchyRestController {
+
+	@Autowired
+	private EmployeeHierarchyService hierarchyService;
+
+	@Value("${workfolio.page.size:10}")
+	private int pageSize;
+
+	@Value("${workfolio.page.max-size:100}")
+	private int maxPageSize;
+
+	/**
+	 * Handles the HTTP GET request for the reports of an employee, at any depth,
+	 * each manager before its own reports.
+	 *
+	 * @param id    the id of the employee
+	 * @param after the id of the last report already read, to read the next page
+	 * @param size  the optional number of reports per page
+	 * @return the page of reports
+	 * @throws EmployeeException if no employee is found with the given id, or the
+	 *                           given report does not report to it
+	 */
+	@GetMapping("/{id}/reports")
+	public List<Employee> getReports(@PathVariable int id, @RequestParam(required = false) Integer after,
+			@RequestParam(required = false) Integer size) throws EmployeeException {
+
+		int limit = size == null || size < 1 ? pageSize : Math.min(size, maxPageSize);
+		return hierarchyService.getReports(id, after, limit);
+	}
+
+	/**
+	 * Handles the HTTP GET request for the headcount and payroll of the team of an
+	 * employee: the employee and all of its reports.
+	 *
+	 * @param id the id of the employee
+	 * @return the statistics of the team
+	 * @throws EmployeeException if no employee is found with the given id
+	 */
+	@GetMapping("/{id}/reports/statistics")
+	public TeamStatistics getTeamStatistics(@PathVariable int id) throws EmployeeException {
+		return hierarchyService.getTeamStatistics(id);
+	}
+
+	/**
+	 * Handles the HTTP GET request for the chain of command of an employee.
+	 *
+	 * @param id the id of the employee
+	 * @return the managers of the employee, from the top of the hierarchy down to
+	 *         its direct manager
+	 * @throws EmployeeException if no employee is found with the given id
+	 */
+	@GetMapping("/{id}/chain")
+	public List<Employee> getChainOfCommand(@PathVariable int id) throws EmployeeException {
+		return hierarchyService.getChainOfCommand(id);
+	}
+
+}
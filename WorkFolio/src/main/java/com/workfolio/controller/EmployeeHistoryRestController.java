@@ -0,0 +1,95 @@
+package com.workfolio.controller;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.workfolio.dto.EmployeeChange;
+import com.workfolio.dto.EmployeeChangeFeed;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.service.EmployeeHistoryService;
+
+/**
+ * REST controller exposing the change history of the employees as JSON under
+ * /api/employees: the recorded changes of an employee, the state of an
+ * employee at a past time, and a feed of the changes of all employees that
+ * consumers can follow by sequence number. It is served with both the servlet
+ * and the reactive profiles, as the history is only read through JPA.
+ */
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeHistoryRestController {
+
+	@Autowired
+	private EmployeeHistoryService historyService;
+
+	@Value("${workfolio.history.feed-max-size:1000}")
+	private int maxFeedSize;
+
+	/**
+	 * Handles the HTTP GET request for the recorded changes of an employee.
+	 *
+	 * @param id the id of the employee
+	 * @return the changes of the employee, oldest first
+	 * @throws EmployeeException if the employee has no recorded change
+	 */
+	@GetMapping("/{id}/history")
+	public List<EmployeeChange> getHistory(@PathVariable int id) throws EmployeeException {
+		return historyService.getHistory(id);
+	}
+
+	/**
+	 * Handles the HTTP GET request for an employee as it was at a past time.
+	 *
+	 * @param id the id of the employee
+	 * @param at an ISO-8601 instant, such as 2024-03-01T12:00:00Z, or a date,
+	 *           such as 2024-03-01, for the state at the end of that day (UTC)
+	 * @return the employee as it was at that time
+	 * @throws EmployeeException if the time is invalid or the employee did not
+	 *                           exist at that time
+	 */
+	@GetMapping("/{id}/history/as-of")
+	public Employee getEmployeeAsOf(@PathVariable int id, @RequestParam String at) throws EmployeeException {
+
+		Instant until;
+		try {
+			if (at.indexOf('T') < 0)
+				until = LocalDate.parse(at).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+			else
+				until = Instant.parse(at).plusNanos(1);
+		} catch (DateTimeParseException ex) {
+			throw new EmployeeValidationException("invalid time : " + at);
+		}
+		return historyService.getEmployeeAsOf(id, until);
+	}
+
+	/**
+	 * Handles the HTTP GET request for the changes of all employees following a
+	 * sequence number. A consumer starts with after=0 and passes the returned
+	 * next value to read the following changes.
+	 *
+	 * @param after the sequence number of the last change already read
+	 * @param limit the optional maximum number of changes
+	 * @return the changes, and the sequence number to read the next ones after
+	 */
+	@GetMapping("/changes")
+	public EmployeeChangeFeed getChanges(@RequestParam(defaultValue = "0") long after,
+			@RequestParam(required = false) Integer limit) {
+
+		int size = limit == null || limit < 1 ? maxFeedSize : Math.min(limit, maxFeedSize);
+		return historyService.getChanges(after, size);
+	}
+
+}
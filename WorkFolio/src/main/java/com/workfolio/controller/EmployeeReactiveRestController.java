@@ -0,0 +1,175 @@
+package com.workfolio.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.dto.SalaryStatistics;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.service.EmployeeReactiveService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller serving the JSON API under /api/employees from the
+ * EmployeeReactiveService when the "reactive" profile is active, in place of
+ * the EmployeeRestController. It keeps the same endpoints, validators and
+ * responses, shared with it in the EmployeeApiSupport, but returns Mono and
+ * Flux, which Spring MVC completes asynchronously: the request thread is
+ * released while the database is read, so the number of concurrent readers is
+ * no longer bound by the number of request threads.
+ *
+ * In addition, /api/employees/stream streams every employee as newline
+ * delimited JSON. Employees are written as they are read, and the database is
+ * only read as fast as the client receives them.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class EmployeeReactiveRestController {
+
+	@Autowired
+	private EmployeeReactiveService service;
+
+	@Autowired
+	private EmployeeApiSupport api;
+
+	/**
+	 * Handles the HTTP GET request for a page of employees, ordered by the
+	 * requested column and paginated with keyset cursors, as on the /page view.
+	 *
+	 * @param sort    the column to order by
+	 * @param after   the cursor of the page to read after, if any
+	 * @param before  the cursor of the page to read before, if any
+	 * @param size    the optional number of employees per page
+	 * @param total   whether to include the (possibly cached) total number of
+	 *                employees
+	 * @param request the request, checked for conditional headers
+	 * @return the page of employees, or 304 if the client's copy is current
+	 * @throws EmployeeException if a cursor is invalid
+	 */
+	@GetMapping
+	public Mono<ResponseEntity<EmployeeSlice>> listEmployees(
+			@RequestParam(defaultValue = "id") EmployeeCursor.SortColumn sort,
+			@RequestParam(required = false) String after, @RequestParam(required = false) String before,
+			@RequestParam(required = false) Integer size, @RequestParam(defaultValue = "false") boolean total,
+			HttpServletRequest request) throws EmployeeException {
+
+		EmployeeApiSupport.PageQuery page = api.pageQuery(after, before, size);
+		return service.getChangeSequence().flatMap(version -> {
+			ResponseEntity<EmployeeSlice> notModified = api.notModified(request, version);
+			if (notModified != null)
+				return Mono.just(notModified);
+			return service.getEmployeeBySeek(sort, page.cursor(), page.backward(), page.size(), total).map(api::page);
+		});
+	}
+
+	/**
+	 * Handles the HTTP GET request streaming every employee, in ascending id
+	 * order, as newline delimited JSON.
+	 *
+	 * @return all employees
+	 */
+	@GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Employee> streamEmployees() {
+		return service.streamEmployees();
+	}
+
+	/**
+	 * Handles the HTTP GET request for the headcount and salary statistics: total
+	 * payroll, average, minimum, maximum and percentiles of the salaries.
+	 *
+	 * @return the salary statistics
+	 */
+	@GetMapping("/statistics")
+	public Mono<SalaryStatistics> getStatistics() {
+		return service.getSalaryStatistics();
+	}
+
+	/**
+	 * Handles the HTTP GET request for a single employee.
+	 *
+	 * @param id      the id of the employee
+	 * @param request the request, checked for conditional headers
+	 * @return the employee, or 304 if the client's copy is current; an
+	 *         EmployeeException if no employee is found with the given id
+	 */
+	@GetMapping("/{id}")
+	public Mono<ResponseEntity<Employee>> getEmployee(@PathVariable int id, HttpServletRequest request) {
+		return service.getEmployeeById(id).map(e -> api.employee(request, e));
+	}
+
+	/**
+	 * Handles the HTTP POST request to add a new employee. The employee receives a
+	 * new id; any id in the request body is ignored.
+	 *
+	 * @param e the employee to add
+	 * @return 201 Created with the location and ETag of the new employee; an
+	 *         EmployeeException if the employee is invalid or its email is
+	 *         already in use
+	 */
+	@PostMapping
+	public Mono<ResponseEntity<Employee>> addEmployee(@RequestBody Employee e) {
+
+		api.prepareAdd(e);
+		// the location is built from the request while still on the request thread
+		ServletUriComponentsBuilder location = ServletUriComponentsBuilder.fromCurrentRequest();
+		return service.addEmployee(e).map(added -> ResponseEntity
+				.created(location.path("/{id}").buildAndExpand(added.getId()).toUri()).eTag(EmployeeApiSupport.etagOf(added))
+				.body(added));
+	}
+
+	/**
+	 * Handles the HTTP PATCH request to update some properties of an employee.
+	 * Properties absent from the body are left unchanged. The version to update
+	 * is taken from the If-Match header, or else from the body; without either,
+	 * the update is applied to whatever version is current.
+	 *
+	 * @param id      the id of the employee
+	 * @param ifMatch the ETag of the version the client has seen, if any
+	 * @param e       the properties to change
+	 * @return the updated employee with its new ETag; an EmployeeException if a
+	 *         property is invalid, no employee is found with the given id, the
+	 *         email is already in use, or the employee has been modified since
+	 *         the given version
+	 * @throws EmployeeException if the If-Match header does not name a version
+	 */
+	@PatchMapping("/{id}")
+	public Mono<ResponseEntity<Employee>> patchEmployee(@PathVariable int id,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody Employee e)
+			throws EmployeeException {
+
+		api.preparePatch(id, ifMatch, e);
+		return service.updateEmployee(e).map(updated -> ResponseEntity.ok().eTag(EmployeeApiSupport.etagOf(updated)).body(updated));
+	}
+
+	/**
+	 * Handles the HTTP DELETE request to remove an employee.
+	 *
+	 * @param id the id of the employee
+	 * @return 204 No Content; an EmployeeException if no employee is found with
+	 *         the given id
+	 */
+	@DeleteMapping("/{id}")
+	public Mono<ResponseEntity<Void>> deleteEmployee(@PathVariable int id) {
+		return service.deleteEmployee(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+	}
+}
@@ -0,0 +1,183 @@
+package com.workfolio.controller;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.dto.SalaryStatistics;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.service.EmployeeAnalyticsService;
+import com.workfolio.service.EmployeeChangeTracker;
+import com.workfolio.service.EmployeeService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * REST controller exposing the employees of the WorkFolio application as JSON
+ * under /api/employees, for integrations that would otherwise have to scrape
+ * the HTML views. It delegates to the same EmployeeService as the
+ * EmployeeController.
+ *
+ * Responses carry validators so clients can revalidate instead of downloading
+ * again: a single employee has an ETag derived from its version, and lists have
+ * an ETag and a Last-Modified time taken from the EmployeeChangeTracker, which
+ * are shared by every application node. A conditional GET that still matches
+ * is answered with 304 Not Modified. For lists this happens before the page is
+ * read, against the version the EmployeeChangeTracker keeps in memory; a page
+ * that is read is tagged with the version it was read at, in its own
+ * transaction, rather than the version checked first, which a replica may not
+ * have reached. For a single employee the version is read from the
+ * EmployeeCache. A PATCH may send the ETag back in
+ * If-Match to update only the version the client has seen. This handling is
+ * shared with the EmployeeReactiveRestController in the EmployeeApiSupport.
+ *
+ * With the "reactive" profile, the EmployeeReactiveRestController serves these
+ * endpoints instead.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/employees")
+public class EmployeeRestController {
+
+	@Autowired
+	private EmployeeService service;
+
+	@Autowired
+	private EmployeeAnalyticsService analyticsService;
+
+	@Autowired
+	private EmployeeChangeTracker changeTracker;
+
+	@Autowired
+	private EmployeeApiSupport api;
+
+	/**
+	 * Handles the HTTP GET request for a page of employees, ordered by the
+	 * requested column and paginated with keyset cursors, as on the /page view.
+	 *
+	 * @param sort    the column to order by
+	 * @param after   the cursor of the page to read after, if any
+	 * @param before  the cursor of the page to read before, if any
+	 * @param size    the optional number of employees per page
+	 * @param total   whether to include the (possibly cached) total number of
+	 *                employees
+	 * @param request the request, checked for conditional headers
+	 * @return the page of employees, or 304 if the client's copy is current
+	 * @throws EmployeeException if a cursor is invalid
+	 */
+	@GetMapping
+	public ResponseEntity<EmployeeSlice> listEmployees(
+			@RequestParam(defaultValue = "id") EmployeeCursor.SortColumn sort,
+			@RequestParam(required = false) String after, @RequestParam(required = false) String before,
+			@RequestParam(required = false) Integer size, @RequestParam(defaultValue = "false") boolean total,
+			HttpServletRequest request) throws EmployeeException {
+
+		ResponseEntity<EmployeeSlice> notModified = api.notModified(request, changeTracker.current());
+		if (notModified != null)
+			return notModified;
+
+		EmployeeApiSupport.PageQuery page = api.pageQuery(after, before, size);
+		return api.page(service.getEmployeeBySeek(sort, page.cursor(), page.backward(), page.size(), total));
+	}
+
+	/**
+	 * Handles the HTTP GET request for the headcount and salary statistics: total
+	 * payroll, average, minimum, maximum and percentiles of the salaries.
+	 *
+	 * @return the salary statistics
+	 */
+	@GetMapping("/statistics")
+	public SalaryStatistics getStatistics() {
+		return analyticsService.getSalaryStatistics();
+	}
+
+	/**
+	 * Handles the HTTP GET request for a single employee.
+	 *
+	 * @param id      the id of the employee
+	 * @param request the request, checked for conditional headers
+	 * @return the employee, or 304 if the client's copy is current
+	 * @throws EmployeeException if no employee is found with the given id
+	 */
+	@GetMapping("/{id}")
+	public ResponseEntity<Employee> getEmployee(@PathVariable int id, HttpServletRequest request)
+			throws EmployeeException {
+		return api.employee(request, service.getEmployeeById(id));
+	}
+
+	/**
+	 * Handles the HTTP POST request to add a new employee. The employee receives a
+	 * new id; any id in the request body is ignored.
+	 *
+	 * @param e the employee to add
+	 * @return 201 Created with the location and ETag of the new employee
+	 * @throws EmployeeException if the employee is invalid or its email is already
+	 *                           in use
+	 */
+	@PostMapping
+	public ResponseEntity<Employee> addEmployee(@RequestBody Employee e) throws EmployeeException {
+
+		api.prepareAdd(e);
+		service.addEmployee(e);
+		URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(e.getId())
+				.toUri();
+		return ResponseEntity.created(location).eTag(EmployeeApiSupport.etagOf(e)).body(e);
+	}
+
+	/**
+	 * Handles the HTTP PATCH request to update some properties of an employee.
+	 * Properties absent from the body are left unchanged. The version to update
+	 * is taken from the If-Match header, or else from the body; without either,
+	 * the update is applied to whatever version is current.
+	 *
+	 * @param id      the id of the employee
+	 * @param ifMatch the ETag of the version the client has seen, if any
+	 * @param e       the properties to change
+	 * @return the updated employee with its new ETag
+	 * @throws EmployeeException if a property is invalid, no employee is found
+	 *                           with the given id, the email is already in use,
+	 *                           or the employee has been modified since the
+	 *                           given version
+	 */
+	@PatchMapping("/{id}")
+	public ResponseEntity<Employee> patchEmployee(@PathVariable int id,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody Employee e)
+			throws EmployeeException {
+
+		api.preparePatch(id, ifMatch, e);
+		service.updateEmployee(e);
+
+		Employee updated = service.getEmployeeById(id);
+		return ResponseEntity.ok().eTag(EmployeeApiSupport.etagOf(updated)).body(updated);
+	}
+
+	/**
+	 * Handles the HTTP DELETE request to remove an employee.
+	 *
+	 * @param id the id of the employee
+	 * @return 204 No Content
+	 * @throws EmployeeException if no employee is found with the given id
+	 */
+	@DeleteMapping("/{id}")
+	public ResponseEntity<Void> deleteEmployee(@PathVariable int id) throws EmployeeException {
+		service.deleteEmployee(id);
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -0,0 +1,22 @@
+package com.workfolio.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * AuthToken is a signed token issued to an authenticated API client, to be sent
+ * back as "Authorization: Bearer &lt;token&gt;" until it expires.
+ */
+@Data
+@AllArgsConstructor
+public class AuthToken {
+
+	private String token;
+
+	private String tokenType;
+
+	private Instant expiresAt;
+
+}
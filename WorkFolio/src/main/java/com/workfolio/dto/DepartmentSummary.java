@@ -0,0 +1,24 @@
+package com.workfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DepartmentSummary is a department with the headcount and the total payroll
+ * of its employees.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentSummary {
+
+	private Integer id;
+
+	private String name;
+
+	private Long headcount;
+
+	private Double payroll;
+
+}
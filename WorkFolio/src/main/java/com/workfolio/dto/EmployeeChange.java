@@ -0,0 +1,33 @@
+package com.workfolio.dto;
+
+import java.time.Instant;
+
+import com.workfolio.entity.Employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * EmployeeChange is a recorded change of an employee: what was done, when and
+ * by whom, with the state of the employee after the change (or, for a
+ * deletion, its last state).
+ */
+@Data
+@AllArgsConstructor
+public class EmployeeChange {
+
+	/**
+	 * The position of the change in the change feed, null for a change that has
+	 * only just committed and has no position yet.
+	 */
+	private Long seq;
+
+	private String operation;
+
+	private Instant changedAt;
+
+	private String changedBy;
+
+	private Employee employee;
+
+}
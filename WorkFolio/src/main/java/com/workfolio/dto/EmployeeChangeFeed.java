@@ -0,0 +1,24 @@
+package com.workfolio.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * EmployeeChangeFeed is a batch of the change feed: the changes that follow a
+ * sequence number, and the sequence number to read the next batch after.
+ */
+@Data
+@AllArgsConstructor
+public class EmployeeChangeFeed {
+
+	private List<EmployeeChange> changes;
+
+	/**
+	 * The seq of the last change of the batch, or the requested one when the
+	 * batch is empty.
+	 */
+	private long next;
+
+}
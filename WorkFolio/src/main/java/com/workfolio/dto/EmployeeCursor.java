@@ -0,0 +1,99 @@
+package com.workfolio.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeValidationException;
+
+import lombok.Data;
+
+/**
+ * EmployeeCursor marks a position in the employee list for keyset (seek)
+ * pagination. It holds the sort column, the value of that column and the id of
+ * the employee at the edge of a page, so the next page can be read with an
+ * indexed range condition instead of skipping over an offset. The id acts as a
+ * tiebreaker for columns that are not unique, such as name or salary.
+ *
+ * Cursors travel through links as opaque URL-safe tokens produced by
+ * {@link #encode()} and read back with {@link #decode(String)}.
+ */
+@Data
+public class EmployeeCursor {
+
+	/**
+	 * The columns the employee list can be ordered by.
+	 */
+	public enum SortColumn {
+		id, name, salary
+	}
+
+	/**
+	 * The column the list is ordered by.
+	 */
+	private final SortColumn sort;
+
+	/**
+	 * The value of the sort column at the cursor position; null when sorting by id.
+	 */
+	private final Comparable<?> value;
+
+	/**
+	 * The id of the employee at the cursor position.
+	 */
+	private final int id;
+
+	/**
+	 * Creates a cursor pointing at the given employee for the given sort column.
+	 *
+	 * @param sort The column the list is ordered by.
+	 * @param e    The employee at the edge of a page.
+	 * @return The cursor pointing at the employee.
+	 */
+	public static EmployeeCursor of(SortColumn sort, Employee e) {
+		Comparable<?> value = switch (sort) {
+		case name -> e.getName();
+		case salary -> e.getSalary();
+		case id -> null;
+		};
+		return new EmployeeCursor(sort, value, e.getId());
+	}
+
+	/**
+	 * Encodes the cursor as an opaque URL-safe token. This token is also how the
+	 * cursor is written to JSON.
+	 *
+	 * @return The encoded cursor.
+	 */
+	@JsonValue
+	public String encode() {
+		String raw = sort + ":" + id + ":" + (value == null ? "" : value);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}.
+	 *
+	 * @param token The encoded cursor.
+	 * @return The decoded cursor.
+	 * @throws EmployeeException if the token is not a valid cursor.
+	 */
+	public static EmployeeCursor decode(String token) throws EmployeeException {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split(":", 3);
+			SortColumn sort = SortColumn.valueOf(parts[0]);
+			int id = Integer.parseInt(parts[1]);
+			Comparable<?> value = switch (sort) {
+			case name -> parts[2];
+			case salary -> Double.valueOf(parts[2]);
+			case id -> null;
+			};
+			return new EmployeeCursor(sort, value, id);
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+			throw new EmployeeValidationException("invalid page cursor : " + token);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.workfolio.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * EmployeeSearchCriteria holds the filters of an employee search. Every filter
+ * is optional; the filters that are set are combined with AND.
+ */
+@Data
+@NoArgsConstructor
+public class EmployeeSearchCriteria {
+
+	/**
+	 * Matches employees whose name starts with this value.
+	 */
+	private String namePrefix;
+
+	/**
+	 * Matches the employee with exactly this email.
+	 */
+	private String email;
+
+	/**
+	 * Matches employees with exactly this phone number.
+	 */
+	private String phone;
+
+	/**
+	 * Matches employees earning at least this salary.
+	 */
+	private Double minSalary;
+
+	/**
+	 * Matches employees earning at most this salary.
+	 */
+	private Double maxSalary;
+
+	/**
+	 * Matches employees whose address contains this value.
+	 */
+	private String addressContains;
+
+	/**
+	 * Returns the column a search with these criteria is ordered by. Searches by
+	 * name prefix are ordered by name and searches by salary range by salary, so
+	 * the index that selects the rows also returns them in page order.
+	 *
+	 * @return The sort column of the search.
+	 */
+	public EmployeeCursor.SortColumn sortColumn() {
+		if (namePrefix != null && !namePrefix.isBlank())
+			return EmployeeCursor.SortColumn.name;
+		if (minSalary != null || maxSalary != null)
+			return EmployeeCursor.SortColumn.salary;
+		return EmployeeCursor.SortColumn.id;
+	}
+}
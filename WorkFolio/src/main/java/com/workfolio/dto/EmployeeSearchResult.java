@@ -0,0 +1,39 @@
+package com.workfolio.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * EmployeeSearchResult is one page of an employee search, read with keyset
+ * pagination. It carries the cursor of the following page, if there is one.
+ */
+@Data
+@AllArgsConstructor
+public class EmployeeSearchResult {
+
+	/**
+	 * The matching employees of this page, in sort order.
+	 */
+	private List<EmployeeSummary> content;
+
+	/**
+	 * The criteria of the search.
+	 */
+	private EmployeeSearchCriteria criteria;
+
+	/**
+	 * The maximum number of employees per page.
+	 */
+	private int size;
+
+	/**
+	 * Cursor of the page after this one, or null if this is the last page.
+	 */
+	private EmployeeCursor next;
+
+	public boolean hasNext() {
+		return next != null;
+	}
+}
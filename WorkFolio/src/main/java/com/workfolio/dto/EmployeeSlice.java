@@ -0,0 +1,74 @@
+package com.workfolio.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.workfolio.entity.Employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * EmployeeSlice is one page of a keyset-paginated employee list. Unlike a
+ * {@link org.springframework.data.domain.Page}, it does not require a count of
+ * all employees: it only knows whether pages exist before and after it, and
+ * carries the cursors needed to read them.
+ */
+@Data
+@AllArgsConstructor
+public class EmployeeSlice {
+
+	/**
+	 * The employees of this page, in sort order.
+	 */
+	private List<Employee> content;
+
+	/**
+	 * The column the list is ordered by.
+	 */
+	private EmployeeCursor.SortColumn sort;
+
+	/**
+	 * The maximum number of employees per page.
+	 */
+	private int size;
+
+	/**
+	 * Cursor of the page before this one, or null if this is the first page.
+	 */
+	private EmployeeCursor previous;
+
+	/**
+	 * Cursor of the page after this one, or null if this is the last page.
+	 */
+	private EmployeeCursor next;
+
+	/**
+	 * Total number of employees, possibly cached and slightly stale, or null when
+	 * it was not requested.
+	 */
+	private Long total;
+
+	/**
+	 * The version of the employee table the page was read at, from the
+	 * EmployeeChangeTracker. It is read before the page, from the same database,
+	 * so a page is never tagged with a version newer than its content.
+	 */
+	@JsonIgnore
+	private long version;
+
+	/**
+	 * When the employee table last changed as of {@link #version}.
+	 */
+	@JsonIgnore
+	private Instant lastModified;
+
+	public boolean hasPrevious() {
+		return previous != null;
+	}
+
+	public boolean hasNext() {
+		return next != null;
+	}
+}
@@ -0,0 +1,29 @@
+package com.workfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * EmployeeSummary is a read-only projection of the Employee columns shown in
+ * the employee list. It is built directly from the selected columns, without
+ * loading or managing Employee entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSummary {
+
+	private Integer id;
+
+	private String name;
+
+	private String email;
+
+	private String phone;
+
+	private String address;
+
+	private Double salary;
+
+}
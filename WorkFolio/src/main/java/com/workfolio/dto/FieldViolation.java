@@ -0,0 +1,23 @@
+package com.workfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * FieldViolation describes why a property of an employee was rejected.
+ */
+@Data
+@AllArgsConstructor
+public class FieldViolation {
+
+	/**
+	 * The property, such as name or email.
+	 */
+	private String field;
+
+	/**
+	 * The message of the constraint the value violates.
+	 */
+	private String message;
+
+}
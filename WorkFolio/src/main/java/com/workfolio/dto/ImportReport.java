@@ -0,0 +1,69 @@
+package com.workfolio.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ImportReport summarizes a bulk employee import: how many rows were read,
+ * imported and rejected, why each rejected row failed, and how fast the import
+ * ran.
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+
+	/**
+	 * A rejected row of the imported file.
+	 */
+	@Data
+	@AllArgsConstructor
+	public static class RowError {
+
+		/**
+		 * The line number of the row in the imported file, starting at 1.
+		 */
+		private long line;
+
+		/**
+		 * Why the row was rejected.
+		 */
+		private String message;
+	}
+
+	/**
+	 * Number of data rows read from the file.
+	 */
+	private long rowsRead;
+
+	/**
+	 * Number of employees persisted.
+	 */
+	private long imported;
+
+	/**
+	 * The rejected rows, in file order.
+	 */
+	private List<RowError> errors = new ArrayList<>();
+
+	/**
+	 * Wall-clock duration of the import in milliseconds.
+	 */
+	private long elapsedMillis;
+
+	public long getRejected() {
+		return errors.size();
+	}
+
+	/**
+	 * Returns the import throughput.
+	 *
+	 * @return The number of rows processed per second.
+	 */
+	public long getRowsPerSecond() {
+		return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+	}
+}
@@ -0,0 +1,52 @@
+package com.workfolio.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * SalaryStatistics summarizes the headcount and the salaries of all employees.
+ * Salary fields are null when no employee has a salary. Percentiles are
+ * estimates whose relative error is at most {@link #relativeAccuracy}; the
+ * other figures are exact as of the last write.
+ */
+@Data
+@AllArgsConstructor
+public class SalaryStatistics {
+
+	private long headcount;
+
+	/**
+	 * Number of employees that have a salary.
+	 */
+	private long salaried;
+
+	private double totalPayroll;
+
+	private Double average;
+
+	private Double min;
+
+	private Double max;
+
+	private Double p50;
+
+	private Double p90;
+
+	private Double p95;
+
+	private Double p99;
+
+	/**
+	 * Maximum relative error of the percentiles, such as 0.01 for 1%.
+	 */
+	private double relativeAccuracy;
+
+	/**
+	 * When the figures were last recomputed by the database; they have been
+	 * maintained incrementally since.
+	 */
+	private Instant aggregatedAt;
+
+}
@@ -0,0 +1,26 @@
+package com.workfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * TeamStatistics summarizes the team of an employee: the employee and all of
+ * its reports, at any depth.
+ */
+@Data
+@AllArgsConstructor
+public class TeamStatistics {
+
+	private int employeeId;
+
+	/**
+	 * Number of employees in the team, the employee included.
+	 */
+	private long headcount;
+
+	/**
+	 * Sum of the salaries of the team, the employee included.
+	 */
+	private double payroll;
+
+}
@@ -0,0 +1,31 @@
+package com.workfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * TypeaheadStats describes the size of the in-memory typeahead index and an
+ * estimate of the heap it occupies, in total and per indexed employee.
+ */
+@Data
+@AllArgsConstructor
+public class TypeaheadStats {
+
+	/**
+	 * Whether the initial build of the index has finished.
+	 */
+	private boolean ready;
+
+	private int employees;
+
+	private int terms;
+
+	private long postings;
+
+	private long estimatedBytes;
+
+	private long estimatedBytesPerEmployee;
+
+	private long buildMillis;
+
+}
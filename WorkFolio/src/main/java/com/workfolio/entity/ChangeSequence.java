@@ -0,0 +1,45 @@
+package com.workfolio.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ChangeSequence records, for each change feed, the last position given to a
+ * committed change and when it was given. Its row is locked while positions
+ * are given, so that positions follow the order in which changes commit, on
+ * one application node or many.
+ *
+ * The row named "hierarchy" numbers nothing: the EmployeeHierarchyService
+ * locks it so that employees move in the reporting hierarchy one transaction at
+ * a time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "change_sequence")
+public class ChangeSequence {
+
+	/**
+	 * Name of the change feed, e.g. "employee".
+	 */
+	@Id
+	private String name;
+
+	/**
+	 * The last position given, 0 before the first change.
+	 */
+	private Long lastValue;
+
+	/**
+	 * When the last position was given.
+	 */
+	private Instant changedAt;
+
+}
@@ -0,0 +1,30 @@
+package com.workfolio.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Department is a unit of the organization that employees belong to, through
+ * their departmentId.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+public class Department {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+
+	/**
+	 * Name of the department. It must be unique.
+	 */
+	@Column(unique = true, nullable = false, length = 50)
+	private String name;
+
+}
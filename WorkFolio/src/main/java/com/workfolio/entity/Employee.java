@@ -1,21 +1,31 @@
 package com.workfolio.entity;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import javax.validation.constraints.Email;
-import javax.validation.constraints.Min;
-import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Null;
-import javax.validation.constraints.Positive;
-import javax.validation.constraints.Size;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
+@Table(indexes = { @Index(name = "idx_employee_name", columnList = "name"),
+		@Index(name = "idx_employee_salary", columnList = "salary"),
+		@Index(name = "idx_employee_phone", columnList = "phone"),
+		@Index(name = "idx_employee_manager", columnList = "managerId"),
+		@Index(name = "idx_employee_department", columnList = "departmentId") })
 public class Employee {
 
 	@Id
@@ -24,7 +34,6 @@ public class Employee {
 	/**
 	 * Name of the employee.
 	 */
-	@Null(message = "Name should not be null")
 	@Size(min = 2, max = 50, message = "Name should consist of a minimum of 2 characters and a maximum of 50 characters.")
 	@NotBlank(message = "Invalid Employee Name")
 	private String name;
@@ -32,14 +41,14 @@ public class Employee {
 	/**
 	 * The address of the employee.
 	 */
+	@Size(max = 255, message = "Address should consist of a maximum of 255 characters.")
 	private String address;
 
 	/**
 	 * Email address of the employee. It must be unique and cannot be null.
 	 */
-	@NotNull(message = "email should not be null")
+	@NotBlank(message = "email should not be null")
 	@Email(message = "Invalid Email")
-	@NotBlank(message = "Invalid Employee Name")
 	@Column(unique = true, nullable = false)
 	private String email;
 
@@ -47,17 +56,37 @@ public class Employee {
 	 * Phone number of the employee. It must be a valid phone number without country
 	 * code.
 	 */
-	@NotNull(message = "Employee number should not be null")
-	@Size(min = 10, max = 10, message = "please provide a valid phone number without country code")
 	@NotBlank(message = "Invalid Employee Number")
+	@Size(min = 10, max = 10, message = "please provide a valid phone number without country code")
 	private String phone;
 
 	/**
 	 * Salary of the employee. It must be a positive value and at least 5000.
 	 */
 	@NotNull(message = "Employee salary should not be null")
-	@Positive(message = "Salary must be a positive value")
 	@Min(value = 5000, message = "Salary must be at least 5000")
 	private Double salary;
 
+	/**
+	 * Id of the employee this employee reports to, or null for the top of the
+	 * hierarchy. In a PATCH, 0 removes the manager.
+	 */
+	private Integer managerId;
+
+	/**
+	 * Id of the Department of the employee, or null. In a PATCH, 0 removes the
+	 * department.
+	 */
+	private Integer departmentId;
+
+	/**
+	 * Version of the employee row, incremented on every update. An update that
+	 * carries an outdated version is rejected instead of overwriting the newer
+	 * data.
+	 */
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 }
@@ -0,0 +1,75 @@
+package com.workfolio.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * EmployeeHistory is one row of the append-only change history of the
+ * employees: the state of an employee right after it was added or updated, or
+ * right before it was deleted. Rows are inserted in the transaction of the
+ * change they record, and are numbered in insertion order by seq. Once that
+ * transaction has committed, the EmployeeFeedSequencer gives each row its
+ * position in the change feed, feedSeq, in commit order.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "employee_history", indexes = {
+		@Index(name = "idx_employee_history_employee", columnList = "employeeId, changedAt"),
+		@Index(name = "idx_employee_history_feed", columnList = "feedSeq") })
+public class EmployeeHistory {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long seq;
+
+	/**
+	 * The position of the change in the change feed, null until it is sequenced
+	 * after its transaction commits.
+	 */
+	private Long feedSeq;
+
+	@Column(nullable = false)
+	private Integer employeeId;
+
+	/**
+	 * INSERT, UPDATE or DELETE.
+	 */
+	@Column(nullable = false, length = 6)
+	private String operation;
+
+	@Column(nullable = false)
+	private Instant changedAt;
+
+	/**
+	 * The user who made the change, or null for changes written in the
+	 * background, such as write-behind flushes.
+	 */
+	private String changedBy;
+
+	private Long version;
+
+	private String name;
+
+	private String address;
+
+	private String email;
+
+	private String phone;
+
+	private Double salary;
+
+	private Integer managerId;
+
+	private Integer departmentId;
+
+}
@@ -0,0 +1,31 @@
+package com.workfolio.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * EmployeePath is the position of an employee in the reporting hierarchy: the
+ * ids of its chain of command, from the top of the hierarchy down to the
+ * employee itself, as a path such as /1/5/23/. The paths of all the reports of
+ * an employee, at any depth, start with the path of the employee, so the
+ * index on path finds a whole subtree with a single range scan. Paths are
+ * maintained by the EmployeeHierarchyService whenever a manager changes.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "employee_path", indexes = { @Index(name = "idx_employee_path_path", columnList = "path") })
+public class EmployeePath {
+
+	@Id
+	private Integer employeeId;
+
+	@Column(nullable = false, length = 512)
+	private String path;
+
+}
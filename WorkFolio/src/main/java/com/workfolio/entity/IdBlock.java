@@ -0,0 +1,33 @@
+package com.workfolio.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * IdBlock records, for each id sequence, the first id that has not been handed
+ * out to any application node yet. Nodes reserve ids in blocks by advancing
+ * this value, and then assign the ids of their block from memory.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "id_block")
+public class IdBlock {
+
+	/**
+	 * Name of the id sequence, e.g. "employee".
+	 */
+	@Id
+	private String name;
+
+	/**
+	 * The next id that has not been reserved yet.
+	 */
+	private Long nextValue;
+
+}
@@ -0,0 +1,39 @@
+package com.workfolio.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * StaffUser is an account of the HR staff allowed to sign in to WorkFolio, in
+ * the web pages or through the JSON API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "staff_user")
+public class StaffUser {
+
+	@Id
+	private String username;
+
+	/**
+	 * The password hash, prefixed with the id of its encoder, e.g. {bcrypt}.
+	 */
+	@Column(nullable = false)
+	private String password;
+
+	/**
+	 * Comma separated roles, without the ROLE_ prefix, e.g. "HR,ADMIN".
+	 */
+	@Column(nullable = false)
+	private String roles;
+
+	private boolean enabled;
+
+}
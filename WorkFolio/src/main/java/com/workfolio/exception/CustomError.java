@@ -1,6 +1,9 @@
 package com.workfolio.exception;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
+import com.workfolio.dto.FieldViolation;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -38,6 +41,12 @@ public class CustomError {
 	 */
 	private String description;
 
+	/**
+	 * The rejected fields and the reason of each, when the error is a failed
+	 * validation.
+	 */
+	private List<FieldViolation> fieldErrors;
+
 	/**
 	 * Constructs a new CustomError object with the specified error message and
 	 * description.
@@ -0,0 +1,29 @@
+package com.workfolio.exception;
+
+/**
+ * EmployeeConflictException is thrown when a change cannot be applied to the
+ * current state of the data, such as an email that is already taken. It is an
+ * expected outcome, answered with 409 Conflict, so it carries no stack trace;
+ * the common cases are preallocated.
+ */
+public class EmployeeConflictException extends EmployeeException {
+
+	public static final EmployeeConflictException DUPLICATE_EMAIL = new EmployeeConflictException(
+			"the employee already present with that email");
+
+	public static final EmployeeConflictException MODIFIED = new EmployeeConflictException(
+			"the employee was modified by someone else, please reload it and try again");
+
+	public static final EmployeeConflictException HAS_REPORTS = new EmployeeConflictException(
+			"the employee still has reports, please assign them to another manager first");
+
+	public static final EmployeeConflictException REPORTS_CYCLE = new EmployeeConflictException(
+			"an employee cannot report to one of its own reports");
+
+	public EmployeeConflictException(String e) {
+
+		super(e, false);
+
+	}
+
+}
@@ -8,4 +8,19 @@ public class EmployeeException extends Exception {
 
 	}
 
+	/**
+	 * Creates an exception for an expected failure, such as an unknown id, which
+	 * is answered to the client rather than logged. Without a stack trace, and
+	 * without suppressed exceptions, such an exception costs no more to create
+	 * than its message, and one that is never changed may be shared.
+	 *
+	 * @param e          The message of the exception.
+	 * @param stackTrace Whether the stack trace is captured.
+	 */
+	protected EmployeeException(String e, boolean stackTrace) {
+
+		super(e, null, false, stackTrace);
+
+	}
+
 }
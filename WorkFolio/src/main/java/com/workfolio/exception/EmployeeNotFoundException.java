@@ -0,0 +1,23 @@
+package com.workfolio.exception;
+
+/**
+ * EmployeeNotFoundException is thrown when a requested employee, or its
+ * history, does not exist. It is an expected outcome, answered with 404 Not
+ * Found, so it carries no stack trace.
+ */
+public class EmployeeNotFoundException extends EmployeeException {
+
+	/**
+	 * Thrown when no employee has the requested id, when the id is already part
+	 * of the request.
+	 */
+	public static final EmployeeNotFoundException EMPLOYEE = new EmployeeNotFoundException(
+			"no employee found with that id");
+
+	public EmployeeNotFoundException(String e) {
+
+		super(e, false);
+
+	}
+
+}
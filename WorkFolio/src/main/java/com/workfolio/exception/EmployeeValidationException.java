@@ -0,0 +1,49 @@
+package com.workfolio.exception;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.workfolio.dto.FieldViolation;
+
+/**
+ * EmployeeValidationException is thrown when a request is invalid: an employee
+ * that violates the constraints declared on the Employee entity, or a
+ * parameter such as a page cursor that cannot be read. It is an expected
+ * outcome, answered with 400 Bad Request, so it carries no stack trace. For an
+ * invalid employee, it carries one FieldViolation per rejected property and
+ * its message joins their messages.
+ */
+public class EmployeeValidationException extends EmployeeException {
+
+	private final List<FieldViolation> violations;
+
+	public EmployeeValidationException(String e) {
+
+		super(e, false);
+		this.violations = List.of();
+
+	}
+
+	public EmployeeValidationException(List<FieldViolation> violations) {
+
+		super(violations.stream().map(FieldViolation::getMessage).collect(Collectors.joining(", ")), false);
+		this.violations = List.copyOf(violations);
+
+	}
+
+	/**
+	 * Creates an exception for a single rejected property.
+	 *
+	 * @param field   The property.
+	 * @param message Why the value was rejected.
+	 * @return The exception.
+	 */
+	public static EmployeeValidationException of(String field, String message) {
+		return new EmployeeValidationException(List.of(new FieldViolation(field, message)));
+	}
+
+	public List<FieldViolation> getViolations() {
+		return violations;
+	}
+
+}
@@ -2,50 +2,133 @@ package com.workfolio.exception;
 
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.ErrorResponse;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 
+import com.workfolio.dto.FieldViolation;
+import com.workfolio.metrics.ErrorResponseMetrics;
+
 /**
  * GlobalExceptionHandler class handles exceptions globally for the WorkFolio
  * application. It intercepts specific types of exceptions and provides custom
  * error responses for better error handling and reporting. This centralized
  * exception handling helps improve the application's robustness and
  * maintainability.
+ *
+ * Expected failures are answered with the status of their type: 400 Bad
+ * Request for an EmployeeValidationException or an unreadable request, 404 Not
+ * Found for an EmployeeNotFoundException and 409 Conflict for an
+ * EmployeeConflictException. They carry no stack trace and are not logged, so
+ * a flood of them costs little more than the responses; they are counted by
+ * the ErrorResponseMetrics instead. Any other EmployeeException means the
+ * request could not be served at the moment (503 Service Unavailable), and
+ * anything else is an unexpected failure (500 Internal Server Error), which is
+ * logged with its stack trace.
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+	private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+	@Autowired
+	private ErrorResponseMetrics errorMetrics;
+
+	/**
+	 * Exception handler for EmployeeValidationException. This method is triggered
+	 * when a request is invalid, such as an employee that breaks the validation
+	 * rules of the Employee entity, before anything has been written. It responds
+	 * with 400 Bad Request and lists every rejected field with its reason, so that
+	 * a client can point at the fields to correct.
+	 *
+	 * @param ex  The EmployeeValidationException listing the rejected fields.
+	 * @param req The WebRequest associated with the exception.
+	 * @return A ResponseEntity containing a CustomError object representing the
+	 *         error response.
+	 */
+	@ExceptionHandler(EmployeeValidationException.class)
+	public ResponseEntity<CustomError> validationExceptionHandler(EmployeeValidationException ex, WebRequest req) {
+		return respond("validation", HttpStatus.BAD_REQUEST, ex.getMessage(), ex.getViolations(), req);
+	}
+
+	/**
+	 * Exception handler for requests that cannot be read, such as a malformed JSON
+	 * body or a path variable that is not a number. It responds with 400 Bad
+	 * Request.
+	 *
+	 * @param ex  The exception raised while reading the request.
+	 * @param req The WebRequest associated with the exception.
+	 * @return A ResponseEntity containing a CustomError object representing the
+	 *         error response.
+	 */
+	@ExceptionHandler({ HttpMessageNotReadableException.class, TypeMismatchException.class })
+	public ResponseEntity<CustomError> unreadableRequestHandler(Exception ex, WebRequest req) {
+		return respond("validation", HttpStatus.BAD_REQUEST, ex.getMessage(), null, req);
+	}
+
+	/**
+	 * Exception handler for EmployeeNotFoundException. It responds with 404 Not
+	 * Found.
+	 *
+	 * @param ex  The EmployeeNotFoundException naming what was not found.
+	 * @param req The WebRequest associated with the exception.
+	 * @return A ResponseEntity containing a CustomError object representing the
+	 *         error response.
+	 */
+	@ExceptionHandler(EmployeeNotFoundException.class)
+	public ResponseEntity<CustomError> notFoundExceptionHandler(EmployeeNotFoundException ex, WebRequest req) {
+		return respond("not_found", HttpStatus.NOT_FOUND, ex.getMessage(), null, req);
+	}
+
+	/**
+	 * Exception handler for EmployeeConflictException. It responds with 409
+	 * Conflict.
+	 *
+	 * @param ex  The EmployeeConflictException describing the conflict.
+	 * @param req The WebRequest associated with the exception.
+	 * @return A ResponseEntity containing a CustomError object representing the
+	 *         error response.
+	 */
+	@ExceptionHandler(EmployeeConflictException.class)
+	public ResponseEntity<CustomError> conflictExceptionHandler(EmployeeConflictException ex, WebRequest req) {
+		return respond("conflict", HttpStatus.CONFLICT, ex.getMessage(), null, req);
+	}
+
 	/**
 	 * Exception handler for EmployeeException. This method is triggered when an
-	 * EmployeeException is thrown, typically from the EmployeeController class. It
-	 * constructs a custom error response containing relevant error details and
-	 * returns it as a ResponseEntity.
+	 * EmployeeException of no more specific type is thrown, such as when the
+	 * write-behind queue is full or no employee ids are left. It constructs a
+	 * custom error response containing relevant error details and returns it as a
+	 * ResponseEntity with 503 Service Unavailable.
 	 *
-	 * @param me  The MethodArgumentNotValidException representing the
-	 *            EmployeeException.
+	 * @param ex  The EmployeeException.
 	 * @param req The WebRequest associated with the exception.
 	 * @return A ResponseEntity containing a CustomError object representing the
 	 *         error response.
 	 */
 	@ExceptionHandler(EmployeeException.class)
-	public ResponseEntity<CustomError> customerExceptionHandler(MethodArgumentNotValidException me, WebRequest req) {
-		CustomError ed = new CustomError();
-		ed.setDescription(req.getDescription(false));
-		ed.setTimeStamp(LocalDateTime.now());
-		ed.setMessage(me.getBindingResult().getFieldError().getDefaultMessage());
-		return new ResponseEntity<>(ed, HttpStatus.BAD_GATEWAY);
+	public ResponseEntity<CustomError> customerExceptionHandler(EmployeeException ex, WebRequest req) {
+		log.warn("{} : {}", req.getDescription(false), ex.getMessage());
+		return respond("unavailable", HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), null, req);
 	}
 
 	/**
 	 * General exception handler for Exception class. This method is triggered when
 	 * any other unhandled exception occurs within the application. It constructs a
 	 * custom error response containing relevant error details and returns it as a
-	 * ResponseEntity.
+	 * ResponseEntity, with the status of the exception when it has one (such as
+	 * 404 for an unknown path) or else 500 Internal Server Error, in which case the
+	 * exception is logged.
 	 *
 	 * @param ex  The Exception representing the unhandled exception.
 	 * @param req The WebRequest associated with the exception.
@@ -54,10 +137,19 @@ public class GlobalExceptionHandler {
 	 */
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<CustomError> ExceptionHandler(Exception ex, WebRequest req) {
-		CustomError ed = new CustomError();
-		ed.setDescription(req.getDescription(false));
-		ed.setTimeStamp(LocalDateTime.now());
-		ed.setMessage(ex.getMessage());
-		return new ResponseEntity<>(ed, HttpStatus.BAD_GATEWAY);
+		if (ex instanceof ErrorResponse response)
+			return respond("unexpected", HttpStatus.valueOf(response.getStatusCode().value()), ex.getMessage(), null,
+					req);
+		log.error("Unexpected failure of {}", req.getDescription(false), ex);
+		return respond("unexpected", HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), null, req);
+	}
+
+	private ResponseEntity<CustomError> respond(String type, HttpStatus status, String message,
+			List<FieldViolation> violations, WebRequest req) {
+		errorMetrics.count(type, status.value());
+		CustomError ed = new CustomError(LocalDateTime.now(), message, req.getDescription(false));
+		if (violations != null && !violations.isEmpty())
+			ed.setFieldErrors(violations);
+		return new ResponseEntity<>(ed, status);
 	}
 }
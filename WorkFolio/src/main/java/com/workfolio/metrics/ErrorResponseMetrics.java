@@ -0,0 +1,42 @@
+package com.workfolio.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * ErrorResponseMetrics counts the error responses sent by the
+ * GlobalExceptionHandler, as the workfolio.errors counter tagged with the type
+ * of error (validation, not_found, conflict, unavailable or unexpected) and
+ * the HTTP status. The counters are registered once per type and status, so
+ * counting an error costs a map lookup, and a rate of 404 or 409 responses
+ * can be followed without any of them being logged.
+ */
+@Component
+public class ErrorResponseMetrics {
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	public ErrorResponseMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Counts an error response.
+	 *
+	 * @param type   The type of error.
+	 * @param status The HTTP status of the response.
+	 */
+	public void count(String type, int status) {
+		counters.computeIfAbsent(type + ' ' + status,
+				key -> Counter.builder("workfolio.errors").description("Error responses sent to clients")
+						.tag("type", type).tag("status", Integer.toString(status)).register(meterRegistry))
+				.increment();
+	}
+}
@@ -0,0 +1,90 @@
+package com.workfolio.metrics;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * RepositoryMetricsAspect times every call made to the EmployeeRepository and
+ * counts the rows each call returns. The timings are published as the
+ * workfolio.repository timer and the row counts as the workfolio.repository.rows
+ * distribution summary, both tagged with the repository method and, for the
+ * timer, the exception thrown if any.
+ *
+ * Rows are counted for calls returning entities, collections, pages or
+ * optionals; calls returning nothing or a scalar (a count, a maximum, a number
+ * of updated rows) are only timed. For a returned stream, the timer covers
+ * opening the cursor and the rows are counted as the stream is consumed, when
+ * it is closed.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+	private final MeterRegistry meterRegistry;
+
+	public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Around("execution(* *(..)) && this(com.workfolio.repository.EmployeeRepository)")
+	public Object measure(ProceedingJoinPoint pjp) throws Throwable {
+
+		String method = pjp.getSignature().getName();
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String exception = "none";
+		try {
+			Object result = pjp.proceed();
+			return ((MethodSignature) pjp.getSignature()).getReturnType() == void.class ? result : count(method, result);
+		} catch (Throwable ex) {
+			exception = ex.getClass().getSimpleName();
+			throw ex;
+		} finally {
+			sample.stop(Timer.builder("workfolio.repository").description("EmployeeRepository call duration")
+					.tag("method", method).tag("exception", exception).register(meterRegistry));
+		}
+
+	}
+
+	private Object count(String method, Object result) {
+
+		if (result instanceof Stream<?> stream) {
+			AtomicLong rows = new AtomicLong();
+			return stream.peek(row -> rows.incrementAndGet()).onClose(() -> rows(method).record(rows.get()));
+		}
+
+		long rows;
+		if (result == null)
+			rows = 0;
+		else if (result instanceof Collection<?> c)
+			rows = c.size();
+		else if (result instanceof Slice<?> s)
+			rows = s.getNumberOfElements();
+		else if (result instanceof Optional<?> o)
+			rows = o.isPresent() ? 1 : 0;
+		else if (result instanceof Number || result instanceof Boolean)
+			return result;
+		else
+			rows = 1;
+		rows(method).record(rows);
+		return result;
+
+	}
+
+	private DistributionSummary rows(String method) {
+		return DistributionSummary.builder("workfolio.repository.rows")
+				.description("Rows returned by an EmployeeRepository call").baseUnit("rows").tag("method", method).register(meterRegistry);
+	}
+}
@@ -0,0 +1,78 @@
+package com.workfolio.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+/**
+ * StartupTimeFilter reports how long a node takes to become useful: the time
+ * from the start of the JVM until the application is ready, and until the
+ * first request has been answered. The latter includes whatever the first
+ * request initializes, such as the beans left to be created on first use by
+ * spring.main.lazy-initialization. Both are logged once and published as the
+ * workfolio.startup.ready and workfolio.startup.first-request gauges, in
+ * seconds.
+ *
+ * After the first request, the filter costs a single volatile read.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupTimeFilter implements Filter {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupTimeFilter.class);
+
+	private final MeterRegistry meterRegistry;
+
+	private final AtomicBoolean served = new AtomicBoolean();
+
+	public StartupTimeFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void ready() {
+		long ready = ManagementFactory.getRuntimeMXBean().getUptime();
+		Gauge.builder("workfolio.startup.ready", () -> ready / 1000.0).baseUnit("seconds")
+				.description("Time from the start of the JVM until the application is ready").register(meterRegistry);
+		log.info("Ready {} ms after the JVM started", ready);
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+
+		if (served.get()) {
+			chain.doFilter(request, response);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			if (served.compareAndSet(false, true)) {
+				long firstRequest = ManagementFactory.getRuntimeMXBean().getUptime();
+				Gauge.builder("workfolio.startup.first-request", () -> firstRequest / 1000.0).baseUnit("seconds")
+						.description("Time from the start of the JVM until the first request was answered")
+						.register(meterRegistry);
+				log.info("First request answered {} ms after the JVM started, in {} ms", firstRequest,
+						(System.nanoTime() - start) / 1_000_000);
+			}
+		}
+	}
+}
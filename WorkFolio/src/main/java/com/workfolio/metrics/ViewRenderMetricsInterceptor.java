@@ -0,0 +1,54 @@
+package com.workfolio.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ViewRenderMetricsInterceptor measures how long each Thymeleaf view takes to
+ * render, separately from the controller that selected it. Spring MVC calls
+ * postHandle once the controller has returned and afterCompletion once the view
+ * has been rendered, so the time between them is the rendering time. It is
+ * published as the workfolio.view.render timer, tagged with the view name.
+ * Redirects render nothing and are not measured.
+ */
+@Component
+public class ViewRenderMetricsInterceptor implements HandlerInterceptor {
+
+	private static final String SAMPLE = ViewRenderMetricsInterceptor.class.getName() + ".sample";
+
+	private static final String VIEW = ViewRenderMetricsInterceptor.class.getName() + ".view";
+
+	private final MeterRegistry meterRegistry;
+
+	public ViewRenderMetricsInterceptor(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+			ModelAndView modelAndView) {
+
+		if (modelAndView == null || modelAndView.getViewName() == null
+				|| modelAndView.getViewName().startsWith("redirect:"))
+			return;
+		request.setAttribute(VIEW, modelAndView.getViewName());
+		request.setAttribute(SAMPLE, Timer.start(meterRegistry));
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+
+		if (!(request.getAttribute(SAMPLE) instanceof Timer.Sample sample))
+			return;
+		sample.stop(Timer.builder("workfolio.view.render").description("Thymeleaf view rendering duration")
+				.tag("view", (String) request.getAttribute(VIEW))
+				.tag("exception", ex == null ? "none" : ex.getClass().getSimpleName()).register(meterRegistry));
+	}
+}
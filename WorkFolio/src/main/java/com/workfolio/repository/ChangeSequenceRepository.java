@@ -0,0 +1,44 @@
+package com.workfolio.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import com.workfolio.entity.ChangeSequence;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * ChangeSequenceRepository is a Spring Data JPA repository for the
+ * ChangeSequence entity, used to number committed changes and to serialize
+ * moves in the reporting hierarchy.
+ */
+public interface ChangeSequenceRepository extends JpaRepository<ChangeSequence, String> {
+
+	/**
+	 * Reads the ChangeSequence of a feed and locks its row until the end of the
+	 * current transaction, so changes are numbered by one transaction at a time.
+	 *
+	 * @param name The name of the feed.
+	 * @return The locked ChangeSequence, or an empty Optional if the feed does not
+	 *         exist yet.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from ChangeSequence s where s.name = :name")
+	public Optional<ChangeSequence> findForUpdate(String name);
+
+	/**
+	 * Reads a ChangeSequence and locks its row in shared mode until the end of
+	 * the current transaction: other transactions may also read it so, but not
+	 * lock it with {@link #findForUpdate(String)} meanwhile.
+	 *
+	 * @param name The name of the sequence.
+	 * @return The locked ChangeSequence, or an empty Optional if it does not
+	 *         exist yet.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_READ)
+	@Query("select s from ChangeSequence s where s.name = :name")
+	public Optional<ChangeSequence> findForShare(String name);
+}
@@ -0,0 +1,28 @@
+package com.workfolio.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.workfolio.dto.DepartmentSummary;
+import com.workfolio.entity.Department;
+
+/**
+ * DepartmentRepository is a Spring Data JPA repository for the Department
+ * entity.
+ */
+public interface DepartmentRepository extends JpaRepository<Department, Integer> {
+
+	/**
+	 * Summarizes every department with the headcount and the payroll of its
+	 * employees, in a single grouped query over the department index of the
+	 * employee table.
+	 *
+	 * @return The summaries of the departments, ordered by name.
+	 */
+	@Query("select new com.workfolio.dto.DepartmentSummary(d.id, d.name, count(e.id), coalesce(sum(e.salary), 0.0)) "
+			+ "from Department d left join Employee e on e.departmentId = d.id group by d.id, d.name order by d.name")
+	public List<DepartmentSummary> findSummaries();
+
+}
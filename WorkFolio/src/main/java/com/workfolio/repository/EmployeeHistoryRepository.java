@@ -0,0 +1,48 @@
+package com.workfolio.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.workfolio.entity.EmployeeHistory;
+
+/**
+ * EmployeeHistoryRepository is a Spring Data JPA repository for reading the
+ * EmployeeHistory of the employees. History rows are written by the
+ * EmployeeHistoryService with plain JDBC, never through this repository.
+ */
+public interface EmployeeHistoryRepository extends JpaRepository<EmployeeHistory, Long> {
+
+	/**
+	 * Finds every recorded change of an employee, oldest first.
+	 *
+	 * @param employeeId The id of the employee.
+	 * @return The changes of the employee.
+	 */
+	public List<EmployeeHistory> findByEmployeeIdOrderBySeq(int employeeId);
+
+	/**
+	 * Finds the last change of an employee made before the given time, using the
+	 * (employee_id, changed_at) index.
+	 *
+	 * @param employeeId The id of the employee.
+	 * @param before     The time the change must precede.
+	 * @return The last change before that time, if any.
+	 */
+	public Optional<EmployeeHistory> findFirstByEmployeeIdAndChangedAtBeforeOrderByChangedAtDescSeqDesc(
+			int employeeId, Instant before);
+
+	/**
+	 * Finds the changes that follow a position of the change feed, in feed order.
+	 *
+	 * @param feedSeq  The position the changes must follow.
+	 * @param pageable The maximum number of changes, as the size of the first
+	 *                 page.
+	 * @return The changes.
+	 */
+	public List<EmployeeHistory> findByFeedSeqGreaterThanOrderByFeedSeq(long feedSeq, Pageable pageable);
+
+}
@@ -0,0 +1,100 @@
+package com.workfolio.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.workfolio.entity.EmployeePath;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * EmployeePathRepository is a Spring Data JPA repository for the EmployeePath
+ * of the employees, the index of the reporting hierarchy. New paths are
+ * inserted by the EmployeeHierarchyService with JDBC batches.
+ */
+public interface EmployeePathRepository extends JpaRepository<EmployeePath, Integer> {
+
+	/**
+	 * Reads the paths of some employees and locks their rows until the end of the
+	 * current transaction, so the paths read are the committed ones, and cannot
+	 * change meanwhile.
+	 *
+	 * @param ids The ids of the employees.
+	 * @return The locked paths.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select p from EmployeePath p where p.employeeId in :ids")
+	public List<EmployeePath> findForUpdate(Collection<Integer> ids);
+
+	/**
+	 * Reads the paths of some employees with a locking read in shared mode, so
+	 * the paths read are the committed ones, and cannot change until the end of
+	 * the current transaction.
+	 *
+	 * @param ids The ids of the employees.
+	 * @return The paths.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_READ)
+	@Query("select p from EmployeePath p where p.employeeId in :ids")
+	public List<EmployeePath> findForShare(Collection<Integer> ids);
+
+	/**
+	 * Reads the paths of some employees as values, which, unlike entities, are
+	 * not kept by the persistence context: a locking read of the same employees
+	 * later in the transaction still reads their rows.
+	 *
+	 * @param ids The ids of the employees.
+	 * @return The id and the path of each employee found.
+	 */
+	@Query("select p.employeeId, p.path from EmployeePath p where p.employeeId in :ids")
+	public List<Object[]> findPaths(Collection<Integer> ids);
+
+	/**
+	 * Tells whether an employee has reports, from the range of the path index
+	 * that holds its subtree.
+	 *
+	 * @param path       The path of the employee.
+	 * @param employeeId The id of the employee.
+	 * @return true if another path starts with the path of the employee.
+	 */
+	public boolean existsByPathStartingWithAndEmployeeIdNot(String path, Integer employeeId);
+
+	/**
+	 * Moves a subtree of the hierarchy with a single statement, replacing the
+	 * path of its top employee at the start of every path of the subtree.
+	 *
+	 * @param from The current path of the top employee of the subtree.
+	 * @param to   The new path of the top employee of the subtree.
+	 * @return The number of employees moved.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("update EmployeePath p set p.path = concat(:to, substring(p.path, length(:from) + 1)) "
+			+ "where p.path like concat(:from, '%')")
+	public int movePaths(String from, String to);
+
+	/**
+	 * Removes the paths of some employees.
+	 *
+	 * @param ids The ids of the employees.
+	 * @return The number of paths removed.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("delete from EmployeePath p where p.employeeId in :ids")
+	public int deleteByIds(Collection<Integer> ids);
+
+	/**
+	 * Finds the employees that are not in the hierarchy index yet, such as those
+	 * added before it existed.
+	 *
+	 * @return The id and the manager id of each such employee.
+	 */
+	@Query("select e.id, e.managerId from Employee e "
+			+ "where not exists (select p from EmployeePath p where p.employeeId = e.id)")
+	public List<Object[]> findEmployeesWithoutPath();
+
+}
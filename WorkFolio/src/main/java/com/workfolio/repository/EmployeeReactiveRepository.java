@@ -0,0 +1,197 @@
+package com.workfolio.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.entity.ChangeSequence;
+import com.workfolio.entity.Employee;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * EmployeeReactiveRepository reads the employee table without blocking, through
+ * R2DBC, for the reactive stack enabled by the "reactive" profile. It runs the
+ * same keyset queries as the EmployeeRepository, but returns them as Mono and
+ * Flux, so a request waiting for the database holds no thread.
+ *
+ * The repository owns its connection pool instead of publishing it as a
+ * ConnectionFactory bean: such a bean would make Spring Boot back off from
+ * configuring the JDBC DataSource that JPA, and so the rest of the
+ * application, still uses.
+ */
+@Repository
+@Profile("reactive")
+public class EmployeeReactiveRepository implements DisposableBean {
+
+	private static final String COLUMNS = "id, name, address, email, phone, salary, manager_id, department_id, version";
+
+	private final ConnectionPool pool;
+
+	private final DatabaseClient client;
+
+	public EmployeeReactiveRepository(@Value("${spring.r2dbc.url}") String url,
+			@Value("${spring.r2dbc.username:}") String username, @Value("${spring.r2dbc.password:}") String password,
+			@Value("${spring.r2dbc.pool.max-size:10}") int maxSize,
+			@Value("${spring.r2dbc.pool.max-acquire-time:30s}") Duration maxAcquireTime) {
+
+		ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+		if (!username.isEmpty())
+			options.option(ConnectionFactoryOptions.USER, username);
+		if (!password.isEmpty())
+			options.option(ConnectionFactoryOptions.PASSWORD, password);
+
+		this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+				.name("workfolio-r2dbc").maxSize(maxSize).initialSize(Math.min(maxSize, 2))
+				.maxAcquireTime(maxAcquireTime).build());
+		this.client = DatabaseClient.create(pool);
+	}
+
+	/**
+	 * Finds an employee by id.
+	 *
+	 * @param id The id of the employee.
+	 * @return The employee, or an empty Mono if there is none.
+	 */
+	public Mono<Employee> findById(int id) {
+		return client.sql("select " + COLUMNS + " from employee where id = :id").bind("id", id)
+				.map(EmployeeReactiveRepository::toEmployee).one();
+	}
+
+	/**
+	 * Reads one keyset page of employees: those after (or before) the cursor in
+	 * the order of the sort column, then the id. The page is returned in sort
+	 * order in both directions.
+	 *
+	 * @param sort     The column the list is ordered by.
+	 * @param cursor   The cursor to read from, or null for the first (or last)
+	 *                 page.
+	 * @param backward true to read the page before the cursor.
+	 * @param limit    The maximum number of employees to read.
+	 * @return The employees of the page.
+	 */
+	public Mono<List<Employee>> findBySeek(EmployeeCursor.SortColumn sort, EmployeeCursor cursor, boolean backward,
+			int limit) {
+
+		// the column name comes from the enum, never from the request
+		String column = sort.name();
+		String beyond = backward ? "<" : ">";
+		String direction = backward ? " desc" : " asc";
+
+		StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(" from employee");
+		if (cursor != null) {
+			String idBeyond = "id " + beyond + " :id";
+			sql.append(" where ").append(sort == EmployeeCursor.SortColumn.id ? idBeyond
+					: "(" + column + " " + beyond + " :value or (" + column + " = :value and " + idBeyond + "))");
+		}
+		sql.append(" order by ");
+		if (sort != EmployeeCursor.SortColumn.id)
+			sql.append(column).append(direction).append(", ");
+		sql.append("id").append(direction).append(" limit :limit");
+
+		DatabaseClient.GenericExecuteSpec query = client.sql(sql.toString()).bind("limit", limit);
+		if (cursor != null) {
+			query = query.bind("id", cursor.getId());
+			if (sort != EmployeeCursor.SortColumn.id)
+				query = query.bind("value", cursor.getValue());
+		}
+
+		return query.map(EmployeeReactiveRepository::toEmployee).all().collectList().map(page -> {
+			if (!backward)
+				return page;
+			List<Employee> reversed = new ArrayList<>(page);
+			Collections.reverse(reversed);
+			return reversed;
+		});
+	}
+
+	/**
+	 * Streams every employee in ascending id order. The table is read in keyset
+	 * batches, and the next batch is only queried once the subscriber has asked
+	 * for more employees than it has received, so a slow consumer holds no
+	 * connection and no more than one batch in memory.
+	 *
+	 * @param batchSize The number of employees read per query.
+	 * @return All employees.
+	 */
+	public Flux<Employee> streamAll(int batchSize) {
+		return findBySeek(EmployeeCursor.SortColumn.id, null, false, batchSize)
+				.expand(batch -> batch.size() < batchSize ? Mono.empty()
+						: findBySeek(EmployeeCursor.SortColumn.id,
+								EmployeeCursor.of(EmployeeCursor.SortColumn.id, batch.get(batch.size() - 1)), false,
+								batchSize))
+				.concatMapIterable(batch -> batch, 1);
+	}
+
+	/**
+	 * Counts the employees.
+	 *
+	 * @return The number of employees.
+	 */
+	public Mono<Long> count() {
+		return client.sql("select count(*) from employee").map(row -> row.get(0, Long.class)).one();
+	}
+
+	/**
+	 * Finds the version of the employee table, as kept by the
+	 * EmployeeChangeTracker.
+	 *
+	 * @param feed The name of the change feed of the employee table.
+	 * @return The version, or an empty Mono if nothing has been written yet.
+	 */
+	public Mono<ChangeSequence> findChangeSequence(String feed) {
+		return client.sql("select name, last_value, changed_at from change_sequence where name = :name")
+				.bind("name", feed).map(row -> new ChangeSequence(row.get("name", String.class),
+						row.get("last_value", Long.class), toInstant(row.get("changed_at"))))
+				.one();
+	}
+
+	/**
+	 * Converts a timestamp column, which drivers return as an Instant, an
+	 * OffsetDateTime or, for columns without a time zone, a LocalDateTime in UTC.
+	 */
+	private static Instant toInstant(Object timestamp) {
+		if (timestamp instanceof OffsetDateTime t)
+			return t.toInstant();
+		if (timestamp instanceof LocalDateTime t)
+			return t.toInstant(ZoneOffset.UTC);
+		return (Instant) timestamp;
+	}
+
+	private static Employee toEmployee(Readable row) {
+		Employee e = new Employee();
+		e.setId(row.get("id", Integer.class));
+		e.setName(row.get("name", String.class));
+		e.setAddress(row.get("address", String.class));
+		e.setEmail(row.get("email", String.class));
+		e.setPhone(row.get("phone", String.class));
+		e.setSalary(row.get("salary", Double.class));
+		e.setManagerId(row.get("manager_id", Integer.class));
+		e.setDepartmentId(row.get("department_id", Integer.class));
+		e.setVersion(row.get("version", Long.class));
+		return e;
+	}
+
+	@Override
+	public void destroy() {
+		pool.dispose();
+	}
+}
@@ -1,16 +1,60 @@
 package com.workfolio.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workfolio.dto.EmployeeSummary;
 import com.workfolio.entity.Employee;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 /**
  * EmployeeRepository interface is a Spring Data JPA repository that handles
  * data access for the Employee entity. It extends the JpaRepository, providing
  * out-of-the-box CRUD (Create, Read, Update, Delete) operations for the
  * Employee entity. This interface enables easy and efficient interaction with
- * the underlying database for Employee-related operations.
+ * the underlying database for Employee-related operations. Queries that need
+ * the Criteria API, such as keyset pagination, are inherited from
+ * {@link EmployeeRepositoryCustom}.
  */
-public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>, EmployeeRepositoryCustom {
+
+	/**
+	 * Finds an Employee by id. Unlike the inherited method, which runs in a
+	 * read-only transaction, this runs in a read-write one, so it always reads
+	 * from the primary when reads are split to replicas: the EmployeeCache loads
+	 * employees through it, and must not cache an outdated copy from a lagging
+	 * replica until it expires.
+	 *
+	 * @param id The id of the Employee to be found.
+	 * @return The Employee entity, or an empty Optional if not found.
+	 */
+	@Override
+	@Transactional
+	public Optional<Employee> findById(Integer id);
+
+	/**
+	 * Checks whether an Employee exists, on the primary for the same reason as
+	 * {@link #findById(Integer)}: it tells a missing employee from a concurrent
+	 * modification right after a write.
+	 *
+	 * @param id The id of the Employee.
+	 * @return true if the Employee exists.
+	 */
+	@Override
+	@Transactional
+	public boolean existsById(Integer id);
 
 	/**
 	 * Custom method to find an Employee by their email address. This method allows
@@ -20,4 +64,84 @@ public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
 	 * @return The Employee entity with the specified email, or null if not found.
 	 */
 	public Employee findByEmail(String email);
+
+	/**
+	 * Streams the summary columns of every Employee from a forward-only database
+	 * cursor instead of materializing the whole table, without loading Employee
+	 * entities. Rows are fetched from the driver in blocks of 500; the stream must
+	 * be consumed inside a transaction and closed afterwards.
+	 *
+	 * @return A stream over the summaries of all employees, ordered by id.
+	 */
+	@Query("select new com.workfolio.dto.EmployeeSummary(e.id, e.name, e.email, e.phone, e.address, e.salary) "
+			+ "from Employee e order by e.id")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	public Stream<EmployeeSummary> streamSummaries();
+
+	/**
+	 * Finds which of the given ids belong to an Employee, with a single query for
+	 * the whole collection.
+	 *
+	 * @param ids The ids to look up.
+	 * @return The ids of the existing employees.
+	 */
+	@Query("select e.id from Employee e where e.id in :ids")
+	public List<Integer> findExistingIds(Collection<Integer> ids);
+
+	/**
+	 * Finds which of the given email addresses already belong to an Employee, with
+	 * a single query for the whole collection.
+	 *
+	 * @param emails The email addresses to look up.
+	 * @return The email addresses that are already taken.
+	 */
+	@Query("select e.email from Employee e where e.email in :emails")
+	public List<String> findExistingEmails(Collection<String> emails);
+
+	/**
+	 * Reads the salary of an Employee without loading the entity, and locks its
+	 * row until the end of the current transaction, so the salary read is the
+	 * one a following update of the row replaces.
+	 *
+	 * @param id The id of the Employee.
+	 * @return The salary, or null if the Employee has none or does not exist.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select e.salary from Employee e where e.id = :id")
+	public Double findSalaryForUpdate(int id);
+
+	/**
+	 * Counts the Employees of each distinct positive salary, so the salary
+	 * distribution can be built without reading any employee rows.
+	 *
+	 * @return Pairs of a salary and the number of Employees earning it.
+	 */
+	@Query("select e.salary, count(e) from Employee e where e.salary > 0 group by e.salary")
+	public List<Object[]> countBySalary();
+
+	/**
+	 * Finds the highest id of all Employees.
+	 *
+	 * @return The highest employee id, or 0 if there are no employees.
+	 */
+	@Query("select coalesce(max(e.id), 0) from Employee e")
+	public long findMaxId();
+
+	/**
+	 * Finds the reports of an employee, at any depth, from the range of the path
+	 * index that holds its subtree. Reports are ordered by path, so that each
+	 * manager comes before its own reports, and are paged with the path of the
+	 * last report read.
+	 *
+	 * @param path     The EmployeePath of the employee.
+	 * @param after    The path to read after: the path of the last report already
+	 *                 read, or the path of the employee to start.
+	 * @param pageable The maximum number of reports, as the size of the first
+	 *                 page.
+	 * @return The reports.
+	 */
+	@Query("select e from Employee e join EmployeePath p on p.employeeId = e.id "
+			+ "where p.path like concat(:path, '%') and p.path > :after order by p.path")
+	public List<Employee> findReports(String path, String after, Pageable pageable);
 }
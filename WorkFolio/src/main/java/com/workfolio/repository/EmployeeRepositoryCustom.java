@@ -0,0 +1,113 @@
+package com.workfolio.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSearchCriteria;
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.entity.Employee;
+
+/**
+ * EmployeeRepositoryCustom declares the Employee queries that cannot be
+ * expressed as derived or annotated Spring Data queries. It is implemented by
+ * {@link EmployeeRepositoryCustomImpl} and exposed through
+ * {@link EmployeeRepository}.
+ */
+public interface EmployeeRepositoryCustom {
+
+	/**
+	 * Headcount and salary totals of all employees, as aggregated by the database.
+	 *
+	 * @param headcount The number of employees.
+	 * @param salaried  The number of employees with a salary.
+	 * @param total     The sum of all salaries.
+	 * @param min       The lowest salary, or null if no employee has one.
+	 * @param max       The highest salary, or null if no employee has one.
+	 */
+	public record SalaryTotals(Long headcount, Long salaried, Double total, Double min, Double max) {
+	}
+
+	/**
+	 * Reads one page of employees with a keyset (seek) condition on the sort column
+	 * and the id, without an offset and without counting the table. The cost of a
+	 * page only depends on its size, whichever position in the list it is read
+	 * from.
+	 *
+	 * @param sort     The column the list is ordered by.
+	 * @param cursor   The position to read from, or null to read from the start
+	 *                 (or the end when reading backward).
+	 * @param backward true to read the employees before the cursor, false to read
+	 *                 the employees after it.
+	 * @param limit    The maximum number of employees to read.
+	 * @return The employees of the page, always in ascending sort order.
+	 */
+	public List<Employee> findBySeek(EmployeeCursor.SortColumn sort, EmployeeCursor cursor, boolean backward,
+			int limit);
+
+	/**
+	 * Searches employees matching the given criteria, reading only the displayed
+	 * columns into EmployeeSummary projections. Results are read with keyset
+	 * pagination on the sort column of the criteria (name for name prefix
+	 * searches, salary for salary ranges, id otherwise), so the index used to find
+	 * the rows also returns them in page order.
+	 *
+	 * @param criteria The search filters.
+	 * @param cursor   The position to read from, or null for the first page.
+	 * @param limit    The maximum number of employees to read.
+	 * @return The matching employees, in sort order.
+	 */
+	public List<EmployeeSummary> search(EmployeeSearchCriteria criteria, EmployeeCursor cursor, int limit);
+
+	/**
+	 * Updates the given columns of an employee with a single UPDATE statement,
+	 * without loading it first, and increments its version. When an expected
+	 * version is given, the row is only updated if it still has that version. Must
+	 * be called within a transaction.
+	 *
+	 * @param id              The id of the employee.
+	 * @param expectedVersion The version the employee must have, or null to update
+	 *                        it whatever its version.
+	 * @param changes         The new values, keyed by Employee property name.
+	 * @return The number of updated rows: 1 on success, 0 if there is no employee
+	 *         with that id and version.
+	 */
+	public int updatePartial(int id, Long expectedVersion, Map<String, Object> changes);
+
+	/**
+	 * Inserts a new employee without checking whether it exists first, unlike
+	 * save(), which reads an entity with an assigned id before writing it. Must be
+	 * called within a transaction.
+	 *
+	 * @param employee The employee to insert.
+	 */
+	public void persist(Employee employee);
+
+	/**
+	 * Inserts new employees without checking whether they exist first. The inserts
+	 * are sent to the database in JDBC batches when hibernate.jdbc.batch_size is
+	 * set, and the employees are detached afterwards. Must be called within a
+	 * transaction.
+	 *
+	 * @param employees The employees to insert.
+	 */
+	public void persistAll(List<Employee> employees);
+
+	/**
+	 * Aggregates the headcount and salary totals of all employees in a single
+	 * query, without reading any rows into the application.
+	 *
+	 * @return The headcount and salary totals.
+	 */
+	public SalaryTotals aggregateSalaries();
+
+	/**
+	 * Aggregates the headcount and salary totals of the employees whose position
+	 * in the reporting hierarchy starts with the given path: an employee and all
+	 * of its reports, at any depth.
+	 *
+	 * @param path The EmployeePath of the top employee.
+	 * @return The headcount and salary totals of the subtree.
+	 */
+	public SalaryTotals aggregateSalaries(String path);
+}
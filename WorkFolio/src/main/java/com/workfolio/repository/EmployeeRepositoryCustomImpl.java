@@ -0,0 +1,196 @@
+package com.workfolio.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSearchCriteria;
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.entity.Employee;
+import com.workfolio.entity.EmployeePath;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * EmployeeRepositoryCustomImpl implements the custom Employee queries declared
+ * by {@link EmployeeRepositoryCustom} with the JPA Criteria API.
+ */
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Employee> findBySeek(EmployeeCursor.SortColumn sort, EmployeeCursor cursor, boolean backward,
+			int limit) {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+		Root<Employee> root = query.from(Employee.class);
+
+		if (cursor != null)
+			query.where(seek(cb, root, sort, cursor, backward));
+		query.orderBy(seekOrder(cb, root, sort, backward));
+
+		List<Employee> result = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+		if (backward) {
+			result = new ArrayList<>(result);
+			Collections.reverse(result);
+		}
+		return result;
+	}
+
+	@Override
+	public List<EmployeeSummary> search(EmployeeSearchCriteria criteria, EmployeeCursor cursor, int limit) {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<EmployeeSummary> query = cb.createQuery(EmployeeSummary.class);
+		Root<Employee> root = query.from(Employee.class);
+		EmployeeCursor.SortColumn sort = criteria.sortColumn();
+
+		query.select(cb.construct(EmployeeSummary.class, root.get("id"), root.get("name"), root.get("email"),
+				root.get("phone"), root.get("address"), root.get("salary")));
+
+		List<Predicate> where = new ArrayList<>();
+		if (hasText(criteria.getNamePrefix()))
+			where.add(cb.like(root.get("name"), escapeLike(criteria.getNamePrefix().trim()) + "%", '\\'));
+		if (hasText(criteria.getEmail()))
+			where.add(cb.equal(root.get("email"), criteria.getEmail().trim()));
+		if (hasText(criteria.getPhone()))
+			where.add(cb.equal(root.get("phone"), criteria.getPhone().trim()));
+		if (criteria.getMinSalary() != null)
+			where.add(cb.greaterThanOrEqualTo(root.get("salary"), criteria.getMinSalary()));
+		if (criteria.getMaxSalary() != null)
+			where.add(cb.lessThanOrEqualTo(root.get("salary"), criteria.getMaxSalary()));
+		if (hasText(criteria.getAddressContains()))
+			where.add(cb.like(root.get("address"), "%" + escapeLike(criteria.getAddressContains().trim()) + "%",
+					'\\'));
+		if (cursor != null)
+			where.add(seek(cb, root, sort, cursor, false));
+
+		query.where(where.toArray(Predicate[]::new));
+		query.orderBy(seekOrder(cb, root, sort, false));
+
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+	/**
+	 * Builds the keyset condition selecting the rows after (or before) a cursor:
+	 * rows whose sort column is beyond the cursor value, or equal to it with an id
+	 * beyond the cursor id.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Predicate seek(CriteriaBuilder cb, Root<Employee> root, EmployeeCursor.SortColumn sort,
+			EmployeeCursor cursor, boolean backward) {
+
+		Path<Integer> id = root.get("id");
+		Predicate idBeyond = backward ? cb.lessThan(id, cursor.getId()) : cb.greaterThan(id, cursor.getId());
+		if (sort == EmployeeCursor.SortColumn.id)
+			return idBeyond;
+
+		Path<Comparable> column = root.get(sort.name());
+		Comparable value = cursor.getValue();
+		Predicate beyond = backward ? cb.lessThan(column, value) : cb.greaterThan(column, value);
+		return cb.or(beyond, cb.and(cb.equal(column, value), idBeyond));
+	}
+
+	/**
+	 * Builds the ordering of a keyset query: the sort column, then the id.
+	 */
+	private static List<Order> seekOrder(CriteriaBuilder cb, Root<Employee> root, EmployeeCursor.SortColumn sort,
+			boolean backward) {
+
+		List<Expression<?>> order = sort == EmployeeCursor.SortColumn.id ? List.of(root.get("id"))
+				: List.of(root.get(sort.name()), root.get("id"));
+		return order.stream().map(o -> backward ? cb.desc(o) : cb.asc(o)).toList();
+	}
+
+	private static boolean hasText(String value) {
+		return value != null && !value.isBlank();
+	}
+
+	/**
+	 * Escapes the LIKE wildcards of a user-supplied value, using a backslash as
+	 * escape character.
+	 */
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	@Override
+	public int updatePartial(int id, Long expectedVersion, Map<String, Object> changes) {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+		Root<Employee> root = update.from(Employee.class);
+		Path<Long> version = root.get("version");
+
+		changes.forEach(update::set);
+		update.set(version, cb.sum(version, 1L));
+
+		Predicate where = cb.equal(root.get("id"), id);
+		if (expectedVersion != null)
+			where = cb.and(where, cb.equal(version, expectedVersion));
+		update.where(where);
+
+		return entityManager.createQuery(update).executeUpdate();
+	}
+
+	@Override
+	public void persist(Employee employee) {
+
+		entityManager.persist(employee);
+	}
+
+	@Override
+	public void persistAll(List<Employee> employees) {
+
+		for (Employee e : employees)
+			entityManager.persist(e);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Override
+	public SalaryTotals aggregateSalaries() {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<SalaryTotals> query = cb.createQuery(SalaryTotals.class);
+		Root<Employee> root = query.from(Employee.class);
+		Path<Double> salary = root.get("salary");
+
+		query.select(cb.construct(SalaryTotals.class, cb.count(root), cb.count(salary),
+				cb.coalesce(cb.sum(salary), 0.0), cb.min(salary), cb.max(salary)));
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+	@Override
+	public SalaryTotals aggregateSalaries(String path) {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<SalaryTotals> query = cb.createQuery(SalaryTotals.class);
+		Root<Employee> root = query.from(Employee.class);
+		Path<Double> salary = root.get("salary");
+
+		Subquery<Integer> subtree = query.subquery(Integer.class);
+		Root<EmployeePath> paths = subtree.from(EmployeePath.class);
+		subtree.select(paths.get("employeeId")).where(cb.like(paths.get("path"), path + "%"));
+
+		query.select(cb.construct(SalaryTotals.class, cb.count(root), cb.count(salary),
+				cb.coalesce(cb.sum(salary), 0.0), cb.min(salary), cb.max(salary)))
+				.where(root.get("id").in(subtree));
+		return entityManager.createQuery(query).getSingleResult();
+	}
+}
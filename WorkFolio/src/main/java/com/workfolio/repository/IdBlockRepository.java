@@ -0,0 +1,45 @@
+package com.workfolio.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.workfolio.entity.IdBlock;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * IdBlockRepository is a Spring Data JPA repository for the IdBlock entity,
+ * used to reserve blocks of ids for new entities.
+ */
+public interface IdBlockRepository extends JpaRepository<IdBlock, String> {
+
+	/**
+	 * Reads the IdBlock of a sequence and locks its row until the end of the
+	 * current transaction, so two nodes can never reserve the same block.
+	 *
+	 * @param name The name of the sequence.
+	 * @return The locked IdBlock, or an empty Optional if the sequence does not
+	 *         exist yet.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from IdBlock b where b.name = :name")
+	public Optional<IdBlock> findForUpdate(String name);
+
+	/**
+	 * Creates the IdBlock row of a sequence. Unlike save, which merges an entity
+	 * with an assigned id into any row committed meanwhile, this always inserts,
+	 * so a node that loses the race to create the sequence gets an error instead
+	 * of overwriting the winner's block.
+	 *
+	 * @param name      The name of the sequence.
+	 * @param nextValue The first id that is not reserved yet.
+	 * @return The number of rows inserted.
+	 */
+	@Modifying
+	@Query(value = "insert into id_block (name, next_value) values (:name, :nextValue)", nativeQuery = true)
+	public int create(String name, long nextValue);
+}
@@ -0,0 +1,12 @@
+package com.workfolio.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.workfolio.entity.StaffUser;
+
+/**
+ * StaffUserRepository is a Spring Data JPA repository for the StaffUser
+ * entity, the accounts the application authenticates against.
+ */
+public interface StaffUserRepository extends JpaRepository<StaffUser, String> {
+}
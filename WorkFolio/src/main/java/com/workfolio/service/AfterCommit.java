@@ -0,0 +1,33 @@
+package com.workfolio.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AfterCommit defers updates of in-memory state, such as the EmployeeCache and
+ * the EmployeeTypeaheadIndex, until the transaction writing the rows they
+ * reflect has committed, so a rolled back write never reaches them.
+ */
+final class AfterCommit {
+
+	private AfterCommit() {
+	}
+
+	/**
+	 * Runs the given update after the current transaction commits, or immediately
+	 * when no transaction is active.
+	 *
+	 * @param update The update.
+	 */
+	static void run(Runnable update) {
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					update.run();
+				}
+			});
+		else
+			update.run();
+	}
+}
@@ -0,0 +1,162 @@
+package com.workfolio.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workfolio.dto.AuthToken;
+
+/**
+ * AuthTokenService issues and verifies the signed bearer tokens of the JSON
+ * API, enabled with workfolio.auth.token.enabled=true. A token names the user,
+ * their authorities and its expiry, and is signed with HMAC-SHA256, so
+ * verifying it is a signature check: neither the database nor the password
+ * hash is consulted. In return, a token cannot be revoked before it expires;
+ * keep workfolio.auth.token.validity short.
+ *
+ * Tokens are signed with a key derived from workfolio.auth.token.secret (by
+ * default the workfolio.session.secret) for this use only, so the cookies
+ * signed from the same secret are not tokens. The secret must be the same on
+ * every node. Without one, a random key is used, and tokens are only accepted
+ * by the node that issued them, until it restarts.
+ *
+ * A verified token authenticates its request as a {@link TokenAuthentication},
+ * which the AuthTokenController does not trade for a new token: a token is
+ * only issued for a password, so it cannot be renewed forever.
+ */
+@Service
+@ConditionalOnProperty(name = "workfolio.auth.token.enabled", havingValue = "true")
+public class AuthTokenService {
+
+	private static final Logger log = LoggerFactory.getLogger(AuthTokenService.class);
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	/**
+	 * The signed content of a token: the user, their authorities and the expiry
+	 * in epoch seconds.
+	 */
+	private record Claims(String sub, List<String> auth, long exp) {
+	}
+
+	/**
+	 * The authentication of a request by a token.
+	 */
+	public static final class TokenAuthentication extends AbstractAuthenticationToken {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String user;
+
+		private TokenAuthentication(String user, Collection<? extends GrantedAuthority> authorities) {
+			super(authorities);
+			this.user = user;
+			setAuthenticated(true);
+		}
+
+		@Override
+		public Object getCredentials() {
+			return null;
+		}
+
+		@Override
+		public Object getPrincipal() {
+			return user;
+		}
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final SecretKeySpec key;
+
+	private final Duration validity;
+
+	public AuthTokenService(@Value("${workfolio.auth.token.secret:${workfolio.session.secret:}}") String secret,
+			@Value("${workfolio.auth.token.validity:1h}") Duration validity) {
+
+		byte[] bytes;
+		if (secret.isBlank()) {
+			log.warn("workfolio.auth.token.secret is not set: tokens are only valid on this node until it restarts");
+			bytes = new byte[32];
+			new SecureRandom().nextBytes(bytes);
+		} else {
+			bytes = SigningKeys.derive(secret, SigningKeys.API_TOKEN);
+		}
+		this.key = new SecretKeySpec(bytes, ALGORITHM);
+		this.validity = validity;
+	}
+
+	/**
+	 * Issues a token for an authenticated user.
+	 *
+	 * @param authentication The authentication of the user.
+	 * @return The token, valid for the configured time.
+	 */
+	public AuthToken issue(Authentication authentication) {
+		Instant expiresAt = Instant.now().plus(validity);
+		List<String> authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+				.toList();
+		try {
+			String payload = ENCODER.encodeToString(objectMapper
+					.writeValueAsBytes(new Claims(authentication.getName(), authorities, expiresAt.getEpochSecond())));
+			return new AuthToken(payload + "." + ENCODER.encodeToString(sign(payload)), "Bearer", expiresAt);
+		} catch (Exception ex) {
+			throw new IllegalStateException("cannot issue a token", ex);
+		}
+	}
+
+	/**
+	 * Verifies a token.
+	 *
+	 * @param token The token sent by the client.
+	 * @return The authentication it carries, or null if the token is malformed,
+	 *         forged or expired.
+	 */
+	public Authentication verify(String token) {
+		int dot = token.indexOf('.');
+		if (dot < 0)
+			return null;
+		try {
+			String payload = token.substring(0, dot);
+			if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1))))
+				return null;
+			Claims claims = objectMapper.readValue(DECODER.decode(payload), Claims.class);
+			if (claims.exp() <= Instant.now().getEpochSecond())
+				return null;
+			return new TokenAuthentication(claims.sub(), AuthorityUtils.createAuthorityList(claims.auth()));
+		} catch (Exception ex) {
+			return null;
+		}
+	}
+
+	private byte[] sign(String payload) throws GeneralSecurityException {
+		Mac mac = Mac.getInstance(ALGORITHM);
+		mac.init(key);
+		return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+	}
+
+}
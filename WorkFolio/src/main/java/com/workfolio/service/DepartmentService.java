@@ -0,0 +1,17 @@
+package com.workfolio.service;
+
+import java.util.List;
+
+import com.workfolio.dto.DepartmentSummary;
+import com.workfolio.entity.Department;
+import com.workfolio.exception.EmployeeException;
+
+public interface DepartmentService {
+
+	public Department addDepartment(Department department) throws EmployeeException;
+
+	public boolean existsById(int id);
+
+	public List<DepartmentSummary> getDepartments();
+
+}
@@ -0,0 +1,74 @@
+package com.workfolio.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workfolio.dto.DepartmentSummary;
+import com.workfolio.entity.Department;
+import com.workfolio.exception.EmployeeConflictException;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.repository.DepartmentRepository;
+
+/**
+ * The DepartmentServiceImpl class is the implementation of the
+ * DepartmentService interface, managing the departments employees belong to.
+ */
+@Service
+public class DepartmentServiceImpl implements DepartmentService {
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	/**
+	 * Adds a new department. Department names are unique, which the unique index
+	 * on the name column enforces.
+	 *
+	 * @param department The department to add; any id it carries is ignored.
+	 * @return The added department, with its new id.
+	 * @throws EmployeeException if the name is blank or already in use.
+	 */
+	@Override
+	public Department addDepartment(Department department) throws EmployeeException {
+
+		String name = department.getName() == null ? "" : department.getName().trim();
+		if (name.isEmpty() || name.length() > 50)
+			throw new EmployeeValidationException("Department name should consist of 1 to 50 characters");
+
+		Department d = new Department();
+		d.setName(name);
+		try {
+			return departmentRepository.save(d);
+		} catch (DataIntegrityViolationException ex) {
+			throw new EmployeeConflictException("the department already present with that name");
+		}
+	}
+
+	/**
+	 * Checks whether a department exists.
+	 *
+	 * @param id The id of the department.
+	 * @return true if the department exists.
+	 */
+	@Override
+	public boolean existsById(int id) {
+		return departmentRepository.existsById(id);
+	}
+
+	/**
+	 * Retrieves every department with the headcount and the payroll of its
+	 * employees.
+	 *
+	 * @return The departments, ordered by name.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<DepartmentSummary> getDepartments() {
+		return departmentRepository.findSummaries();
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.workfolio.service;
+
+import com.workfolio.dto.SalaryStatistics;
+
+/**
+ * EmployeeAnalyticsService interface defines the headcount and salary
+ * statistics of the WorkFolio application. The statistics are aggregated by the
+ * database when first requested and then kept up to date by the writers of
+ * employees, which report every salary they add, change or remove.
+ */
+public interface EmployeeAnalyticsService {
+
+	/**
+	 * Returns the current headcount and salary statistics.
+	 *
+	 * @return The salary statistics.
+	 */
+	public SalaryStatistics getSalaryStatistics();
+
+	/**
+	 * Records that an employee has been added.
+	 *
+	 * @param salary The salary of the employee, may be null.
+	 */
+	public void employeeAdded(Double salary);
+
+	/**
+	 * Records that an employee has been deleted.
+	 *
+	 * @param salary The salary the employee had, may be null.
+	 */
+	public void employeeRemoved(Double salary);
+
+	/**
+	 * Records that the salary of an employee has changed.
+	 *
+	 * @param previous The previous salary, may be null.
+	 * @param current  The new salary, may be null.
+	 */
+	public void salaryChanged(Double previous, Double current);
+}
@@ -0,0 +1,291 @@
+package com.workfolio.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.workfolio.dto.SalaryStatistics;
+import com.workfolio.repository.EmployeeRepository;
+import com.workfolio.repository.EmployeeRepositoryCustom.SalaryTotals;
+
+/**
+ * EmployeeAnalyticsServiceImpl class implements the EmployeeAnalyticsService
+ * interface. On first use, the headcount, payroll, minimum and maximum are
+ * aggregated by the database, and the employees of each distinct salary are
+ * counted by the database as well, so no employee rows are read; the sketch
+ * alone maps those salaries to its buckets. From then on,
+ * every reported add, change and delete updates these figures in constant
+ * time, and the statistics are served from a snapshot rebuilt only after a
+ * write.
+ *
+ * Percentiles come from the bucket counts, a quantile sketch in the manner of
+ * DDSketch: bucket i holds the salaries in [gamma^i, gamma^(i+1)), with gamma
+ * chosen so that answering with the middle of a bucket is within the configured
+ * relative accuracy of the true salary. Unlike sampling sketches, buckets
+ * support removing a salary exactly, which deletes and salary changes need.
+ *
+ * Removing the lowest or highest salary makes the minimum or maximum unknown;
+ * they are aggregated again on the next read. All figures are aggregated again
+ * after the configured refresh interval, which corrects any drift from writes
+ * made outside this application.
+ */
+@Service
+public class EmployeeAnalyticsServiceImpl implements EmployeeAnalyticsService {
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	/**
+	 * Maximum relative error of the salary percentiles.
+	 */
+	@Value("${workfolio.stats.relative-accuracy:0.01}")
+	private double relativeAccuracy;
+
+	/**
+	 * How long the incrementally maintained figures are trusted before they are
+	 * aggregated again by the database.
+	 */
+	@Value("${workfolio.stats.refresh-interval:1h}")
+	private Duration refreshInterval;
+
+	// all the fields below are guarded by this
+	private boolean loaded;
+
+	private long loadedAt;
+
+	private Instant aggregatedAt;
+
+	private long headcount;
+
+	private long salaried;
+
+	private double total;
+
+	private Double min;
+
+	private Double max;
+
+	private boolean extremesUnknown;
+
+	private SalarySketch sketch;
+
+	/**
+	 * The statistics as of the last write, or null when they must be rebuilt.
+	 */
+	private volatile SalaryStatistics snapshot;
+
+	/**
+	 * Returns the current headcount and salary statistics. Apart from the first
+	 * call, the first call after a write and the periodic refresh, this returns a
+	 * ready snapshot without any computation.
+	 *
+	 * @return The salary statistics.
+	 */
+	@Override
+	public SalaryStatistics getSalaryStatistics() {
+
+		SalaryStatistics current = snapshot;
+		if (current != null && !refreshDue())
+			return current;
+
+		synchronized (this) {
+			if (!loaded || refreshDue())
+				load();
+			else if (extremesUnknown) {
+				SalaryTotals totals = employeeRepository.aggregateSalaries();
+				min = totals.min();
+				max = totals.max();
+				extremesUnknown = false;
+			}
+			if (snapshot == null)
+				snapshot = build();
+			return snapshot;
+		}
+
+	}
+
+	@Override
+	public synchronized void employeeAdded(Double salary) {
+		if (!loaded)
+			return;
+		headcount++;
+		add(salary);
+		snapshot = null;
+	}
+
+	@Override
+	public synchronized void employeeRemoved(Double salary) {
+		if (!loaded)
+			return;
+		headcount--;
+		remove(salary);
+		snapshot = null;
+	}
+
+	@Override
+	public synchronized void salaryChanged(Double previous, Double current) {
+		if (!loaded || (previous == null ? current == null : previous.equals(current)))
+			return;
+		remove(previous);
+		add(current);
+		snapshot = null;
+	}
+
+	private boolean refreshDue() {
+		return System.nanoTime() - loadedAt > refreshInterval.toNanos();
+	}
+
+	/**
+	 * Aggregates all figures with the database. Callers hold the lock.
+	 */
+	private void load() {
+
+		SalaryTotals totals = employeeRepository.aggregateSalaries();
+		sketch = new SalarySketch(relativeAccuracy);
+		sketch.load(employeeRepository.countBySalary(), totals.salaried());
+
+		headcount = totals.headcount();
+		salaried = totals.salaried();
+		total = totals.total();
+		min = totals.min();
+		max = totals.max();
+		extremesUnknown = false;
+		loaded = true;
+		loadedAt = System.nanoTime();
+		aggregatedAt = Instant.now();
+		snapshot = null;
+
+	}
+
+	private void add(Double salary) {
+		if (salary == null)
+			return;
+		salaried++;
+		total += salary;
+		sketch.add(salary);
+		if (!extremesUnknown) {
+			min = min == null ? salary : Math.min(min, salary);
+			max = max == null ? salary : Math.max(max, salary);
+		}
+	}
+
+	private void remove(Double salary) {
+		if (salary == null)
+			return;
+		salaried--;
+		total -= salary;
+		sketch.remove(salary);
+		if (salaried == 0) {
+			min = null;
+			max = null;
+			extremesUnknown = false;
+		} else if (min == null || max == null || salary <= min || salary >= max)
+			extremesUnknown = true;
+	}
+
+	/**
+	 * Builds the statistics from the current figures. Callers hold the lock.
+	 */
+	private SalaryStatistics build() {
+
+		if (salaried == 0)
+			return new SalaryStatistics(headcount, 0, 0, null, null, null, null, null, null, null, relativeAccuracy,
+					aggregatedAt);
+
+		return new SalaryStatistics(headcount, salaried, total, total / salaried, min, max, percentile(0.50),
+				percentile(0.90), percentile(0.95), percentile(0.99), relativeAccuracy, aggregatedAt);
+
+	}
+
+	private Double percentile(double q) {
+		double estimate = sketch.quantile(q);
+		// the true salary lies between the extremes, so the estimate can be clamped
+		if (min != null && estimate < min)
+			return min;
+		if (max != null && estimate > max)
+			return max;
+		return estimate;
+	}
+
+	/**
+	 * Counts of salaries per logarithmic bucket, with a separate count for the
+	 * salaries that are zero or negative and have no logarithm.
+	 */
+	private static final class SalarySketch {
+
+		private final double gamma;
+
+		private final double lnGamma;
+
+		private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+
+		private long nonPositive;
+
+		private long count;
+
+		SalarySketch(double relativeAccuracy) {
+			this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+			this.lnGamma = Math.log(gamma);
+		}
+
+		/**
+		 * Loads the counts of the positive salaries, as pairs of a salary and its
+		 * count, and the number of all salaries, the rest of which are not
+		 * positive.
+		 */
+		void load(List<Object[]> counts, long salaried) {
+			long positive = 0;
+			for (Object[] c : counts) {
+				long n = ((Number) c[1]).longValue();
+				buckets.merge(index(((Number) c[0]).doubleValue()), n, Long::sum);
+				positive += n;
+			}
+			count = salaried;
+			nonPositive = salaried - positive;
+		}
+
+		void add(double salary) {
+			count++;
+			if (salary <= 0)
+				nonPositive++;
+			else
+				buckets.merge(index(salary), 1L, Long::sum);
+		}
+
+		void remove(double salary) {
+			count--;
+			if (salary <= 0)
+				nonPositive--;
+			else
+				buckets.computeIfPresent(index(salary), (i, c) -> c == 1 ? null : c - 1);
+		}
+
+		/**
+		 * Estimates the salary at the given rank, as the middle of its bucket: for
+		 * bucket i, 2 gamma^(i+1) / (gamma + 1), which is within the relative
+		 * accuracy of both bounds of the bucket.
+		 */
+		double quantile(double q) {
+			long rank = (long) Math.floor(q * (count - 1));
+			long seen = nonPositive;
+			if (rank < seen)
+				return 0;
+			for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+				seen += bucket.getValue();
+				if (rank < seen)
+					return 2 * Math.pow(gamma, bucket.getKey() + 1) / (gamma + 1);
+			}
+			return buckets.isEmpty() ? 0 : 2 * Math.pow(gamma, buckets.lastKey() + 1) / (gamma + 1);
+		}
+
+		private int index(double salary) {
+			return (int) Math.floor(Math.log(salary) / lnGamma);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.workfolio.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.workfolio.entity.Employee;
+import com.workfolio.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * EmployeeCache is a bounded, read-through, in-process cache of Employee rows,
+ * addressable by id and by email. It sits in front of the EmployeeRepository
+ * lookups that the EmployeeService repeats on every view, add, update and
+ * delete. Entries are evicted by size (Caffeine's W-TinyLFU policy) and by age,
+ * and are refreshed or invalidated whenever an employee is written, once the
+ * writing transaction has committed.
+ *
+ * The email index maps an email to the id of its employee (or to
+ * {@link #ABSENT} when no employee has it), and is verified against the id
+ * entry on every hit, so an email that changed hands is never served stale.
+ * Callers always receive a copy of the cached employee, so modifying a returned
+ * object never alters the cache.
+ *
+ * Hit, miss and eviction counts of both caches are published as the
+ * cache.gets, cache.puts and cache.evictions meters (tagged cache=employeeById
+ * and cache=employeeByEmail) on the actuator metrics endpoint.
+ */
+@Component
+public class EmployeeCache {
+
+	/**
+	 * Marks an email that no employee has.
+	 */
+	private static final int ABSENT = Integer.MIN_VALUE;
+
+	private final EmployeeRepository employeeRepository;
+
+	private final Cache<Integer, Employee> byId;
+
+	private final Cache<String, Integer> idByEmail;
+
+	public EmployeeCache(EmployeeRepository employeeRepository, MeterRegistry meterRegistry,
+			@Value("${workfolio.cache.maximum-size:10000}") long maximumSize,
+			@Value("${workfolio.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+
+		this.employeeRepository = employeeRepository;
+		this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats()
+				.build();
+		this.idByEmail = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite)
+				.recordStats().build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, byId, "employeeById");
+		CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "employeeByEmail");
+	}
+
+	/**
+	 * Finds an employee by id, loading it from the database on a cache miss.
+	 *
+	 * @param id The id of the employee.
+	 * @return A copy of the employee, or an empty Optional if there is none.
+	 */
+	public Optional<Employee> findById(int id) {
+		Employee e = byId.get(id, key -> employeeRepository.findById(key).orElse(null));
+		return Optional.ofNullable(copy(e));
+	}
+
+	/**
+	 * Returns the cached state of an employee without loading it on a miss.
+	 *
+	 * @param id The id of the employee.
+	 * @return A copy of the cached employee, or an empty Optional if it is not
+	 *         cached.
+	 */
+	public Optional<Employee> peek(int id) {
+		return Optional.ofNullable(copy(byId.getIfPresent(id)));
+	}
+
+	/**
+	 * Finds an employee by email, loading it from the database on a cache miss.
+	 * The absence of an employee with that email is cached as well.
+	 *
+	 * @param email The email of the employee.
+	 * @return A copy of the employee, or null if there is none.
+	 */
+	public Employee findByEmail(String email) {
+
+		Integer id = idByEmail.getIfPresent(email);
+		if (id != null) {
+			if (id == ABSENT)
+				return null;
+			Employee e = byId.get(id, key -> employeeRepository.findById(key).orElse(null));
+			if (e != null && email.equals(e.getEmail()))
+				return copy(e);
+			idByEmail.invalidate(email);
+		}
+
+		Employee e = employeeRepository.findByEmail(email);
+		if (e == null) {
+			idByEmail.put(email, ABSENT);
+			return null;
+		}
+		byId.put(e.getId(), e);
+		idByEmail.put(email, e.getId());
+		return copy(e);
+
+	}
+
+	/**
+	 * Stores the current state of an employee that has just been written. When a
+	 * transaction is active, the cache is only updated after it commits.
+	 *
+	 * @param e The employee as written to the database.
+	 */
+	public void put(Employee e) {
+		Employee cached = copy(e);
+		AfterCommit.run(() -> {
+			byId.put(cached.getId(), cached);
+			idByEmail.put(cached.getEmail(), cached.getId());
+		});
+	}
+
+	/**
+	 * Invalidates an employee that has been changed or deleted. When a transaction
+	 * is active, the entry is only invalidated after it commits.
+	 *
+	 * @param id The id of the employee.
+	 */
+	public void evict(int id) {
+		AfterCommit.run(() -> byId.invalidate(id));
+	}
+
+	/**
+	 * Invalidates the cached lookups of emails that have been given to employees
+	 * without going through {@link #put(Employee)}, such as by a bulk import.
+	 *
+	 * @param emails The emails now in use.
+	 */
+	public void evictEmails(Collection<String> emails) {
+		AfterCommit.run(() -> idByEmail.invalidateAll(emails));
+	}
+
+	/**
+	 * Copies an employee, so cached instances are never shared with callers.
+	 *
+	 * @param e The employee to copy, may be null.
+	 * @return The copy, or null.
+	 */
+	private static Employee copy(Employee e) {
+		if (e == null)
+			return null;
+		Employee copy = new Employee();
+		BeanUtils.copyProperties(e, copy);
+		return copy;
+	}
+}
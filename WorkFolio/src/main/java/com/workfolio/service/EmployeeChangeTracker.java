@@ -0,0 +1,67 @@
+package com.workfolio.service;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.workfolio.entity.ChangeSequence;
+import com.workfolio.repository.ChangeSequenceRepository;
+
+/**
+ * EmployeeChangeTracker tells when the employee table was last written, so HTTP
+ * clients asking whether a list of employees has changed can be answered
+ * without running the list query. Every write (add, update, delete, bulk
+ * import, write-behind flush) records its changes in the employee history and
+ * calls {@link #touch()} once it has committed, which signals the
+ * EmployeeFeedSequencer to give those changes their position in the change
+ * feed. The last position given, and when it was given, are kept in the
+ * change_sequence row of the feed, so they are the same on every application
+ * node, and in memory after each run of the sequencer, so checking whether a
+ * client's copy is current touches no database. A write shows in that version
+ * once the sequencer has run, shortly after it commits. Pages are tagged with
+ * the version read from the row in their own transaction instead, so a page
+ * read from a lagging replica is never tagged with a newer version than its
+ * content.
+ */
+@Component
+public class EmployeeChangeTracker {
+
+	@Autowired
+	private EmployeeFeedSequencer feedSequencer;
+
+	@Autowired
+	private ChangeSequenceRepository sequenceRepository;
+
+	/**
+	 * Records that employees have been written. Must be called once the
+	 * transaction of the write has committed; returns without waiting for its
+	 * changes to be sequenced.
+	 */
+	public void touch() {
+		feedSequencer.signal();
+	}
+
+	/**
+	 * Returns the current version of the employee table: a last value that
+	 * advances whenever employees are written, and the time it last did, or 0 and
+	 * the epoch when nothing has been written yet.
+	 *
+	 * @return The current version of the employee table.
+	 */
+	public ChangeSequence current() {
+		return feedSequencer.current();
+	}
+
+	/**
+	 * Reads the version of the employee table from the database of the current
+	 * transaction, as {@link #current()} does from memory.
+	 *
+	 * @return The version of the employee table as seen by the current
+	 *         transaction.
+	 */
+	public ChangeSequence read() {
+		return sequenceRepository.findById(EmployeeFeedSequencer.FEED)
+				.orElseGet(() -> new ChangeSequence(EmployeeFeedSequencer.FEED, 0L, Instant.EPOCH));
+	}
+}
@@ -0,0 +1,51 @@
+package com.workfolio.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * EmployeeCsvWriter writes an export as UTF-8 CSV, with a header row, CRLF line
+ * endings and cells quoted only when they contain a separator, a quote or a
+ * line break (RFC 4180).
+ */
+class EmployeeCsvWriter implements EmployeeRowWriter {
+
+	private final Writer writer;
+
+	EmployeeCsvWriter(OutputStream out, List<String> header) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+		writeRow(header.toArray());
+	}
+
+	@Override
+	public void writeRow(Object[] cells) throws IOException {
+		for (int i = 0; i < cells.length; i++) {
+			if (i > 0)
+				writer.write(',');
+			if (cells[i] != null)
+				writeCell(cells[i].toString());
+		}
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void finish() throws IOException {
+		writer.flush();
+	}
+
+	private void writeCell(String value) throws IOException {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.workfolio.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface EmployeeExportService {
+
+	/**
+	 * The file formats the employee directory can be exported to.
+	 */
+	public enum Format {
+		CSV, XLSX
+	}
+
+	/**
+	 * The columns an export can include, named as the properties of Employee.
+	 */
+	public enum Column {
+		id, name, email, phone, address, salary, managerId("manager_id"), departmentId("department_id");
+
+		private final String sqlName;
+
+		Column() {
+			this.sqlName = name();
+		}
+
+		Column(String sqlName) {
+			this.sqlName = sqlName;
+		}
+
+		/**
+		 * @return The name of the column in the employee table.
+		 */
+		public String sqlName() {
+			return sqlName;
+		}
+	}
+
+	/**
+	 * Writes the employees, ordered by id, to a stream in the given format, from a
+	 * database cursor, so the memory used does not grow with the directory.
+	 *
+	 * @param out     The stream to write the export to. It is flushed but not
+	 *                closed.
+	 * @param format  The format of the export.
+	 * @param columns The columns to export, in order; all columns when null or
+	 *                empty.
+	 * @return The number of employees exported.
+	 * @throws IOException if the stream cannot be written.
+	 */
+	public long exportEmployees(OutputStream out, Format format, List<Column> columns) throws IOException;
+
+}
@@ -0,0 +1,215 @@
+package com.workfolio.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.entity.ChangeSequence;
+import com.workfolio.repository.ChangeSequenceRepository;
+
+/**
+ * EmployeeFeedSequencer gives the committed changes of the employee history
+ * their position in the change feed. The seq of a history row is given when the
+ * row is inserted, so a long transaction may commit its rows after those of a
+ * later one; a reader that had already moved past them would never see them.
+ * Positions are therefore only given once rows have committed: rows without a
+ * position are numbered after the last position given, in one transaction at a
+ * time, serialized on the row of the feed in the change_sequence table. Rows
+ * that commit later get later positions, whatever their seq.
+ *
+ * Sequencing runs on a single thread of its own, so writes never wait for it:
+ * a write that has committed only signals it, through
+ * {@link EmployeeChangeTracker#touch()}, and the changes of all the writes
+ * signalled meanwhile are numbered together by the next run. A sweep at a
+ * fixed interval also runs it, for the changes of writes that signalled no
+ * node, such as those of crashed nodes or seeded rows.
+ *
+ * After each run the last position given, and when, are kept in memory, so the
+ * version of the feed is read without a query. Positions given by other nodes
+ * are seen there by the next run of this one, within the sweep interval.
+ */
+@Component
+public class EmployeeFeedSequencer implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeFeedSequencer.class);
+
+	static final String FEED = "employee";
+
+	private static final String UNSEQUENCED = "select seq from employee_history where feed_seq is null "
+			+ "order by seq limit ?";
+
+	private static final String NUMBER = "update employee_history set feed_seq = seq + ? where seq in (%s)";
+
+	@Autowired
+	private ChangeSequenceRepository sequenceRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate sequenceTransaction;
+
+	@Value("${workfolio.history.batch-size:500}")
+	private int batchSize;
+
+	/**
+	 * How often changes left without a position are sequenced.
+	 */
+	@Value("${workfolio.history.sequence-interval:1s}")
+	private Duration interval;
+
+	private ScheduledExecutorService sweeper;
+
+	// whether a run is already scheduled for the writes signalled so far
+	private final AtomicBoolean signalled = new AtomicBoolean();
+
+	// the state of the feed as of the last committed run
+	private volatile ChangeSequence current = new ChangeSequence(FEED, 0L, Instant.EPOCH);
+
+	// the state of the feed left by the last batch, published once it commits; guarded by this
+	private ChangeSequence advanced;
+
+	public EmployeeFeedSequencer(PlatformTransactionManager transactionManager) {
+		this.sequenceTransaction = new TransactionTemplate(transactionManager);
+		this.sequenceTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Starts sequencing at a fixed interval.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "feed-sequencer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sweeper.scheduleWithFixedDelay(this::run, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (sweeper != null)
+			sweeper.shutdownNow();
+	}
+
+	/**
+	 * Asks for the committed changes without a position to be sequenced soon, on
+	 * the thread of the sequencer. Returns at once; signals made before a run has
+	 * started are served by that one run.
+	 */
+	public void signal() {
+		if (sweeper == null || !signalled.compareAndSet(false, true))
+			return;
+		try {
+			sweeper.execute(this::run);
+		} catch (RejectedExecutionException ex) {
+			// shutting down; the next start sweeps these changes
+			signalled.set(false);
+		}
+	}
+
+	/**
+	 * Returns the state of the feed as of the last run of this node.
+	 *
+	 * @return The last position given and when it was given, or 0 and the epoch
+	 *         before anything has been sequenced.
+	 */
+	public ChangeSequence current() {
+		return current;
+	}
+
+	private void run() {
+		// cleared first, so a write signalling during the run gets a run of its own
+		signalled.set(false);
+		try {
+			sequence();
+		} catch (RuntimeException ex) {
+			log.warn("Could not sequence the employee change feed, retrying: {}", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Gives a position to every committed change that has none. Must not be
+	 * called in a transaction that wrote changes, whose rows would be left for the
+	 * next call.
+	 */
+	public synchronized void sequence() {
+		int sequenced;
+		do {
+			sequenced = sequenceBatch();
+			current = advanced;
+		} while (sequenced == batchSize);
+	}
+
+	/**
+	 * Sequences one batch of changes in its own transaction, creating the row of
+	 * the feed on first use.
+	 *
+	 * @return The number of changes sequenced.
+	 */
+	private int sequenceBatch() {
+
+		try {
+			return sequenceTransaction.execute(status -> advance());
+		} catch (DataIntegrityViolationException ex) {
+			// another node created the row of the feed concurrently; it is there now
+			return sequenceTransaction.execute(status -> advance());
+		}
+
+	}
+
+	/**
+	 * Locks the row of the feed, then numbers the oldest changes without a
+	 * position after the last position given. A change keeps its seq as position
+	 * unless that would not follow the last position, so positions and seqs match
+	 * as long as changes commit in seq order.
+	 *
+	 * @return The number of changes sequenced.
+	 */
+	private int advance() {
+
+		ChangeSequence feed = sequenceRepository.findForUpdate(FEED).orElse(null);
+		if (feed == null)
+			feed = sequenceRepository.saveAndFlush(new ChangeSequence(FEED, 0L, Instant.now()));
+		// read after the lock, so rows numbered by the previous holder are seen
+		List<Long> seqs = jdbcTemplate.queryForList(UNSEQUENCED, Long.class, batchSize);
+		if (seqs.isEmpty()) {
+			advanced = new ChangeSequence(FEED, feed.getLastValue(), feed.getChangedAt());
+			return 0;
+		}
+		long offset = Math.max(0, feed.getLastValue() + 1 - seqs.get(0));
+		// one statement for the batch: every change of it moves by the same offset
+		Object[] args = new Object[seqs.size() + 1];
+		args[0] = offset;
+		for (int i = 0; i < seqs.size(); i++)
+			args[i + 1] = seqs.get(i);
+		jdbcTemplate.update(String.format(NUMBER, String.join(", ", Collections.nCopies(seqs.size(), "?"))), args);
+		Instant now = Instant.now();
+		feed.setLastValue(seqs.get(seqs.size() - 1) + offset);
+		// the time of the feed never goes back, even if the clock of this node does
+		feed.setChangedAt(now.isAfter(feed.getChangedAt()) ? now : feed.getChangedAt().plusMillis(1));
+		advanced = new ChangeSequence(FEED, feed.getLastValue(), feed.getChangedAt());
+		return seqs.size();
+
+	}
+}
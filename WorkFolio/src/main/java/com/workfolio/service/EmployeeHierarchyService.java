@@ -0,0 +1,28 @@
+package com.workfolio.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.workfolio.dto.TeamStatistics;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+
+public interface EmployeeHierarchyService {
+
+	public void recordAdded(Collection<Employee> employees);
+
+	public List<Integer> recordMoved(Collection<Employee> employees);
+
+	public void recordDeleted(Collection<Integer> ids);
+
+	public boolean hasReports(int id);
+
+	public boolean reportsTo(int id, int managerId);
+
+	public List<Employee> getReports(int id, Integer after, int size) throws EmployeeException;
+
+	public List<Employee> getChainOfCommand(int id) throws EmployeeException;
+
+	public TeamStatistics getTeamStatistics(int id) throws EmployeeException;
+
+}
@@ -0,0 +1,383 @@
+package com.workfolio.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.dto.TeamStatistics;
+import com.workfolio.entity.ChangeSequence;
+import com.workfolio.entity.Employee;
+import com.workfolio.entity.EmployeePath;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeNotFoundException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.repository.ChangeSequenceRepository;
+import com.workfolio.repository.EmployeePathRepository;
+import com.workfolio.repository.EmployeeRepository;
+import com.workfolio.repository.EmployeeRepositoryCustom.SalaryTotals;
+
+/**
+ * The EmployeeHierarchyServiceImpl class is the implementation of the
+ * EmployeeHierarchyService interface. It keeps the reporting hierarchy, given
+ * by the managerId of the employees, indexed as an EmployeePath per employee:
+ * the ids of its chain of command, such as /1/5/23/. All the reports of an
+ * employee, at any depth, have paths starting with its own, so they are found
+ * by a single range scan of the path index, and their headcount and payroll by
+ * a single aggregate over that range, instead of walking the hierarchy one
+ * level at a time. The chain of command of an employee is read from its path.
+ *
+ * Paths are maintained incrementally, in the transaction that changes a
+ * manager: a new employee gets the path of its manager followed by its own id,
+ * and an employee given another manager moves with its whole subtree in a
+ * single UPDATE that rewrites the start of their paths. A move that would make
+ * an employee report to one of its own reports is refused. Employees with
+ * reports cannot be deleted. Employees found without a path at startup, such
+ * as those added before the hierarchy existed, are indexed then.
+ *
+ * Whether a move makes a cycle depends on the paths of every manager above the
+ * new manager, which other moves may be rewriting at the same time: two moves
+ * that each look valid on their own, such as A under a report of B and B under
+ * a report of A, would together make a cycle. Moves therefore run one
+ * transaction at a time, on one node or many, serialized on the row named
+ * hierarchy of the change_sequence table. Adds under existing managers lock
+ * that row in shared mode, so they run together, but never while a move could
+ * change the paths of their managers.
+ */
+@Service
+public class EmployeeHierarchyServiceImpl implements EmployeeHierarchyService, InitializingBean {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeHierarchyServiceImpl.class);
+
+	private static final String INSERT = "insert into employee_path (employee_id, path) values (?, ?)";
+
+	static final String HIERARCHY = "hierarchy";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EmployeePathRepository pathRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private ChangeSequenceRepository sequenceRepository;
+
+	@Value("${workfolio.hierarchy.batch-size:500}")
+	private int batchSize;
+
+	/**
+	 * Creates the row that serializes moves, and indexes the employees that have
+	 * no path yet.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				if (!sequenceRepository.existsById(HIERARCHY))
+					sequenceRepository.saveAndFlush(new ChangeSequence(HIERARCHY, 0L, Instant.now()));
+			});
+		} catch (DataIntegrityViolationException ex) {
+			// another node created it concurrently
+		} catch (DataAccessException ex) {
+			log.warn("Could not create the hierarchy lock: {}", ex.getMessage());
+		}
+
+		try {
+			int indexed = transactionTemplate.execute(status -> {
+				List<Employee> missing = new ArrayList<>();
+				for (Object[] row : pathRepository.findEmployeesWithoutPath()) {
+					Employee e = new Employee();
+					e.setId((Integer) row[0]);
+					e.setManagerId((Integer) row[1]);
+					missing.add(e);
+				}
+				recordAdded(missing);
+				return missing.size();
+			});
+			if (indexed > 0)
+				log.info("Indexed {} employees in the reporting hierarchy", indexed);
+		} catch (DataAccessException ex) {
+			log.warn("Could not index the reporting hierarchy: {}", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Indexes new employees under their managers. Must be called in the
+	 * transaction that inserts them; their managers may be added by the same
+	 * call.
+	 *
+	 * @param employees The added employees.
+	 * @throws DataIntegrityViolationException if the manager of an employee is not
+	 *                                         in the hierarchy.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordAdded(Collection<Employee> employees) {
+
+		if (employees.isEmpty())
+			return;
+
+		Map<Integer, Employee> added = new LinkedHashMap<>();
+		employees.forEach(e -> added.put(e.getId(), e));
+		Set<Integer> managers = employees.stream().map(Employee::getManagerId)
+				.filter(m -> m != null && !added.containsKey(m)).collect(Collectors.toSet());
+
+		Map<Integer, String> paths = new HashMap<>();
+		if (!managers.isEmpty()) {
+			lockHierarchy(false);
+			pathRepository.findForShare(managers).forEach(p -> paths.put(p.getEmployeeId(), p.getPath()));
+		}
+		List<Object[]> rows = new ArrayList<>(added.size());
+		for (Employee e : added.values())
+			rows.add(new Object[] { e.getId(), pathOf(e, added, paths, new HashSet<>()) });
+
+		jdbcTemplate.batchUpdate(INSERT, rows, batchSize, (ps, row) -> {
+			ps.setInt(1, (Integer) row[0]);
+			ps.setString(2, (String) row[1]);
+		});
+	}
+
+	/**
+	 * Computes the path of an added employee, from the path of its manager, which
+	 * is either already in the hierarchy or added with it.
+	 */
+	private static String pathOf(Employee e, Map<Integer, Employee> added, Map<Integer, String> paths,
+			Set<Integer> visiting) {
+
+		String path = paths.get(e.getId());
+		if (path != null)
+			return path;
+		if (!visiting.add(e.getId()))
+			throw new DataIntegrityViolationException("the employee " + e.getId() + " reports to itself");
+
+		Integer managerId = e.getManagerId();
+		String parent;
+		if (managerId == null)
+			parent = "/";
+		else if (added.containsKey(managerId))
+			parent = pathOf(added.get(managerId), added, paths, visiting);
+		else
+			parent = paths.get(managerId);
+		if (parent == null)
+			throw new DataIntegrityViolationException("no manager found with id " + managerId);
+
+		path = parent + e.getId() + "/";
+		paths.put(e.getId(), path);
+		return path;
+	}
+
+	/**
+	 * Moves employees, with all of their reports, under their current managerId.
+	 * Must be called in the transaction that changes their managers; employees
+	 * whose manager did not change are left as they are.
+	 *
+	 * @param employees The employees, with their new managerId.
+	 * @return The ids of the employees that were not moved, because their new
+	 *         manager is one of their reports, or is not in the hierarchy.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public List<Integer> recordMoved(Collection<Employee> employees) {
+
+		Map<Integer, String> current = new HashMap<>();
+		for (Object[] row : pathRepository.findPaths(employees.stream().map(Employee::getId).toList()))
+			current.put((Integer) row[0], (String) row[1]);
+
+		List<Integer> refused = new ArrayList<>();
+		boolean locked = false;
+		for (Employee e : employees) {
+			String path = current.get(e.getId());
+			if (path == null || Objects.equals(managerOf(path), e.getManagerId()))
+				continue;
+
+			if (!locked) {
+				lockHierarchy(true);
+				locked = true;
+			}
+			// locking reads: the paths as the moves before this one left them
+			Map<Integer, String> paths = new HashMap<>();
+			List<Integer> ids = e.getManagerId() == null ? List.of(e.getId()) : List.of(e.getId(), e.getManagerId());
+			pathRepository.findForUpdate(ids).forEach(p -> paths.put(p.getEmployeeId(), p.getPath()));
+			String from = paths.get(e.getId());
+			String parent = e.getManagerId() == null ? "/" : paths.get(e.getManagerId());
+			if (parent == null || parent.startsWith(from)) {
+				refused.add(e.getId());
+				continue;
+			}
+			pathRepository.movePaths(from, parent + e.getId() + "/");
+		}
+		return refused;
+	}
+
+	/**
+	 * Locks the row of the hierarchy until the end of the current transaction:
+	 * exclusively to move employees, or in shared mode to add employees under
+	 * existing managers. The row is created at startup; should it be missing, it
+	 * is created here, and stays locked by its insert.
+	 */
+	private void lockHierarchy(boolean exclusive) {
+		Optional<ChangeSequence> row = exclusive ? sequenceRepository.findForUpdate(HIERARCHY)
+				: sequenceRepository.findForShare(HIERARCHY);
+		if (row.isEmpty())
+			sequenceRepository.saveAndFlush(new ChangeSequence(HIERARCHY, 0L, Instant.now()));
+	}
+
+	/**
+	 * Returns the id of the manager in a path, or null at the top of the
+	 * hierarchy.
+	 */
+	private static Integer managerOf(String path) {
+		int end = path.lastIndexOf('/', path.length() - 2);
+		if (end == 0)
+			return null;
+		return Integer.valueOf(path.substring(path.lastIndexOf('/', end - 1) + 1, end));
+	}
+
+	/**
+	 * Removes deleted employees from the hierarchy. Must be called in the
+	 * transaction that deletes them.
+	 *
+	 * @param ids The ids of the deleted employees.
+	 * @throws DataIntegrityViolationException if one of the employees still has
+	 *                                         reports.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordDeleted(Collection<Integer> ids) {
+
+		for (EmployeePath p : pathRepository.findAllById(ids))
+			if (pathRepository.existsByPathStartingWithAndEmployeeIdNot(p.getPath(), p.getEmployeeId()))
+				throw new DataIntegrityViolationException("the employee " + p.getEmployeeId() + " still has reports");
+		pathRepository.deleteByIds(ids);
+	}
+
+	/**
+	 * Tells whether an employee has reports.
+	 *
+	 * @param id The id of the employee.
+	 * @return true if at least one employee reports to it.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public boolean hasReports(int id) {
+		return pathRepository.findById(id)
+				.map(p -> pathRepository.existsByPathStartingWithAndEmployeeIdNot(p.getPath(), id)).orElse(false);
+	}
+
+	/**
+	 * Tells whether an employee reports to another, at any depth.
+	 *
+	 * @param id        The id of the employee.
+	 * @param managerId The id of the other employee.
+	 * @return true if the other employee is in the chain of command of the
+	 *         employee.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public boolean reportsTo(int id, int managerId) {
+		Map<Integer, String> paths = new HashMap<>();
+		pathRepository.findAllById(List.of(id, managerId)).forEach(p -> paths.put(p.getEmployeeId(), p.getPath()));
+		String path = paths.get(id);
+		String manager = paths.get(managerId);
+		return path != null && manager != null && path.startsWith(manager);
+	}
+
+	/**
+	 * Retrieves a page of the reports of an employee, at any depth, each manager
+	 * before its own reports.
+	 *
+	 * @param id    The id of the employee.
+	 * @param after The id of the last report already read, or null to start with
+	 *              the first one.
+	 * @param size  The maximum number of reports.
+	 * @return The reports.
+	 * @throws EmployeeException if no employee is found with the given id, or the
+	 *                           given report does not report to it.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<Employee> getReports(int id, Integer after, int size) throws EmployeeException {
+
+		String path = findPath(id);
+		String from = path;
+		if (after != null)
+			from = pathRepository.findById(after).map(EmployeePath::getPath).filter(p -> p.startsWith(path))
+					.orElseThrow(() -> new EmployeeValidationException(
+							"the employee " + after + " does not report to " + id));
+		return employeeRepository.findReports(path, from, PageRequest.of(0, size));
+	}
+
+	/**
+	 * Retrieves the chain of command of an employee, from the top of the hierarchy
+	 * down to its direct manager.
+	 *
+	 * @param id The id of the employee.
+	 * @return The managers of the employee, empty at the top of the hierarchy.
+	 * @throws EmployeeException if no employee is found with the given id.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<Employee> getChainOfCommand(int id) throws EmployeeException {
+
+		String[] ids = findPath(id).split("/");
+		Map<Integer, Integer> levels = new HashMap<>();
+		// ids[0] is empty and the last id is the employee itself
+		for (int i = 1; i < ids.length - 1; i++)
+			levels.put(Integer.valueOf(ids[i]), i);
+		List<Employee> chain = new ArrayList<>(employeeRepository.findAllById(levels.keySet()));
+		chain.sort(Comparator.comparing(e -> levels.get(e.getId())));
+		return chain;
+	}
+
+	/**
+	 * Retrieves the headcount and the payroll of the team of an employee: the
+	 * employee and all of its reports, at any depth.
+	 *
+	 * @param id The id of the employee.
+	 * @return The statistics of the team.
+	 * @throws EmployeeException if no employee is found with the given id.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public TeamStatistics getTeamStatistics(int id) throws EmployeeException {
+
+		SalaryTotals totals = employeeRepository.aggregateSalaries(findPath(id));
+		return new TeamStatistics(id, totals.headcount(), totals.total());
+	}
+
+	private String findPath(int id) throws EmployeeException {
+		return pathRepository.findById(id).map(EmployeePath::getPath)
+				.orElseThrow(() -> new EmployeeNotFoundException("no employee found with that id : " + id));
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.workfolio.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import com.workfolio.dto.EmployeeChange;
+import com.workfolio.dto.EmployeeChangeFeed;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+
+public interface EmployeeHistoryService {
+
+	/**
+	 * The kinds of change recorded in the history.
+	 */
+	public enum Operation {
+		INSERT, UPDATE, DELETE
+	}
+
+	public void recordAdded(Collection<Employee> employees);
+
+	public void recordChanged(Operation operation, Collection<Integer> ids);
+
+	public List<EmployeeChange> getHistory(int id) throws EmployeeException;
+
+	public Employee getEmployeeAsOf(int id, Instant at) throws EmployeeException;
+
+	public EmployeeChangeFeed getChanges(long after, int limit);
+
+}
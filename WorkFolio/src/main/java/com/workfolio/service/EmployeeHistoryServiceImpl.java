@@ -0,0 +1,195 @@
+package com.workfolio.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workfolio.dto.EmployeeChange;
+import com.workfolio.dto.EmployeeChangeFeed;
+import com.workfolio.entity.Employee;
+import com.workfolio.entity.EmployeeHistory;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeNotFoundException;
+import com.workfolio.repository.EmployeeHistoryRepository;
+
+/**
+ * The EmployeeHistoryServiceImpl class is the implementation of the
+ * EmployeeHistoryService interface. It keeps an append-only history of the
+ * employees in the employee_history table: every add, update and delete of an
+ * employee inserts one row holding the state of the employee, in the same
+ * transaction as the change, so the history can neither miss a committed change
+ * nor record one that was rolled back. History rows are inserted with JDBC
+ * batches; updated and deleted employees are copied by INSERT ... SELECT, so
+ * recording a change never reads the employee into the application.
+ *
+ * The history answers what an employee looked like at any past time, and
+ * serves the changes of all employees as a feed ordered by commit, as numbered
+ * by the EmployeeFeedSequencer, so a consumer can follow the changes
+ * incrementally instead of comparing full copies of the table.
+ */
+@Service
+public class EmployeeHistoryServiceImpl implements EmployeeHistoryService {
+
+	private static final String INSERT = "insert into employee_history (employee_id, operation, changed_at, "
+			+ "changed_by, version, name, address, email, phone, salary, manager_id, department_id) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String COPY = "insert into employee_history (employee_id, operation, changed_at, "
+			+ "changed_by, version, name, address, email, phone, salary, manager_id, department_id) "
+			+ "select id, ?, ?, ?, version, name, address, email, phone, salary, manager_id, department_id "
+			+ "from employee where id = ?";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EmployeeHistoryRepository historyRepository;
+
+	@Value("${workfolio.history.batch-size:500}")
+	private int batchSize;
+
+	/**
+	 * Records the addition of employees, with the state they were inserted with.
+	 * Must be called in the transaction that inserts them.
+	 *
+	 * @param employees The added employees.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordAdded(Collection<Employee> employees) {
+
+		Timestamp now = Timestamp.from(Instant.now());
+		String user = currentUser();
+		jdbcTemplate.batchUpdate(INSERT, employees, batchSize, (ps, e) -> {
+			ps.setInt(1, e.getId());
+			ps.setString(2, Operation.INSERT.name());
+			ps.setTimestamp(3, now);
+			ps.setString(4, user);
+			ps.setLong(5, e.getVersion() == null ? 0 : e.getVersion());
+			ps.setString(6, e.getName());
+			ps.setString(7, e.getAddress());
+			ps.setString(8, e.getEmail());
+			ps.setString(9, e.getPhone());
+			ps.setObject(10, e.getSalary());
+			ps.setObject(11, e.getManagerId());
+			ps.setObject(12, e.getDepartmentId());
+		});
+	}
+
+	/**
+	 * Records the update or the deletion of employees by copying their rows. Must
+	 * be called in the transaction of the change: after an update, to record the
+	 * new state, and before a delete, to record the last one. Ids without an
+	 * employee are skipped.
+	 *
+	 * @param operation UPDATE or DELETE.
+	 * @param ids       The ids of the employees.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordChanged(Operation operation, Collection<Integer> ids) {
+
+		Timestamp now = Timestamp.from(Instant.now());
+		String user = currentUser();
+		jdbcTemplate.batchUpdate(COPY, ids, batchSize, (ps, id) -> {
+			ps.setString(1, operation.name());
+			ps.setTimestamp(2, now);
+			ps.setString(3, user);
+			ps.setInt(4, id);
+		});
+	}
+
+	/**
+	 * Retrieves every recorded change of an employee, oldest first.
+	 *
+	 * @param id The id of the employee.
+	 * @return The changes of the employee.
+	 * @throws EmployeeException if the employee has no recorded change.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<EmployeeChange> getHistory(int id) throws EmployeeException {
+
+		List<EmployeeChange> changes = historyRepository.findByEmployeeIdOrderBySeq(id).stream()
+				.map(EmployeeHistoryServiceImpl::toChange).toList();
+		if (changes.isEmpty())
+			throw new EmployeeNotFoundException("no history found for the employee with id : " + id);
+		return changes;
+	}
+
+	/**
+	 * Retrieves an employee as it was just before the given time, from the last
+	 * change recorded before it.
+	 *
+	 * @param id The id of the employee.
+	 * @param at The time.
+	 * @return The state of the employee at that time.
+	 * @throws EmployeeException if the employee did not exist at that time.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Employee getEmployeeAsOf(int id, Instant at) throws EmployeeException {
+
+		EmployeeHistory last = historyRepository
+				.findFirstByEmployeeIdAndChangedAtBeforeOrderByChangedAtDescSeqDesc(id, at)
+				.filter(h -> !Operation.DELETE.name().equals(h.getOperation()))
+				.orElseThrow(() -> new EmployeeNotFoundException("no employee found with id " + id + " as of " + at));
+		return toEmployee(last);
+	}
+
+	/**
+	 * Retrieves the changes of all employees that follow a position of the change
+	 * feed. Changes are only served once they have a position, which they get
+	 * after they commit, so a change can never appear behind one already read.
+	 *
+	 * @param after The seq of the last change already read, 0 to start from the
+	 *              first change.
+	 * @param limit The maximum number of changes.
+	 * @return The changes, and the seq to read the next ones after.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public EmployeeChangeFeed getChanges(long after, int limit) {
+
+		List<EmployeeChange> changes = historyRepository
+				.findByFeedSeqGreaterThanOrderByFeedSeq(after, PageRequest.of(0, limit)).stream()
+				.map(EmployeeHistoryServiceImpl::toChange).toList();
+		long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSeq();
+		return new EmployeeChangeFeed(changes, next);
+	}
+
+	private static String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication == null ? null : authentication.getName();
+	}
+
+	private static EmployeeChange toChange(EmployeeHistory h) {
+		return new EmployeeChange(h.getFeedSeq(), h.getOperation(), h.getChangedAt(), h.getChangedBy(), toEmployee(h));
+	}
+
+	private static Employee toEmployee(EmployeeHistory h) {
+		Employee e = new Employee();
+		e.setId(h.getEmployeeId());
+		e.setVersion(h.getVersion());
+		e.setName(h.getName());
+		e.setAddress(h.getAddress());
+		e.setEmail(h.getEmail());
+		e.setPhone(h.getPhone());
+		e.setSalary(h.getSalary());
+		e.setManagerId(h.getManagerId());
+		e.setDepartmentId(h.getDepartmentId());
+		return e;
+	}
+
+}
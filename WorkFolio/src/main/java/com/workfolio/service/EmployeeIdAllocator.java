@@ -0,0 +1,110 @@
+package com.workfolio.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.entity.IdBlock;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.repository.EmployeeRepository;
+import com.workfolio.repository.IdBlockRepository;
+
+/**
+ * EmployeeIdAllocator hands out unique ids for new employees. Ids are reserved
+ * from the database in blocks (a hi/lo scheme backed by the id_block table) and
+ * then assigned from memory, so the database is only touched once per block and
+ * concurrent inserts, on one node or many, never receive the same id. The first
+ * block starts after the highest id already present in the employee table.
+ */
+@Component
+public class EmployeeIdAllocator {
+
+	private static final String SEQUENCE = "employee";
+
+	@Autowired
+	private IdBlockRepository idBlockRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	private final TransactionTemplate reserveTransaction;
+
+	/**
+	 * Number of ids reserved from the database at a time.
+	 */
+	@Value("${workfolio.id.block-size:100}")
+	private int blockSize;
+
+	/**
+	 * The next id of the current block.
+	 */
+	private long next;
+
+	/**
+	 * The first id after the current block.
+	 */
+	private long limit;
+
+	public EmployeeIdAllocator(PlatformTransactionManager transactionManager) {
+		this.reserveTransaction = new TransactionTemplate(transactionManager);
+		this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Returns a new, never used employee id.
+	 *
+	 * @return The allocated id.
+	 * @throws EmployeeException if the employee id space is exhausted.
+	 */
+	public synchronized int nextId() throws EmployeeException {
+
+		if (next >= limit) {
+			next = reserveBlock();
+			limit = next + blockSize;
+		}
+		if (next > Integer.MAX_VALUE)
+			throw new EmployeeException("no employee ids left to allocate");
+		return (int) next++;
+
+	}
+
+	/**
+	 * Reserves the next block of ids in its own transaction, creating the sequence
+	 * on first use.
+	 *
+	 * @return The first id of the reserved block.
+	 */
+	private long reserveBlock() {
+
+		try {
+			return reserveTransaction.execute(status -> advance());
+		} catch (DataIntegrityViolationException ex) {
+			// another node created the sequence concurrently; its row is there now
+			return reserveTransaction.execute(status -> advance());
+		}
+
+	}
+
+	/**
+	 * Advances the sequence row by one block and returns the start of the block.
+	 *
+	 * @return The first id of the reserved block.
+	 */
+	private long advance() {
+
+		IdBlock block = idBlockRepository.findForUpdate(SEQUENCE).orElse(null);
+		if (block == null) {
+			long start = employeeRepository.findMaxId() + 1;
+			idBlockRepository.create(SEQUENCE, start + blockSize);
+			return start;
+		}
+		long start = block.getNextValue();
+		block.setNextValue(start + blockSize);
+		return start;
+
+	}
+}
@@ -0,0 +1,20 @@
+package com.workfolio.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.workfolio.dto.ImportReport;
+import com.workfolio.exception.EmployeeException;
+
+public interface EmployeeImportService {
+
+	/**
+	 * The file formats a bulk import can be read from.
+	 */
+	public enum Format {
+		CSV, JSONL
+	}
+
+	public ImportReport importEmployees(InputStream in, Format format) throws EmployeeException, IOException;
+
+}
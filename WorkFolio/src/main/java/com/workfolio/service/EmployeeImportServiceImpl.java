@@ -0,0 +1,315 @@
+package com.workfolio.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workfolio.dto.FieldViolation;
+import com.workfolio.dto.ImportReport;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.repository.EmployeeRepository;
+
+/**
+ * The EmployeeImportServiceImpl class is the implementation of the
+ * EmployeeImportService interface. It reads a CSV or JSON-lines file one line
+ * at a time and imports it in chunks: the rows of a chunk are validated in
+ * parallel, checked for duplicate emails with one set-based query per chunk,
+ * given ids from the EmployeeIdAllocator, and persisted and recorded in the
+ * employee history in a single transaction using JDBC batching. Each chunk is
+ * committed on its own, so a rejected row never discards the rest of the file.
+ */
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+	/**
+	 * A parsed row of the imported file.
+	 */
+	private record Row(long line, Employee employee) {
+	}
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EmployeeValidator employeeValidator;
+
+	@Autowired
+	private EmployeeIdAllocator idAllocator;
+
+	@Autowired
+	private EmployeeCache employeeCache;
+
+	@Autowired
+	private EmployeeTypeaheadIndex typeaheadIndex;
+
+	@Autowired
+	private EmployeeChangeTracker changeTracker;
+
+	@Autowired
+	private EmployeeAnalyticsService analyticsService;
+
+	@Autowired
+	private EmployeeHistoryService historyService;
+
+	@Autowired
+	private EmployeeHierarchyService hierarchyService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Number of rows validated, de-duplicated and persisted together.
+	 */
+	@Value("${workfolio.import.chunk-size:1000}")
+	private int chunkSize;
+
+	/**
+	 * Imports the employees of a CSV file (with a header row naming the name,
+	 * email, phone, address and salary columns) or of a JSON-lines file (one
+	 * employee object per line). Every imported employee receives a new id; ids
+	 * present in the file are ignored. Rows that fail validation, repeat an email
+	 * of the file, or clash with an existing employee are reported and skipped.
+	 *
+	 * @param in     The stream to read the file from.
+	 * @param format The format of the file.
+	 * @return The report of the import.
+	 * @throws EmployeeException if the CSV file has no header row, or the employee
+	 *                           id space is exhausted.
+	 * @throws IOException       if the file cannot be read.
+	 */
+	@Override
+	public ImportReport importEmployees(InputStream in, Format format) throws EmployeeException, IOException {
+
+		long start = System.nanoTime();
+		ImportReport report = new ImportReport();
+		Set<String> seenEmails = new HashSet<>();
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+
+			List<String> header = null;
+			List<Row> chunk = new ArrayList<>(chunkSize);
+			long lineNo = 0;
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				lineNo++;
+				if (line.isBlank())
+					continue;
+
+				if (format == Format.CSV && header == null) {
+					header = parseCsvLine(line).stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+					continue;
+				}
+
+				report.setRowsRead(report.getRowsRead() + 1);
+				try {
+					Employee e = format == Format.CSV ? fromCsv(header, line)
+							: objectMapper.readValue(line, Employee.class);
+					chunk.add(new Row(lineNo, e));
+				} catch (IllegalArgumentException | JsonProcessingException ex) {
+					report.getErrors().add(new ImportReport.RowError(lineNo, "unreadable row : " + ex.getMessage()));
+				}
+
+				if (chunk.size() == chunkSize) {
+					importChunk(chunk, seenEmails, report);
+					chunk.clear();
+				}
+			}
+
+			if (format == Format.CSV && header == null)
+				throw new EmployeeValidationException("the CSV file has no header row");
+
+			if (!chunk.isEmpty())
+				importChunk(chunk, seenEmails, report);
+		}
+
+		report.getErrors().sort(Comparator.comparingLong(ImportReport.RowError::getLine));
+		report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+		return report;
+
+	}
+
+	/**
+	 * Validates, de-duplicates and persists one chunk of rows.
+	 *
+	 * @param chunk      The rows to import.
+	 * @param seenEmails The (lower-cased) emails of the rows accepted so far in
+	 *                   this file.
+	 * @param report     The report to record the outcome in.
+	 * @throws EmployeeException if the employee id space is exhausted.
+	 */
+	private void importChunk(List<Row> chunk, Set<String> seenEmails, ImportReport report)
+			throws EmployeeException {
+
+		List<List<FieldViolation>> violations = chunk.parallelStream().map(r -> {
+			trim(r.employee());
+			return employeeValidator.validate(r.employee());
+		}).toList();
+
+		List<Row> candidates = new ArrayList<>(chunk.size());
+		for (int i = 0; i < chunk.size(); i++) {
+			Row row = chunk.get(i);
+			Employee e = row.employee();
+			String error = null;
+
+			if (!violations.get(i).isEmpty())
+				error = violations.get(i).stream().map(FieldViolation::getMessage)
+						.collect(Collectors.joining("; "));
+			else if (seenEmails.contains(e.getEmail().toLowerCase(Locale.ROOT)))
+				error = "the employee email appears more than once in the file";
+
+			if (error != null) {
+				report.getErrors().add(new ImportReport.RowError(row.line(), error));
+				continue;
+			}
+			seenEmails.add(e.getEmail().toLowerCase(Locale.ROOT));
+			candidates.add(row);
+		}
+		if (candidates.isEmpty())
+			return;
+
+		Set<String> existingEmails = employeeRepository
+				.findExistingEmails(candidates.stream().map(r -> r.employee().getEmail()).toList()).stream()
+				.map(m -> m.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+
+		List<Row> accepted = new ArrayList<>(candidates.size());
+		for (Row row : candidates) {
+			Employee e = row.employee();
+			if (existingEmails.contains(e.getEmail().toLowerCase(Locale.ROOT)))
+				report.getErrors()
+						.add(new ImportReport.RowError(row.line(), "the employee already present with that email"));
+			else {
+				e.setId(idAllocator.nextId());
+				accepted.add(row);
+			}
+		}
+		if (accepted.isEmpty())
+			return;
+
+		try {
+			List<Employee> employees = accepted.stream().map(Row::employee).toList();
+			transactionTemplate.executeWithoutResult(status -> {
+				employeeRepository.persistAll(employees);
+				historyService.recordAdded(employees);
+				hierarchyService.recordAdded(employees);
+			});
+			employeeCache.evictEmails(accepted.stream().map(r -> r.employee().getEmail()).toList());
+			accepted.forEach(r -> typeaheadIndex.add(r.employee()));
+			accepted.forEach(r -> analyticsService.employeeAdded(r.employee().getSalary()));
+			changeTracker.touch();
+			report.setImported(report.getImported() + accepted.size());
+		} catch (DataAccessException ex) {
+			for (Row row : accepted)
+				report.getErrors().add(new ImportReport.RowError(row.line(),
+						"the chunk containing this row was rejected by the database : "
+								+ ex.getMostSpecificCause().getMessage()));
+		}
+
+	}
+
+	/**
+	 * Builds an Employee from a CSV line, mapping the cells by the column names of
+	 * the header row. Unknown columns, including id, are ignored.
+	 *
+	 * @param header The lower-cased column names.
+	 * @param line   The CSV line.
+	 * @return The employee described by the line.
+	 * @throws IllegalArgumentException if a numeric cell cannot be parsed.
+	 */
+	private static Employee fromCsv(List<String> header, String line) {
+
+		List<String> cells = parseCsvLine(line);
+		Map<String, String> values = new HashMap<>();
+		for (int i = 0; i < header.size() && i < cells.size(); i++)
+			values.put(header.get(i), cells.get(i).isBlank() ? null : cells.get(i));
+
+		Employee e = new Employee();
+		e.setName(values.get("name"));
+		e.setEmail(values.get("email"));
+		e.setPhone(values.get("phone"));
+		e.setAddress(values.get("address"));
+		String salary = values.get("salary");
+		e.setSalary(salary == null ? null : Double.valueOf(salary.trim()));
+		return e;
+
+	}
+
+	/**
+	 * Splits a CSV line into cells, honouring double-quoted cells and doubled
+	 * quotes inside them. Quoted line breaks are not supported.
+	 *
+	 * @param line The CSV line.
+	 * @return The cells of the line.
+	 */
+	private static List<String> parseCsvLine(String line) {
+
+		List<String> cells = new ArrayList<>();
+		StringBuilder cell = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					cell.append('"');
+					i++;
+				} else if (c == '"')
+					quoted = false;
+				else
+					cell.append(c);
+			} else if (c == '"')
+				quoted = true;
+			else if (c == ',') {
+				cells.add(cell.toString());
+				cell.setLength(0);
+			} else
+				cell.append(c);
+		}
+		cells.add(cell.toString());
+		return cells;
+
+	}
+
+	/**
+	 * Trims the leading and trailing spaces from the text properties of an
+	 * imported employee, leaving missing properties null.
+	 *
+	 * @param e The employee to trim.
+	 */
+	private static void trim(Employee e) {
+
+		if (e.getName() != null)
+			e.setName(e.getName().trim());
+		if (e.getEmail() != null)
+			e.setEmail(e.getEmail().trim());
+		if (e.getPhone() != null)
+			e.setPhone(e.getPhone().trim());
+		if (e.getAddress() != null)
+			e.setAddress(e.getAddress().trim());
+
+	}
+}
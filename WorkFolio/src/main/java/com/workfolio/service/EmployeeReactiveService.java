@@ -0,0 +1,31 @@
+package com.workfolio.service;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.dto.SalaryStatistics;
+import com.workfolio.entity.ChangeSequence;
+import com.workfolio.entity.Employee;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface EmployeeReactiveService {
+
+	public Mono<Employee> addEmployee(Employee e);
+
+	public Mono<Employee> updateEmployee(Employee e);
+
+	public Mono<Employee> getEmployeeById(int id);
+
+	public Mono<Void> deleteEmployee(int id);
+
+	public Mono<EmployeeSlice> getEmployeeBySeek(EmployeeCursor.SortColumn sort, EmployeeCursor cursor,
+			boolean backward, int size, boolean withTotal);
+
+	public Flux<Employee> streamEmployees();
+
+	public Mono<ChangeSequence> getChangeSequence();
+
+	public Mono<SalaryStatistics> getSalaryStatistics();
+
+}
@@ -0,0 +1,240 @@
+package com.workfolio.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.dto.SalaryStatistics;
+import com.workfolio.entity.ChangeSequence;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeNotFoundException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.repository.EmployeeReactiveRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * EmployeeReactiveServiceImpl class implements the EmployeeReactiveService
+ * interface, the non-blocking counterpart of the EmployeeService that the
+ * "reactive" profile puts behind the JSON API. Reads go through the
+ * EmployeeReactiveRepository, so a request waiting for the database holds
+ * neither a thread nor, between the batches of a stream, a connection. Lookups
+ * by id are answered from the EmployeeCache when the employee is cached.
+ *
+ * Writes are delegated to the EmployeeService on the bounded elastic
+ * scheduler. They are rare next to reads, and going through the EmployeeService
+ * keeps the id allocation, the cache, the typeahead index, the salary
+ * statistics and the change tracker consistent whichever stack wrote.
+ */
+@Service
+@Profile("reactive")
+public class EmployeeReactiveServiceImpl implements EmployeeReactiveService {
+
+	@Autowired
+	private EmployeeReactiveRepository employeeRepository;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private EmployeeCache employeeCache;
+
+	@Autowired
+	private EmployeeAnalyticsService analyticsService;
+
+	@Autowired(required = false)
+	private EmployeeWriteBehindQueue writeBehind;
+
+	/**
+	 * Number of employees read per query when streaming all employees.
+	 */
+	@Value("${workfolio.reactive.stream-batch-size:500}")
+	private int streamBatchSize;
+
+	/**
+	 * How long a counted total of employees is reused before the table is counted
+	 * again.
+	 */
+	@Value("${workfolio.page.count-ttl:30s}")
+	private Duration countTtl;
+
+	/**
+	 * The number of employees, counted again once the last count is older than the
+	 * configured time to live. Concurrent requests share one count rather than
+	 * each counting the table, and a failed count is not reused.
+	 */
+	private final Mono<Long> count = Mono.defer(() -> employeeRepository.count()).cache(total -> countTtl,
+			error -> Duration.ZERO, () -> Duration.ZERO);
+
+	/**
+	 * Adds a new employee through the EmployeeService.
+	 *
+	 * @param e The Employee object to be added.
+	 * @return The added employee, with its new id, or an EmployeeException if an
+	 *         employee with the same email already exists.
+	 */
+	@Override
+	public Mono<Employee> addEmployee(Employee e) {
+		return blocking(() -> {
+			employeeService.addEmployee(e);
+			return e;
+		});
+	}
+
+	/**
+	 * Updates the non null properties of an existing employee through the
+	 * EmployeeService.
+	 *
+	 * @param e The Employee object containing the updated data.
+	 * @return The updated employee, or an EmployeeException if no employee is
+	 *         found with the given id, the email is already taken, or the employee
+	 *         was modified since the provided version.
+	 */
+	@Override
+	public Mono<Employee> updateEmployee(Employee e) {
+		return blocking(() -> {
+			employeeService.updateEmployee(e);
+			return employeeService.getEmployeeById(e.getId());
+		});
+	}
+
+	/**
+	 * Retrieves an employee from the EmployeeWriteBehindQueue when a write of it
+	 * is queued, from the EmployeeCache, or else from the database. Employees read
+	 * from the database are not added to the cache, which is only filled by the
+	 * EmployeeService.
+	 *
+	 * @param id The id of the employee to retrieve.
+	 * @return The employee, or an EmployeeException if no employee is found with
+	 *         the given id.
+	 */
+	@Override
+	public Mono<Employee> getEmployeeById(int id) {
+		if (writeBehind != null) {
+			EmployeeWriteBehindQueue.Pending pending = writeBehind.find(id);
+			if (pending != null)
+				return Mono.justOrEmpty(pending.employee())
+						.switchIfEmpty(Mono.error(
+								() -> new EmployeeNotFoundException("no employee found with that id : " + id)));
+		}
+		return employeeCache.peek(id).map(Mono::just).orElseGet(() -> employeeRepository.findById(id))
+				.switchIfEmpty(
+						Mono.error(() -> new EmployeeNotFoundException("no employee found with that id : " + id)));
+	}
+
+	/**
+	 * Deletes an employee through the EmployeeService.
+	 *
+	 * @param id The id of the employee to delete.
+	 * @return Completion, or an EmployeeException if no employee is found with the
+	 *         given id.
+	 */
+	@Override
+	public Mono<Void> deleteEmployee(int id) {
+		return blocking(() -> {
+			employeeService.deleteEmployee(id);
+			return null;
+		}).then();
+	}
+
+	/**
+	 * Retrieves one page of employees with keyset (seek) pagination, like
+	 * EmployeeService.getEmployeeBySeek. The version of the employee table is read
+	 * before the page, so the slice is never tagged with a newer version than its
+	 * content.
+	 *
+	 * @param sort      The column the list is ordered by.
+	 * @param cursor    The cursor of the page to read from, or null for the first
+	 *                  page (or the last page when reading backward).
+	 * @param backward  true to read the page before the cursor, false to read the
+	 *                  page after it.
+	 * @param size      The number of items per page.
+	 * @param withTotal true to include the (cached) total number of employees.
+	 * @return The page, or an EmployeeException if the cursor does not belong to
+	 *         the requested sort column.
+	 */
+	@Override
+	public Mono<EmployeeSlice> getEmployeeBySeek(EmployeeCursor.SortColumn sort, EmployeeCursor cursor,
+			boolean backward, int size, boolean withTotal) {
+
+		if (cursor != null && cursor.getSort() != sort)
+			return Mono.error(
+					new EmployeeValidationException("the page cursor does not match the sort column : " + sort));
+
+		Mono<List<Employee>> page = employeeRepository.findBySeek(sort, cursor, backward, size + 1);
+		Mono<Long> total = withTotal ? count : Mono.just(-1L);
+
+		return getChangeSequence().flatMap(version -> Mono.zip(page, total).map(result -> {
+			List<Employee> employees = result.getT1();
+			boolean more = employees.size() > size;
+			if (more)
+				employees = backward ? employees.subList(1, employees.size()) : employees.subList(0, size);
+
+			EmployeeCursor previous = null;
+			EmployeeCursor next = null;
+			if (!employees.isEmpty()) {
+				if (backward ? more : cursor != null)
+					previous = EmployeeCursor.of(sort, employees.get(0));
+				if (backward ? cursor != null : more)
+					next = EmployeeCursor.of(sort, employees.get(employees.size() - 1));
+			}
+
+			return new EmployeeSlice(employees, sort, size, previous, next, withTotal ? result.getT2() : null,
+					version.getLastValue(), version.getChangedAt());
+		}));
+
+	}
+
+	/**
+	 * Reads the version of the employee table kept by the EmployeeChangeTracker,
+	 * from the same database as the pages.
+	 *
+	 * @return The version of the employee table, 0 at the epoch when nothing has
+	 *         been written yet.
+	 */
+	@Override
+	public Mono<ChangeSequence> getChangeSequence() {
+		return employeeRepository.findChangeSequence(EmployeeFeedSequencer.FEED)
+				.defaultIfEmpty(new ChangeSequence(EmployeeFeedSequencer.FEED, 0L, Instant.EPOCH));
+	}
+
+	/**
+	 * Streams every employee in ascending id order, reading the next batch from
+	 * the database only as fast as the subscriber consumes them.
+	 *
+	 * @return All employees.
+	 */
+	@Override
+	public Flux<Employee> streamEmployees() {
+		return employeeRepository.streamAll(streamBatchSize);
+	}
+
+	/**
+	 * Returns the headcount and salary statistics, which are almost always a ready
+	 * snapshot; the occasional aggregation runs on the bounded elastic scheduler.
+	 *
+	 * @return The salary statistics.
+	 */
+	@Override
+	public Mono<SalaryStatistics> getSalaryStatistics() {
+		return blocking(analyticsService::getSalaryStatistics);
+	}
+
+	/**
+	 * Runs a blocking call on the bounded elastic scheduler.
+	 */
+	private static <T> Mono<T> blocking(Callable<T> call) {
+		return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+	}
+}
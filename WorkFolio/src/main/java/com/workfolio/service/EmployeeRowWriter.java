@@ -0,0 +1,28 @@
+package com.workfolio.service;
+
+import java.io.IOException;
+
+/**
+ * EmployeeRowWriter writes the rows of an export to an output stream in one
+ * file format, as they are read. A writer only buffers what its format needs to
+ * write a row, so the memory it uses does not grow with the number of rows.
+ */
+interface EmployeeRowWriter {
+
+	/**
+	 * Writes a row. Numbers are written as numbers, null cells as empty cells and
+	 * anything else as text.
+	 *
+	 * @param cells the cells of the row, in the order of the header
+	 * @throws IOException if the output cannot be written
+	 */
+	void writeRow(Object[] cells) throws IOException;
+
+	/**
+	 * Completes the file and flushes it to the output stream, which is left open.
+	 *
+	 * @throws IOException if the output cannot be written
+	 */
+	void finish() throws IOException;
+
+}
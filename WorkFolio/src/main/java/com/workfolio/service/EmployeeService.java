@@ -4,6 +4,10 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSearchCriteria;
+import com.workfolio.dto.EmployeeSearchResult;
+import com.workfolio.dto.EmployeeSlice;
 import com.workfolio.entity.Employee;
 import com.workfolio.exception.EmployeeException;
 
@@ -20,7 +24,13 @@ public interface EmployeeService {
 	public void deleteEmployee(int id) throws EmployeeException;
 
 	public Page<Employee> getEmployeeByPaginate(int currentPage, int size) throws EmployeeException;
-	
+
+	public EmployeeSlice getEmployeeBySeek(EmployeeCursor.SortColumn sort, EmployeeCursor cursor, boolean backward,
+			int size, boolean withTotal) throws EmployeeException;
+
+	public EmployeeSearchResult searchEmployee(EmployeeSearchCriteria criteria, EmployeeCursor cursor, int size)
+			throws EmployeeException;
+
 	public void trimProperties(Employee emp);
 
 }
@@ -1,49 +1,168 @@
 package com.workfolio.service;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSearchCriteria;
+import com.workfolio.dto.EmployeeSearchResult;
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.dto.EmployeeSlice;
+import com.workfolio.entity.ChangeSequence;
 import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeConflictException;
 import com.workfolio.exception.EmployeeException;
+import com.workfolio.exception.EmployeeNotFoundException;
+import com.workfolio.exception.EmployeeValidationException;
 import com.workfolio.repository.EmployeeRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 /**
  * The EmployeeServiceImpl class is the implementation of the EmployeeService
  * interface, providing methods to manage employee data and perform various
  * operations. It interacts with the underlying database through the
- * EmployeeRepository.
+ * EmployeeRepository, and serves lookups by id and by email from the
+ * EmployeeCache. Every method is timed as the workfolio.service timer, tagged
+ * with the method name and the exception thrown, if any.
+ *
+ * Listing, paging and searching run in read-only transactions, which are sent
+ * to a read replica when replicas are configured (see ReadReplicaConfig).
+ * Writes, and the reads they depend on, such as the lookups of the
+ * EmployeeCache, stay on the primary.
+ *
+ * Every add, update and delete is recorded by the EmployeeHistoryService, and
+ * every change of manager is indexed by the EmployeeHierarchyService, in the
+ * transaction that writes it.
+ *
+ * Employees are checked by the EmployeeValidator before anything is read or
+ * written: an add or update that violates the constraints of the Employee
+ * entity fails with an EmployeeValidationException, without a database round
+ * trip.
+ *
+ * When the EmployeeWriteBehindQueue is enabled, adds, updates and deletes are
+ * checked here as usual but queued rather than written, and lookups by id
+ * serve queued employees first, so a caller always reads its own writes.
  */
 @Service
+@Timed(value = "workfolio.service", description = "EmployeeService call duration")
 public class EmployeeServiceImpl implements EmployeeService {
 
 	@Autowired
 	private EmployeeRepository employeeRepository;
 
+	@Autowired
+	private EmployeeIdAllocator idAllocator;
+
+	@Autowired
+	private EmployeeValidator employeeValidator;
+
+	@Autowired
+	private EmployeeCache employeeCache;
+
+	@Autowired
+	private EmployeeTypeaheadIndex typeaheadIndex;
+
+	@Autowired
+	private EmployeeChangeTracker changeTracker;
+
+	@Autowired
+	private EmployeeAnalyticsService analyticsService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EmployeeHistoryService historyService;
+
+	@Autowired
+	private EmployeeHierarchyService hierarchyService;
+
+	@Autowired
+	private DepartmentService departmentService;
+
+	@Autowired(required = false)
+	private EmployeeWriteBehindQueue writeBehind;
+
+	/**
+	 * How long a counted total of employees is reused before the table is counted
+	 * again.
+	 */
+	@Value("${workfolio.page.count-ttl:30s}")
+	private Duration countTtl;
+
+	/**
+	 * The cached number of employees, or -1 when nothing has been counted yet.
+	 */
+	private final AtomicLong cachedCount = new AtomicLong(-1);
+
 	/**
-	 * Adds a new employee to the database if an employee with the same id or email
-	 * doesn't already exist. Throws an EmployeeException with an appropriate
-	 * message if an employee with the same id or email is found.
+	 * The System.nanoTime() at which the cached number of employees expires.
+	 */
+	private volatile long countExpiresAt;
+
+	/**
+	 * Adds a new employee to the database if an employee with the same email
+	 * doesn't already exist. The employee is given a new id from the
+	 * EmployeeIdAllocator, replacing any id it carries, and is inserted without a
+	 * prior existence check. The id is allocated before the insert transaction is
+	 * started, so reserving a new block of ids never needs a second connection
+	 * while one is held. With write-behind, the employee is queued instead. Throws
+	 * an EmployeeException with an appropriate message if an employee with the same
+	 * email is found, before the insert or, when the email was taken concurrently,
+	 * by the unique index.
 	 *
 	 * @param e The Employee object to be added.
-	 * @throws EmployeeException if an employee with the same id or email already
-	 *                           exists.
+	 * @throws EmployeeException if the employee is invalid, an employee with the
+	 *                           same email already exists, or its manager or
+	 *                           department does not exist.
 	 */
 	@Override
 	public void addEmployee(Employee e) throws EmployeeException {
 
-		if (employeeRepository.findById(e.getId()).isPresent())
-			throw new EmployeeException("the employee already present with that id");
-
-		else if (employeeRepository.findByEmail(e.getEmail()) != null)
-			throw new EmployeeException("the employee already present with that email");
-
-		else
-			employeeRepository.save(e);
+		employeeValidator.check(e);
+		if (writeBehind != null ? writeBehind.isEmailTaken(e.getEmail(), null)
+				: employeeCache.findByEmail(e.getEmail()) != null)
+			throw EmployeeConflictException.DUPLICATE_EMAIL;
+		checkAssignment(e.getManagerId(), e.getDepartmentId());
+
+		e.setId(idAllocator.nextId());
+		if (writeBehind != null)
+			writeBehind.add(e);
+		else {
+			try {
+				transactionTemplate.executeWithoutResult(status -> {
+					employeeRepository.persist(e);
+					historyService.recordAdded(List.of(e));
+					hierarchyService.recordAdded(List.of(e));
+				});
+			} catch (DataIntegrityViolationException ex) {
+				// the email was taken since it was checked, here or on another node
+				employeeCache.evictEmails(List.of(e.getEmail()));
+				throw EmployeeConflictException.DUPLICATE_EMAIL;
+			}
+			employeeCache.put(e);
+			changeTracker.touch();
+		}
+		typeaheadIndex.add(e);
+		analyticsService.employeeAdded(e.getSalary());
+		cachedCount.updateAndGet(c -> c < 0 ? c : c + 1);
 
 	}
 
@@ -54,6 +173,7 @@ public class EmployeeServiceImpl implements EmployeeService {
 	 * @throws EmployeeException if an error occurs while retrieving the employees.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Employee> getAllEmployee() throws EmployeeException {
 
 		List<Employee> employees = employeeRepository.findAll();
@@ -71,27 +191,79 @@ public class EmployeeServiceImpl implements EmployeeService {
 	@Override
 	public Employee getEmployeeById(int id) throws EmployeeException {
 
-		return employeeRepository.findById(id)
-				.orElseThrow(() -> new EmployeeException("no employee found with that id : " + id));
+		return findCurrent(id)
+				.orElseThrow(() -> new EmployeeNotFoundException("no employee found with that id : " + id));
 
 	}
 
 	/**
-	 * Deletes an employee from the database based on the provided id.
+	 * Finds the current state of an employee: its queued state when a write of it
+	 * is waiting in the EmployeeWriteBehindQueue, its cached state otherwise.
+	 *
+	 * @param id The id of the employee.
+	 * @return The employee, or an empty Optional if there is none.
+	 */
+	private Optional<Employee> findCurrent(int id) {
+
+		if (writeBehind != null) {
+			EmployeeWriteBehindQueue.Pending pending = writeBehind.find(id);
+			if (pending != null)
+				return Optional.ofNullable(pending.employee());
+		}
+		return employeeCache.findById(id);
+
+	}
+
+	/**
+	 * Checks that the manager and the department given to an employee exist.
+	 *
+	 * @param managerId    The id of the manager, or null.
+	 * @param departmentId The id of the department, or null.
+	 * @throws EmployeeException if the manager or the department does not exist.
+	 */
+	private void checkAssignment(Integer managerId, Integer departmentId) throws EmployeeException {
+
+		if (managerId != null && findCurrent(managerId).isEmpty())
+			throw EmployeeValidationException.of("managerId", "no manager found with that id : " + managerId);
+		if (departmentId != null && !departmentService.existsById(departmentId))
+			throw EmployeeValidationException.of("departmentId", "no department found with that id : " + departmentId);
+
+	}
+
+	/**
+	 * Deletes an employee from the database based on the provided id. An employee
+	 * that others report to must first have its reports assigned to another
+	 * manager.
 	 *
 	 * @param id The id of the employee to delete.
-	 * @throws EmployeeException if no employee is found with the given id.
+	 * @throws EmployeeException if no employee is found with the given id, or the
+	 *                           employee has reports.
 	 */
 
 	@Override
 	public void deleteEmployee(int id) throws EmployeeException {
 
-		Optional<Employee> optional = employeeRepository.findById(id);
+		Optional<Employee> optional = findCurrent(id);
 
 		if (optional.isEmpty())
-			throw new EmployeeException("no employee found with that id");
-
-		employeeRepository.deleteById(id);
+			throw EmployeeNotFoundException.EMPLOYEE;
+		if (hierarchyService.hasReports(id))
+			throw EmployeeConflictException.HAS_REPORTS;
+
+		if (writeBehind != null)
+			writeBehind.delete(id);
+		else {
+			transactionTemplate.executeWithoutResult(status -> {
+				historyService.recordChanged(EmployeeHistoryService.Operation.DELETE, List.of(id));
+				hierarchyService.recordDeleted(List.of(id));
+				employeeRepository.deleteById(id);
+			});
+			changeTracker.touch();
+		}
+		employeeCache.evict(id);
+		typeaheadIndex.remove(id);
+		analyticsService.employeeRemoved(optional.get().getSalary());
+		cachedCount.updateAndGet(c -> c < 0 ? c : c - 1);
 
 	}
 
@@ -105,70 +277,346 @@ public class EmployeeServiceImpl implements EmployeeService {
 	 * @throws EmployeeException if an error occurs while retrieving the employees.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Employee> getEmployeeByPaginate(int currentPage, int size) throws EmployeeException {
 
-		PageRequest p = PageRequest.of(currentPage, size);
+		PageRequest p = PageRequest.of(currentPage, size, Sort.by("id"));
 		return employeeRepository.findAll(p);
 
 	}
 
+	/**
+	 * Retrieves one page of employees with keyset (seek) pagination. The page is
+	 * located by a range condition on the sort column and the id instead of an
+	 * offset, so reading a deep page costs the same as reading the first one, and
+	 * no COUNT(*) query is issued unless a total is explicitly requested. The total
+	 * is then served from a short-lived cache that is adjusted on every add and
+	 * delete, so it is approximate under concurrent modifications. The version of
+	 * the employee table is read first, in the same transaction, so the slice
+	 * carries the version its content was read at even from a lagging replica.
+	 *
+	 * @param sort      The column the list is ordered by.
+	 * @param cursor    The cursor of the page to read from, or null for the first
+	 *                  page (or the last page when reading backward).
+	 * @param backward  true to read the page before the cursor, false to read the
+	 *                  page after it.
+	 * @param size      The number of items per page.
+	 * @param withTotal true to include the (cached) total number of employees.
+	 * @return An EmployeeSlice containing the employees of the page and the cursors
+	 *         of its neighbouring pages.
+	 * @throws EmployeeException if the cursor does not belong to the requested sort
+	 *                           column.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public EmployeeSlice getEmployeeBySeek(EmployeeCursor.SortColumn sort, EmployeeCursor cursor, boolean backward,
+			int size, boolean withTotal) throws EmployeeException {
+
+		if (cursor != null && cursor.getSort() != sort)
+			throw new EmployeeValidationException("the page cursor does not match the sort column : " + sort);
+
+		ChangeSequence version = changeTracker.read();
+		List<Employee> employees = employeeRepository.findBySeek(sort, cursor, backward, size + 1);
+		boolean more = employees.size() > size;
+		if (more)
+			employees = backward ? employees.subList(1, employees.size()) : employees.subList(0, size);
+
+		EmployeeCursor previous = null;
+		EmployeeCursor next = null;
+		if (!employees.isEmpty()) {
+			if (backward ? more : cursor != null)
+				previous = EmployeeCursor.of(sort, employees.get(0));
+			if (backward ? cursor != null : more)
+				next = EmployeeCursor.of(sort, employees.get(employees.size() - 1));
+		}
+
+		return new EmployeeSlice(employees, sort, size, previous, next, withTotal ? countEmployees() : null,
+				version.getLastValue(), version.getChangedAt());
+
+	}
+
+	/**
+	 * Searches employees by name prefix, email, phone, salary range and address.
+	 * Only the displayed columns are read, and the results are paged with a keyset
+	 * cursor on the column that the most selective indexed filter uses (name,
+	 * salary or id), so no COUNT(*) or OFFSET is ever needed.
+	 *
+	 * @param criteria The search filters.
+	 * @param cursor   The cursor of the page to read from, or null for the first
+	 *                 page.
+	 * @param size     The number of items per page.
+	 * @return An EmployeeSearchResult containing the matching employees of the page
+	 *         and the cursor of the next page.
+	 * @throws EmployeeException if the cursor does not belong to this search or the
+	 *                           salary range is inverted.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public EmployeeSearchResult searchEmployee(EmployeeSearchCriteria criteria, EmployeeCursor cursor, int size)
+			throws EmployeeException {
+
+		EmployeeCursor.SortColumn sort = criteria.sortColumn();
+		if (cursor != null && cursor.getSort() != sort)
+			throw new EmployeeValidationException("the page cursor does not match the search : " + sort);
+		if (criteria.getMinSalary() != null && criteria.getMaxSalary() != null
+				&& criteria.getMinSalary() > criteria.getMaxSalary())
+			throw new EmployeeValidationException("the minimum salary is greater than the maximum salary");
+
+		List<EmployeeSummary> employees = employeeRepository.search(criteria, cursor, size + 1);
+		EmployeeCursor next = null;
+		if (employees.size() > size) {
+			employees = employees.subList(0, size);
+			EmployeeSummary last = employees.get(size - 1);
+			Comparable<?> value = switch (sort) {
+			case name -> last.getName();
+			case salary -> last.getSalary();
+			case id -> null;
+			};
+			next = new EmployeeCursor(sort, value, last.getId());
+		}
+
+		return new EmployeeSearchResult(employees, criteria, size, next);
+
+	}
+
+	/**
+	 * Returns the number of employees, counting the table only when the cached
+	 * count is missing or older than the configured time to live.
+	 *
+	 * @return The (possibly slightly stale) number of employees.
+	 */
+	private long countEmployees() {
+
+		long now = System.nanoTime();
+		long count = cachedCount.get();
+		if (count < 0 || now - countExpiresAt > 0) {
+			count = employeeRepository.count();
+			cachedCount.set(count);
+			countExpiresAt = now + countTtl.toNanos();
+		}
+		return count;
+
+	}
+
 	/**
 	 * Updates an existing employee in the database based on the provided Employee
 	 * object. Only properties that are not null will be updated, ensuring partial
-	 * updates are possible.
+	 * updates are possible. The update is a single UPDATE statement that sets only
+	 * the provided columns (and, when the employee is cached with the same version,
+	 * only the columns whose value actually changed) without loading the employee
+	 * first. Email uniqueness is enforced by the unique index on the email column
+	 * rather than by a separate lookup, so two concurrent edits cannot both claim
+	 * the same email. When the provided employee carries a version, the update is
+	 * only applied if the stored employee still has that version, so an editor
+	 * working on an outdated copy cannot silently overwrite a newer edit. With
+	 * write-behind, the version and the email are checked against the current
+	 * state, queued employees included, and the new state is queued.
+	 *
+	 * A managerId or departmentId of 0 removes the manager or the department. A new
+	 * manager moves the employee, with all of its reports, in the reporting
+	 * hierarchy, in the transaction of the update.
 	 *
 	 * @param e The Employee object containing the updated data.
-	 * @throws EmployeeException if no employee is found with the given id or if the
-	 *                           email is already taken.
+	 * @throws EmployeeException if a property set is invalid, if no employee is
+	 *                           found with the given id, if the email is
+	 *                           already taken, if the employee was
+	 *                           modified since the provided version, or if the
+	 *                           manager or the department does not exist or the
+	 *                           manager is one of the reports of the employee.
 	 */
 	@Override
 	public void updateEmployee(Employee e) throws EmployeeException {
 
-		Optional<Employee> optional = employeeRepository.findById(e.getId());
-
-		if (optional.isEmpty())
-			throw new EmployeeException("no employee preasent with this id :" + e.getId());
+		employeeValidator.checkChanges(e);
 
-		Employee emp = optional.get();
+		Map<String, Object> changes = new LinkedHashMap<>();
 
 		if (e.getAddress() != null)
-			emp.setAddress(e.getAddress());
+			changes.put("address", e.getAddress());
 
-		if (e.getSalary() > 5000 && e.getSalary() < 200000)
-			emp.setSalary(e.getSalary());
+		if (e.getSalary() != null)
+			changes.put("salary", e.getSalary());
 
 		if (e.getName() != null)
-			emp.setName(e.getName());
+			changes.put("name", e.getName());
 
-		if (e.getEmail() != null) {
+		if (e.getEmail() != null)
+			changes.put("email", e.getEmail());
 
-			Optional<Employee> optional2 = Optional.ofNullable(employeeRepository.findByEmail(e.getEmail()));
+		if (e.getPhone() != null)
+			changes.put("phone", e.getPhone());
 
-			if (optional2.isEmpty())
-				emp.setEmail(e.getEmail());
+		if (e.getManagerId() != null)
+			changes.put("managerId", e.getManagerId() == 0 ? null : e.getManagerId());
 
+		if (e.getDepartmentId() != null)
+			changes.put("departmentId", e.getDepartmentId() == 0 ? null : e.getDepartmentId());
+
+		Integer managerId = (Integer) changes.get("managerId");
+		if (managerId != null && managerId.equals(e.getId()))
+			throw EmployeeValidationException.of("managerId", "an employee cannot report to itself");
+		checkAssignment(managerId, (Integer) changes.get("departmentId"));
+		if (managerId != null && hierarchyService.reportsTo(managerId, e.getId()))
+			throw EmployeeConflictException.REPORTS_CYCLE;
+
+		if (writeBehind != null) {
+			queueUpdate(e, changes);
+			return;
+		}
+
+		Optional<Employee> cached = employeeCache.peek(e.getId());
+		if (cached.isPresent() && e.getVersion() != null && e.getVersion().equals(cached.get().getVersion())) {
+			Employee current = cached.get();
+			changes.entrySet().removeIf(c -> Objects.equals(c.getValue(), propertyOf(current, c.getKey())));
+		}
+
+		// the salary statistics need the salary being replaced: a cached copy of the
+		// version the update is conditional on has it, otherwise it is read and
+		// locked in the update's transaction, so no other write can come between
+		Double[] previousSalary = new Double[1];
+		Optional<Employee> replaced = cached.filter(c -> c.getVersion().equals(e.getVersion()));
+		if (changes.containsKey("salary") && replaced.isPresent())
+			previousSalary[0] = replaced.get().getSalary();
+
+		int updated;
+		try {
+			updated = transactionTemplate.execute(status -> {
+				if (changes.containsKey("salary") && replaced.isEmpty())
+					previousSalary[0] = employeeRepository.findSalaryForUpdate(e.getId());
+				int count = employeeRepository.updatePartial(e.getId(), e.getVersion(), changes);
+				if (count > 0 && changes.containsKey("managerId")) {
+					Employee moved = new Employee();
+					moved.setId(e.getId());
+					moved.setManagerId(managerId);
+					if (!hierarchyService.recordMoved(List.of(moved)).isEmpty()) {
+						status.setRollbackOnly();
+						return -1;
+					}
+				}
+				if (count > 0)
+					historyService.recordChanged(EmployeeHistoryService.Operation.UPDATE, List.of(e.getId()));
+				return count;
+			});
+		} catch (DataIntegrityViolationException ex) {
+			throw EmployeeConflictException.DUPLICATE_EMAIL;
+		}
+
+		if (updated < 0)
+			throw EmployeeConflictException.REPORTS_CYCLE;
+
+		if (updated == 0) {
+			if (!employeeRepository.existsById(e.getId()))
+				throw new EmployeeNotFoundException("no employee preasent with this id :" + e.getId());
+			throw EmployeeConflictException.MODIFIED;
 		}
 
-		if (e.getPhone() != null && e.getPhone().length() == 10)
-			emp.setPhone(e.getPhone());
+		employeeCache.evict(e.getId());
+		changeTracker.touch();
+		if (changes.containsKey("salary"))
+			analyticsService.salaryChanged(previousSalary[0], e.getSalary());
+		if (changes.containsKey("email"))
+			employeeCache.evictEmails(List.of(e.getEmail()));
+		if (changes.containsKey("name") || changes.containsKey("email") || changes.containsKey("address"))
+			typeaheadIndex.update(e.getId(), (String) changes.get("name"), (String) changes.get("email"),
+					(String) changes.get("address"));
+
+	}
 
-		employeeRepository.save(emp);
+	/**
+	 * Checks an update against the current state of the employee and queues the
+	 * new state in the EmployeeWriteBehindQueue.
+	 *
+	 * @param e       The Employee object containing the updated data.
+	 * @param changes The properties to change.
+	 * @throws EmployeeException if no employee is found with the given id, if the
+	 *                           email is already taken, or if the employee was
+	 *                           modified since the provided version.
+	 */
+	private void queueUpdate(Employee e, Map<String, Object> changes) throws EmployeeException {
+
+		Employee current = findCurrent(e.getId())
+				.orElseThrow(() -> new EmployeeNotFoundException("no employee preasent with this id :" + e.getId()));
+		if (e.getVersion() != null && !e.getVersion().equals(current.getVersion()))
+			throw EmployeeConflictException.MODIFIED;
+		if (changes.containsKey("email") && !changes.get("email").equals(current.getEmail())
+				&& writeBehind.isEmailTaken((String) changes.get("email"), e.getId()))
+			throw EmployeeConflictException.DUPLICATE_EMAIL;
+
+		Employee updated = new Employee();
+		BeanUtils.copyProperties(current, updated);
+		changes.forEach((property, value) -> setProperty(updated, property, value));
+		writeBehind.update(current, updated);
+
+		if (changes.containsKey("salary"))
+			analyticsService.salaryChanged(current.getSalary(), updated.getSalary());
+		if (changes.containsKey("name") || changes.containsKey("email") || changes.containsKey("address"))
+			typeaheadIndex.update(e.getId(), (String) changes.get("name"), (String) changes.get("email"),
+					(String) changes.get("address"));
+
+	}
+
+	/**
+	 * Reads an updatable property of an employee by name.
+	 *
+	 * @param e        The employee.
+	 * @param property The name of the property.
+	 * @return The value of the property.
+	 */
+	private static Object propertyOf(Employee e, String property) {
+
+		return switch (property) {
+		case "address" -> e.getAddress();
+		case "salary" -> e.getSalary();
+		case "name" -> e.getName();
+		case "email" -> e.getEmail();
+		case "phone" -> e.getPhone();
+		case "managerId" -> e.getManagerId();
+		case "departmentId" -> e.getDepartmentId();
+		default -> throw new IllegalArgumentException(property);
+		};
+
+	}
+
+	/**
+	 * Sets an updatable property of an employee by name.
+	 *
+	 * @param e        The employee.
+	 * @param property The name of the property.
+	 * @param value    The new value of the property.
+	 */
+	private static void setProperty(Employee e, String property, Object value) {
+
+		switch (property) {
+		case "address" -> e.setAddress((String) value);
+		case "salary" -> e.setSalary((Double) value);
+		case "name" -> e.setName((String) value);
+		case "email" -> e.setEmail((String) value);
+		case "phone" -> e.setPhone((String) value);
+		case "managerId" -> e.setManagerId((Integer) value);
+		case "departmentId" -> e.setDepartmentId((Integer) value);
+		default -> throw new IllegalArgumentException(property);
+		}
 
 	}
 
 	/**
 	 * Trims the leading and trailing spaces from the properties of the Employee
-	 * object.
+	 * object. Properties that are not set are left null, for the validation to
+	 * report them.
 	 *
 	 * @param emp The Employee object to trim.
 	 */
 	@Override
 	public void trimProperties(Employee emp) {
 
-		emp.setAddress(emp.getAddress().trim());
-		emp.setEmail(emp.getEmail().trim());
-		emp.setName(emp.getName().trim());
-		emp.setPhone(emp.getPhone().trim());
+		if (emp.getAddress() != null)
+			emp.setAddress(emp.getAddress().trim());
+		if (emp.getEmail() != null)
+			emp.setEmail(emp.getEmail().trim());
+		if (emp.getName() != null)
+			emp.setName(emp.getName().trim());
+		if (emp.getPhone() != null)
+			emp.setPhone(emp.getPhone().trim());
 
 	}
 }
@@ -0,0 +1,436 @@
+package com.workfolio.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.dto.TypeaheadStats;
+import com.workfolio.entity.Employee;
+import com.workfolio.repository.EmployeeRepository;
+
+/**
+ * EmployeeTypeaheadIndex is an in-process inverted index over the name, email
+ * and address of every employee, used to answer directory typeahead queries
+ * without going to the database. Each field is split into lower-cased terms,
+ * and the terms are kept in a sorted map from term to employee ids, so all the
+ * terms starting with what the user has typed are one range of the map.
+ *
+ * A query matches the employees whose terms start with every word of the
+ * query. When fewer matches than requested are found, the last word is also
+ * matched fuzzily against name terms, allowing one typo. Matches are ranked by
+ * the field they were found in (name, then email, then address) and by whether
+ * the term matched exactly.
+ *
+ * The index is built in the background once the application has started, and
+ * is kept up to date by the EmployeeService and the bulk import, after their
+ * transactions commit. Writers are serialized; readers never block.
+ */
+@Component
+public class EmployeeTypeaheadIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeTypeaheadIndex.class);
+
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}@.]+|[.@]");
+
+	/**
+	 * Maximum number of candidate employees examined for one query.
+	 */
+	private static final int MAX_CANDIDATES = 5_000;
+
+	/**
+	 * Maximum number of terms compared during a fuzzy lookup.
+	 */
+	private static final int MAX_FUZZY_TERMS = 20_000;
+
+	private static final int NAME = 3, EMAIL = 2, ADDRESS = 1;
+
+	/**
+	 * An indexed employee, with the lower-cased terms of each field.
+	 */
+	private record Doc(int id, String name, String email, String address, String[] nameTerms, String[] emailTerms,
+			String[] addressTerms) {
+
+		Stream<String> terms() {
+			return Stream.of(nameTerms, emailTerms, addressTerms).flatMap(Stream::of);
+		}
+	}
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${workfolio.typeahead.enabled:true}")
+	private boolean enabled;
+
+	private final Map<Integer, Doc> docs = new ConcurrentHashMap<>();
+
+	private final ConcurrentSkipListMap<String, Set<Integer>> terms = new ConcurrentSkipListMap<>();
+
+	/**
+	 * The terms occurring in employee names, with the number of employees using
+	 * each. Fuzzy lookups scan this much smaller vocabulary rather than all terms.
+	 */
+	private final ConcurrentSkipListMap<String, Integer> nameVocabulary = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Ids written while the index was being built, which the build must not
+	 * overwrite with the older state it read; null once the build is over.
+	 */
+	private Set<Integer> writtenDuringBuild = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Ids partially updated while the index was being built, before the build
+	 * had reached them: their unchanged fields are unknown, so they are read
+	 * again from the database once the build is over.
+	 */
+	private final Set<Integer> updatedDuringBuild = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean ready;
+
+	private volatile long buildMillis;
+
+	/**
+	 * Builds the index from the database in a background thread once the
+	 * application is ready to serve requests.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+		if (!enabled)
+			return;
+		Thread builder = new Thread(this::load, "typeahead-index-builder");
+		builder.setDaemon(true);
+		builder.start();
+	}
+
+	private void load() {
+
+		long start = System.nanoTime();
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.executeWithoutResult(status -> {
+			try (Stream<EmployeeSummary> employees = employeeRepository.streamSummaries()) {
+				employees.forEach(e -> {
+					synchronized (this) {
+						if (!writtenDuringBuild.contains(e.getId()))
+							index(e.getId(), e.getName(), e.getEmail(), e.getAddress());
+					}
+				});
+			}
+		});
+
+		synchronized (this) {
+			writtenDuringBuild = null;
+			// read on the primary, in a read-write transaction, holding the writer lock so
+			// that the updates committed after this read are applied on top of it
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				for (Employee e : employeeRepository.findAllById(updatedDuringBuild))
+					index(e.getId(), e.getName(), e.getEmail(), e.getAddress());
+			});
+			updatedDuringBuild.clear();
+		}
+		buildMillis = (System.nanoTime() - start) / 1_000_000;
+		ready = true;
+		TypeaheadStats stats = stats();
+		log.info("Typeahead index built in {} ms: {} employees, {} terms, ~{} bytes per employee (estimated)",
+				buildMillis, stats.getEmployees(), stats.getTerms(), stats.getEstimatedBytesPerEmployee());
+
+	}
+
+	/**
+	 * Returns the best matches for what the user has typed so far.
+	 *
+	 * @param query The text typed by the user.
+	 * @param limit The maximum number of matches to return.
+	 * @return The matching employees, best match first.
+	 */
+	public List<EmployeeSummary> search(String query, int limit) {
+
+		String[] words = tokenize(query);
+		if (words.length == 0 || limit < 1)
+			return List.of();
+
+		// gather candidates from the most selective (longest) word, check the others
+		// against the terms of each candidate
+		String anchor = Stream.of(words).max(Comparator.comparingInt(String::length)).get();
+		Set<Integer> candidates = new HashSet<>();
+		collect(prefixRange(anchor), candidates);
+
+		List<Doc> matches = new ArrayList<>();
+		for (Integer id : candidates) {
+			Doc doc = docs.get(id);
+			if (doc != null && Stream.of(words).allMatch(w -> doc.terms().anyMatch(t -> t.startsWith(w))))
+				matches.add(doc);
+		}
+
+		String last = words[words.length - 1];
+		if (matches.size() < limit && last.length() >= 4) {
+			Set<Integer> fuzzy = new HashSet<>();
+			for (String term : fuzzyTerms(last))
+				collect(Map.of(term, terms.getOrDefault(term, Set.of())), fuzzy);
+			fuzzy.removeAll(candidates);
+			for (Integer id : fuzzy) {
+				Doc doc = docs.get(id);
+				if (doc != null && Stream.of(words).limit(words.length - 1)
+						.allMatch(w -> doc.terms().anyMatch(t -> t.startsWith(w))))
+					matches.add(doc);
+			}
+		}
+
+		return matches.stream()
+				.sorted(Comparator.comparingInt((Doc d) -> -score(d, words)).thenComparing(Doc::name,
+						Comparator.nullsLast(Comparator.naturalOrder())))
+				.limit(limit).map(d -> new EmployeeSummary(d.id(), d.name(), d.email(), null, d.address(), null))
+				.toList();
+
+	}
+
+	/**
+	 * Indexes a newly added employee.
+	 *
+	 * @param e The employee.
+	 */
+	public void add(Employee e) {
+		if (enabled)
+			AfterCommit.run(() -> put(e.getId(), e.getName(), e.getEmail(), e.getAddress()));
+	}
+
+	/**
+	 * Re-indexes the changed fields of an employee. An employee the initial build
+	 * has not indexed yet is read again from the database after the build, since
+	 * only its changed fields are known here.
+	 *
+	 * @param id      The id of the employee.
+	 * @param name    The new name, or null if unchanged.
+	 * @param email   The new email, or null if unchanged.
+	 * @param address The new address, or null if unchanged.
+	 */
+	public void update(int id, String name, String email, String address) {
+		if (!enabled)
+			return;
+		AfterCommit.run(() -> {
+			synchronized (this) {
+				Doc doc = docs.get(id);
+				if (doc == null) {
+					if (writtenDuringBuild != null && !writtenDuringBuild.contains(id))
+						updatedDuringBuild.add(id);
+					return;
+				}
+				put(id, name != null ? name : doc.name(), email != null ? email : doc.email(),
+						address != null ? address : doc.address());
+			}
+		});
+	}
+
+	/**
+	 * Removes a deleted employee from the index.
+	 *
+	 * @param id The id of the employee.
+	 */
+	public void remove(int id) {
+		if (!enabled)
+			return;
+		AfterCommit.run(() -> {
+			synchronized (this) {
+				if (writtenDuringBuild != null)
+					writtenDuringBuild.add(id);
+				updatedDuringBuild.remove(id);
+				unindex(id);
+			}
+		});
+	}
+
+	/**
+	 * Reports the size of the index and an estimate of its memory footprint. The
+	 * estimate adds up the sizes of the objects the index holds, as laid out by a
+	 * 64-bit JVM with compressed references; it is not measured on the heap, which
+	 * a class histogram (jmap -histo) of a running instance does.
+	 *
+	 * @return The index statistics.
+	 */
+	public TypeaheadStats stats() {
+
+		long bytes = 0;
+		long postings = 0;
+		for (Doc doc : docs.values()) {
+			bytes += 64 + stringBytes(doc.name()) + stringBytes(doc.email()) + stringBytes(doc.address());
+			bytes += doc.terms().mapToLong(t -> 8 + stringBytes(t)).sum() + 3 * 16;
+		}
+		// skip list node and boxed count per name term
+		bytes += nameVocabulary.size() * 64L;
+		for (Map.Entry<String, Set<Integer>> term : terms.entrySet()) {
+			// skip list node and index level, key set with its backing map
+			bytes += 48 + stringBytes(term.getKey()) + 96;
+			postings += term.getValue().size();
+		}
+		// one hash map node and boxed id per posting
+		bytes += postings * 48;
+
+		int employees = docs.size();
+		return new TypeaheadStats(ready, employees, terms.size(), postings, bytes,
+				employees == 0 ? 0 : bytes / employees, buildMillis);
+
+	}
+
+	private void put(int id, String name, String email, String address) {
+		synchronized (this) {
+			if (writtenDuringBuild != null)
+				writtenDuringBuild.add(id);
+			updatedDuringBuild.remove(id);
+			index(id, name, email, address);
+		}
+	}
+
+	/**
+	 * Replaces the indexed state of an employee. Callers hold the writer lock.
+	 */
+	private void index(int id, String name, String email, String address) {
+
+		unindex(id);
+		String[] emailTerms = tokenize(email);
+		if (email != null && !email.isBlank()) {
+			emailTerms = Stream.concat(Stream.of(email.toLowerCase(Locale.ROOT).trim()), Stream.of(emailTerms))
+					.distinct().toArray(String[]::new);
+		}
+		Doc doc = new Doc(id, name, email, address, tokenize(name), emailTerms, tokenize(address));
+		docs.put(id, doc);
+		doc.terms().distinct().forEach(t -> terms.computeIfAbsent(t, k -> ConcurrentHashMap.newKeySet()).add(id));
+		for (String t : doc.nameTerms())
+			nameVocabulary.merge(t, 1, Integer::sum);
+
+	}
+
+	/**
+	 * Removes an employee from the index. Callers hold the writer lock.
+	 */
+	private void unindex(int id) {
+
+		Doc old = docs.remove(id);
+		if (old == null)
+			return;
+		old.terms().distinct().forEach(t -> terms.computeIfPresent(t, (k, ids) -> {
+			ids.remove(id);
+			return ids.isEmpty() ? null : ids;
+		}));
+		for (String t : old.nameTerms())
+			nameVocabulary.computeIfPresent(t, (k, count) -> count == 1 ? null : count - 1);
+
+	}
+
+	private NavigableMap<String, Set<Integer>> prefixRange(String prefix) {
+		return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+	}
+
+	private static void collect(Map<String, Set<Integer>> range, Set<Integer> into) {
+		for (Set<Integer> ids : range.values()) {
+			for (Integer id : ids) {
+				if (into.size() >= MAX_CANDIDATES)
+					return;
+				into.add(id);
+			}
+		}
+	}
+
+	/**
+	 * Finds the name terms starting with the same letter as the given word that
+	 * have a prefix within one edit (insertion, deletion or substitution) of it.
+	 */
+	private List<String> fuzzyTerms(String word) {
+
+		String first = word.substring(0, 1);
+		List<String> result = new ArrayList<>();
+		int scanned = 0;
+		for (String term : nameVocabulary.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+			if (++scanned > MAX_FUZZY_TERMS)
+				break;
+			for (int len = word.length() - 1; len <= word.length() + 1; len++) {
+				if (len <= term.length() && withinOneEdit(word, term.substring(0, len))) {
+					result.add(term);
+					break;
+				}
+			}
+		}
+		return result;
+
+	}
+
+	private static boolean withinOneEdit(String a, String b) {
+
+		if (Math.abs(a.length() - b.length()) > 1)
+			return false;
+		int i = 0, j = 0, edits = 0;
+		while (i < a.length() && j < b.length()) {
+			if (a.charAt(i) == b.charAt(j)) {
+				i++;
+				j++;
+				continue;
+			}
+			if (++edits > 1)
+				return false;
+			if (a.length() > b.length())
+				i++;
+			else if (a.length() < b.length())
+				j++;
+			else {
+				i++;
+				j++;
+			}
+		}
+		return edits + (a.length() - i) + (b.length() - j) <= 1;
+
+	}
+
+	private static int score(Doc doc, String[] words) {
+		int score = 0;
+		for (String w : words)
+			score += Math.max(fieldScore(doc.nameTerms(), w, NAME),
+					Math.max(fieldScore(doc.emailTerms(), w, EMAIL), fieldScore(doc.addressTerms(), w, ADDRESS)));
+		return score;
+	}
+
+	private static int fieldScore(String[] fieldTerms, String word, int weight) {
+		int best = 0;
+		for (String t : fieldTerms) {
+			if (t.equals(word))
+				return weight * 2;
+			if (t.startsWith(word))
+				best = weight;
+		}
+		return best;
+	}
+
+	private static String[] tokenize(String text) {
+		if (text == null || text.isBlank())
+			return new String[0];
+		return Stream.of(SEPARATORS.split(text.toLowerCase(Locale.ROOT))).filter(t -> !t.isEmpty()).distinct()
+				.toArray(String[]::new);
+	}
+
+	/**
+	 * Approximate heap size of a compact (Latin-1) string.
+	 */
+	private static long stringBytes(String s) {
+		return s == null ? 0 : 40 + s.length();
+	}
+}
@@ -0,0 +1,141 @@
+package com.workfolio.service;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.workfolio.dto.FieldViolation;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeValidationException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * EmployeeValidator checks an Employee against the jakarta.validation
+ * constraints declared on the Employee entity without touching the database,
+ * so that invalid input is rejected before any repository call. It uses the
+ * Bean Validation provider configured by Spring Boot, whose constraint metadata
+ * for Employee is built once at startup rather than on the first request, and
+ * is then shared by every call.
+ *
+ * Violations are reported per property, in a stable order, with at most one
+ * violation each: a missing value is reported as such rather than as, say,
+ * also being too short. The validator is stateless and thread safe, so large
+ * batches of employees can be validated in parallel.
+ */
+@Component
+public class EmployeeValidator implements InitializingBean {
+
+	/**
+	 * The constrained properties of Employee, in the order their violations are
+	 * reported.
+	 */
+	private static final List<String> PROPERTIES = List.of("name", "address", "email", "phone", "salary");
+
+	@Autowired
+	private Validator validator;
+
+	/**
+	 * Builds and caches the constraint metadata of Employee.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		validator.getConstraintsForClass(Employee.class);
+	}
+
+	/**
+	 * Validates the given employee.
+	 *
+	 * @param e The employee to validate.
+	 * @return The violations, empty if the employee is valid.
+	 */
+	public List<FieldViolation> validate(Employee e) {
+		return collect(validator.validate(e));
+	}
+
+	/**
+	 * Validates the properties of the given employee that are set, as in a
+	 * partial update; properties left null are not checked.
+	 *
+	 * @param e The properties to change.
+	 * @return The violations, empty if every property set is valid.
+	 */
+	public List<FieldViolation> validateChanges(Employee e) {
+
+		List<FieldViolation> violations = new ArrayList<>(0);
+		if (e.getName() != null)
+			violations.addAll(collect(validator.validateProperty(e, "name")));
+		if (e.getAddress() != null)
+			violations.addAll(collect(validator.validateProperty(e, "address")));
+		if (e.getEmail() != null)
+			violations.addAll(collect(validator.validateProperty(e, "email")));
+		if (e.getPhone() != null)
+			violations.addAll(collect(validator.validateProperty(e, "phone")));
+		if (e.getSalary() != null)
+			violations.addAll(collect(validator.validateProperty(e, "salary")));
+		return violations;
+	}
+
+	/**
+	 * Validates the given employee, throwing if it is invalid.
+	 *
+	 * @param e The employee to validate.
+	 * @throws EmployeeValidationException if the employee is invalid.
+	 */
+	public void check(Employee e) throws EmployeeValidationException {
+		List<FieldViolation> violations = validate(e);
+		if (!violations.isEmpty())
+			throw new EmployeeValidationException(violations);
+	}
+
+	/**
+	 * Validates the properties of the given employee that are set, throwing if one
+	 * is invalid.
+	 *
+	 * @param e The properties to change.
+	 * @throws EmployeeValidationException if a property set is invalid.
+	 */
+	public void checkChanges(Employee e) throws EmployeeValidationException {
+		List<FieldViolation> violations = validateChanges(e);
+		if (!violations.isEmpty())
+			throw new EmployeeValidationException(violations);
+	}
+
+	/**
+	 * Keeps one violation per property, preferring the one of a missing value, in
+	 * the order of PROPERTIES.
+	 */
+	private static List<FieldViolation> collect(Set<ConstraintViolation<Employee>> violations) {
+
+		if (violations.isEmpty())
+			return List.of();
+
+		ConstraintViolation<?>[] kept = new ConstraintViolation<?>[PROPERTIES.size()];
+		for (ConstraintViolation<Employee> v : violations) {
+			int i = PROPERTIES.indexOf(v.getPropertyPath().toString());
+			if (i < 0)
+				continue;
+			if (kept[i] == null || isPresenceConstraint(v))
+				kept[i] = v;
+		}
+
+		List<FieldViolation> result = new ArrayList<>(violations.size());
+		for (int i = 0; i < kept.length; i++)
+			if (kept[i] != null)
+				result.add(new FieldViolation(PROPERTIES.get(i), kept[i].getMessage()));
+		return result;
+	}
+
+	private static boolean isPresenceConstraint(ConstraintViolation<?> v) {
+		Class<? extends Annotation> type = v.getConstraintDescriptor().getAnnotation().annotationType();
+		return type == NotNull.class || type == NotBlank.class;
+	}
+}
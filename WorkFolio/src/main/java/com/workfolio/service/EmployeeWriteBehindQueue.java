@@ -0,0 +1,926 @@
+package com.workfolio.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * EmployeeWriteBehindQueue is the optional asynchronous write path of the
+ * EmployeeService, enabled with workfolio.write-behind.enabled=true. Adds,
+ * updates and deletes are checked synchronously by the EmployeeService, then
+ * queued here instead of each running its own transaction, and a background
+ * thread writes the queue to the database in JDBC batches, in one transaction,
+ * once it holds batch-size employees or flush-interval has passed.
+ *
+ * The queue is coalesced per employee: an employee updated many times before a
+ * flush is written once, with its latest state, and an employee added and
+ * deleted before a flush is never written at all. Updates are written with the
+ * version the database had before the first of them, so an employee changed
+ * outside this application in the meantime is not overwritten. The queue holds
+ * at most max-pending employees; writers beyond that wait for a flush, for at
+ * most offer-timeout, and are then turned away.
+ *
+ * Until their flush has committed, queued employees are served by
+ * {@link #find(int)}, so the EmployeeService reads its own writes. Every
+ * queued write is first appended to a local log, and forced to disk when
+ * workfolio.write-behind.fsync is set, before it is queued. The log is written
+ * outside the lock of the queue, so readers never wait for the disk, and by
+ * group commit: writers that arrive while the log is being forced are appended
+ * and forced together by the first of them, so one force serves a whole group
+ * of writers. Writes still in the log at startup, because the application
+ * stopped before flushing them, are written before the application starts.
+ * Replayed inserts and updates are applied only over an older version of the
+ * employee, so replaying a write that had already been flushed changes nothing.
+ *
+ * A write the database rejects when flushed, such as an email taken by an
+ * import, cannot be reported to its caller any more. It is logged, counted as
+ * workfolio.write-behind.failed, and the cache, the typeahead index and the
+ * salary statistics are corrected from the database. When the database is
+ * unavailable, or the flush fails for any other reason, the writes of the
+ * flush that have not committed are queued again, ahead of newer ones, and
+ * written by the next flush.
+ *
+ * The employee history is written by the flush, in its transaction: the
+ * changes it records carry the time of the flush rather than of the request,
+ * and no user, and a coalesced employee has a single entry for all the writes
+ * of a batch. The reporting hierarchy is also updated by the flush: a queued
+ * change of manager that would make an employee report to one of its own
+ * reports, through changes queued together, is rejected then.
+ */
+@Component
+@ConditionalOnProperty(name = "workfolio.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehindQueue implements InitializingBean, DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehindQueue.class);
+
+	private static final String INSERT = "insert into employee "
+			+ "(id, name, address, email, phone, salary, manager_id, department_id, version) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String UPDATE = "update employee set name = ?, address = ?, email = ?, phone = ?, "
+			+ "salary = ?, manager_id = ?, department_id = ?, version = ? where id = ? and version = ?";
+
+	private static final String REPLAY = "update employee set name = ?, address = ?, email = ?, phone = ?, "
+			+ "salary = ?, manager_id = ?, department_id = ?, version = ? where id = ? and version < ?";
+
+	private static final String DELETE = "delete from employee where id = ?";
+
+	/**
+	 * The kinds of queued writes.
+	 */
+	private enum Kind {
+		INSERT, UPDATE, DELETE
+	}
+
+	/**
+	 * A queued write: the state of the employee after it (only the id for a
+	 * delete) and, for an update, the version the database is expected to hold,
+	 * or null for an update replayed from the log, which is applied if the
+	 * database holds an older version.
+	 */
+	private record Mutation(Kind kind, Employee state, Long expectedVersion) {
+	}
+
+	/**
+	 * A write waiting to be appended to the log, with its line of the log. Once
+	 * its group has been appended, it is done, with the error of the log if the
+	 * group could not be written.
+	 */
+	private static final class LogEntry {
+
+		private final Mutation mutation;
+
+		private final byte[] line;
+
+		// guarded by logLock
+		private boolean done;
+
+		// guarded by logLock
+		private IOException error;
+
+		private LogEntry(Mutation mutation, byte[] line) {
+			this.mutation = mutation;
+			this.line = line;
+		}
+	}
+
+	/**
+	 * The queued state of an employee, as returned by {@link #find(int)}.
+	 *
+	 * @param employee The employee as it will be written, or null when it is
+	 *                 being deleted.
+	 */
+	public record Pending(Employee employee) {
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private EmployeeCache employeeCache;
+
+	@Autowired
+	private EmployeeTypeaheadIndex typeaheadIndex;
+
+	@Autowired
+	private EmployeeAnalyticsService analyticsService;
+
+	@Autowired
+	private EmployeeChangeTracker changeTracker;
+
+	@Autowired
+	private EmployeeHistoryService historyService;
+
+	@Autowired
+	private EmployeeHierarchyService hierarchyService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	/**
+	 * Number of queued employees that triggers a flush, and JDBC batch size.
+	 */
+	@Value("${workfolio.write-behind.batch-size:500}")
+	private int batchSize;
+
+	/**
+	 * Longest time a write stays queued.
+	 */
+	@Value("${workfolio.write-behind.flush-interval:1s}")
+	private Duration flushInterval;
+
+	/**
+	 * Maximum number of queued employees.
+	 */
+	@Value("${workfolio.write-behind.max-pending:10000}")
+	private int maxPending;
+
+	/**
+	 * How long a writer waits for room in a full queue.
+	 */
+	@Value("${workfolio.write-behind.offer-timeout:5s}")
+	private Duration offerTimeout;
+
+	/**
+	 * The log of queued writes. Writes being flushed are moved to a file with the
+	 * same name and a .flushing suffix.
+	 */
+	@Value("${workfolio.write-behind.log:data/write-behind.log}")
+	private Path logFile;
+
+	/**
+	 * Whether every queued write is forced to disk before it is acknowledged.
+	 */
+	@Value("${workfolio.write-behind.fsync:true}")
+	private boolean fsync;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	// taken before lock when both are held
+	private final ReentrantLock logLock = new ReentrantLock();
+
+	private final Condition notFull = lock.newCondition();
+
+	private final Condition flushDue = lock.newCondition();
+
+	// guarded by lock
+	private Map<Integer, Mutation> pending = new LinkedHashMap<>();
+
+	// guarded by lock; the writes of the flush in progress, until it commits
+	private Map<Integer, Mutation> flushing = Map.of();
+
+	// guarded by lock; the id of the queued employee each queued email goes to
+	private final Map<String, Integer> emails = new HashMap<>();
+
+	// guarded by lock; writes waiting for the next group of the log
+	private List<LogEntry> unlogged = new ArrayList<>();
+
+	// guarded by logLock
+	private FileChannel logChannel;
+
+	private volatile boolean running = true;
+
+	private Thread flusher;
+
+	private Counter failed;
+
+	private Timer flushTimer;
+
+	/**
+	 * Writes the writes left in the log by the previous run, then starts the
+	 * flushing thread.
+	 */
+	@Override
+	public void afterPropertiesSet() throws IOException {
+
+		Gauge.builder("workfolio.write-behind.pending", this, q -> q.size())
+				.description("Employees with queued writes").register(meterRegistry);
+		failed = Counter.builder("workfolio.write-behind.failed")
+				.description("Queued writes rejected by the database").register(meterRegistry);
+		flushTimer = Timer.builder("workfolio.write-behind.flush").description("Write-behind flush duration")
+				.register(meterRegistry);
+
+		Path parent = logFile.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+
+		recover();
+		logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+
+		flusher = new Thread(this::run, "write-behind-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Writes the writes left in the log files by a run that stopped before
+	 * flushing them. Their updates are applied only over older versions.
+	 */
+	void recover() throws IOException {
+
+		int replayed;
+		lock.lock();
+		try {
+			for (Path file : List.of(flushingFile(), logFile))
+				if (Files.exists(file))
+					replay(file);
+			pending.replaceAll((id, m) -> m.kind() == Kind.UPDATE ? new Mutation(Kind.UPDATE, m.state(), null) : m);
+			replayed = pending.size();
+		} finally {
+			lock.unlock();
+		}
+		if (replayed > 0) {
+			log.info("Replaying {} queued employee writes from {}", replayed, logFile);
+			flush();
+		}
+	}
+
+	/**
+	 * Queues a new employee. Its id must already be allocated.
+	 *
+	 * @param e The employee to add.
+	 * @throws EmployeeException if the queue stays full for the offer timeout.
+	 */
+	public void add(Employee e) throws EmployeeException {
+		Employee state = copy(e);
+		if (state.getVersion() == null)
+			state.setVersion(0L);
+		e.setVersion(state.getVersion());
+		offer(new Mutation(Kind.INSERT, state, null));
+	}
+
+	/**
+	 * Queues the new state of an employee.
+	 *
+	 * @param current The current state of the employee, as returned by
+	 *                {@link #find(int)} or read from the database.
+	 * @param updated The new state of the employee; its version is set to the
+	 *                next version.
+	 * @throws EmployeeException if the queue stays full for the offer timeout.
+	 */
+	public void update(Employee current, Employee updated) throws EmployeeException {
+		Employee state = copy(updated);
+		state.setVersion(current.getVersion() + 1);
+		updated.setVersion(state.getVersion());
+		offer(new Mutation(Kind.UPDATE, state, current.getVersion()));
+	}
+
+	/**
+	 * Queues the deletion of an employee.
+	 *
+	 * @param id The id of the employee.
+	 * @throws EmployeeException if the queue stays full for the offer timeout.
+	 */
+	public void delete(int id) throws EmployeeException {
+		Employee state = new Employee();
+		state.setId(id);
+		offer(new Mutation(Kind.DELETE, state, null));
+	}
+
+	/**
+	 * Returns the queued state of an employee, including a write being flushed.
+	 *
+	 * @param id The id of the employee.
+	 * @return The queued state, or null when no write of the employee is queued.
+	 */
+	public Pending find(int id) {
+		lock.lock();
+		try {
+			Mutation m = queued(id);
+			if (m == null)
+				return null;
+			return new Pending(m.kind() == Kind.DELETE ? null : copy(m.state()));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Tells whether an email belongs to another employee, taking queued writes
+	 * into account: an email given to a queued employee is taken, and an email
+	 * that a queued write removes from its employee is free.
+	 *
+	 * @param email The email.
+	 * @param id    The id of the employee that wants the email, or null for a new
+	 *              employee.
+	 * @return true if another employee has the email.
+	 */
+	public boolean isEmailTaken(String email, Integer id) {
+
+		Employee owner = employeeCache.findByEmail(email);
+		lock.lock();
+		try {
+			Integer queuedOwner = emails.get(email);
+			if (queuedOwner != null && !queuedOwner.equals(id))
+				return true;
+			if (owner == null || owner.getId().equals(id))
+				return false;
+			Mutation m = queued(owner.getId());
+			return m == null || (m.kind() != Kind.DELETE && email.equals(m.state().getEmail()));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of employees with queued writes.
+	 *
+	 * @return The number of queued employees.
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return pending.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Logs and queues a write, waiting for room when the queue is full. The write
+	 * is queued once the group of the log it belongs to has been written.
+	 */
+	private void offer(Mutation m) throws EmployeeException {
+
+		LogEntry entry;
+		try {
+			entry = new LogEntry(m, (objectMapper.writeValueAsString(m) + "\n").getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			throw new EmployeeException("could not log the change : " + ex.getMessage());
+		}
+
+		lock.lock();
+		try {
+			long wait = offerTimeout.toNanos();
+			while (pending.size() + unlogged.size() >= maxPending && !pending.containsKey(m.state().getId())) {
+				flushDue.signal();
+				if (wait <= 0)
+					throw new EmployeeException("too many pending changes, please try again later");
+				wait = notFull.awaitNanos(wait);
+			}
+			unlogged.add(entry);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new EmployeeException("interrupted while waiting to queue the change");
+		} finally {
+			lock.unlock();
+		}
+
+		IOException error;
+		logLock.lock();
+		try {
+			// the writer before may have written this write with its own group
+			if (!entry.done)
+				appendGroup();
+			error = entry.error;
+		} finally {
+			logLock.unlock();
+		}
+		if (error != null)
+			throw new EmployeeException("could not log the change : " + error.getMessage());
+	}
+
+	/**
+	 * Appends every write waiting for the log with one write and one force, then
+	 * queues them, in the order of the log. When the log cannot be written, the
+	 * writes of the group are taken out of it again and none is queued. Callers
+	 * hold the log lock.
+	 */
+	private void appendGroup() {
+
+		List<LogEntry> group;
+		lock.lock();
+		try {
+			group = unlogged;
+			unlogged = new ArrayList<>();
+		} finally {
+			lock.unlock();
+		}
+
+		IOException error = null;
+		long size = -1;
+		try {
+			size = logChannel.size();
+			ByteBuffer[] lines = group.stream().map(e -> ByteBuffer.wrap(e.line)).toArray(ByteBuffer[]::new);
+			while (lines[lines.length - 1].hasRemaining())
+				logChannel.write(lines);
+			if (fsync)
+				logChannel.force(false);
+		} catch (IOException ex) {
+			error = ex;
+			if (size >= 0) {
+				try {
+					logChannel.truncate(size);
+				} catch (IOException truncate) {
+					ex.addSuppressed(truncate);
+				}
+			}
+		}
+
+		lock.lock();
+		try {
+			for (LogEntry e : group) {
+				e.done = true;
+				e.error = error;
+				if (error == null)
+					enqueue(e.mutation, false);
+			}
+			if (pending.size() >= batchSize)
+				flushDue.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Queues a write, keeping the index of queued emails. Callers hold the lock.
+	 */
+	private void enqueue(Mutation m, boolean replayed) {
+		Integer id = m.state().getId();
+		unindex(id, queued(id));
+		merge(pending, m, replayed);
+		Mutation after = queued(id);
+		if (after != null && after.kind() != Kind.DELETE)
+			emails.put(after.state().getEmail(), id);
+	}
+
+	/**
+	 * Takes the email of a write out of the index of queued emails. Callers hold
+	 * the lock.
+	 */
+	private void unindex(Integer id, Mutation m) {
+		if (m != null && m.kind() != Kind.DELETE)
+			emails.remove(m.state().getEmail(), id);
+	}
+
+	/**
+	 * Returns the latest queued write of an employee, including a write being
+	 * flushed. Callers hold the lock.
+	 */
+	private Mutation queued(int id) {
+		Mutation m = pending.get(id);
+		return m != null ? m : flushing.get(id);
+	}
+
+	/**
+	 * Coalesces a write into a queue with the write already queued for the same
+	 * employee, if any. An insert followed by a delete cancels out, unless they
+	 * are replayed from the log, where the insert may already have been flushed.
+	 */
+	private static void merge(Map<Integer, Mutation> queue, Mutation newer, boolean replayed) {
+
+		Integer id = newer.state().getId();
+		Mutation older = queue.get(id);
+		if (older == null || older.kind() == Kind.DELETE) {
+			queue.put(id, newer);
+			return;
+		}
+		switch (newer.kind()) {
+		case INSERT -> queue.put(id, newer);
+		case UPDATE -> queue.put(id, new Mutation(older.kind(), newer.state(), older.expectedVersion()));
+		case DELETE -> {
+			// an employee added and deleted before a flush is never written
+			if (older.kind() == Kind.INSERT && !replayed)
+				queue.remove(id);
+			else
+				queue.put(id, newer);
+		}
+		}
+	}
+
+	private void run() {
+		while (running) {
+			lock.lock();
+			try {
+				if (pending.size() < batchSize)
+					flushDue.await(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				lock.unlock();
+			}
+			try {
+				flush();
+			} catch (RuntimeException | IOException ex) {
+				log.warn("Could not flush the queued employee writes, retrying: {}", ex.getMessage());
+				sleep(flushInterval);
+			}
+		}
+	}
+
+	/**
+	 * Writes the queued writes to the database. Flushes never overlap: they run
+	 * on the flushing thread, or before it starts and after it has stopped.
+	 */
+	void flush() throws IOException {
+
+		Map<Integer, Mutation> batch;
+		logLock.lock();
+		try {
+			lock.lock();
+			try {
+				if (pending.isEmpty())
+					return;
+				batch = pending;
+				pending = new LinkedHashMap<>();
+				flushing = batch;
+				rotateLog();
+				notFull.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			logLock.unlock();
+		}
+
+		List<Mutation> committed = new ArrayList<>();
+		try {
+			flushTimer.record(() -> write(batch, committed));
+		} catch (RuntimeException ex) {
+			// the database is unavailable, or the flush failed otherwise: queue the writes that did not commit
+			// again, before any newer ones, so none is left in the flushing map until a restart
+			cache(committed);
+			lock.lock();
+			try {
+				Map<Integer, Mutation> requeued = new LinkedHashMap<>(batch);
+				committed.forEach(m -> requeued.remove(m.state().getId(), m));
+				pending.values().forEach(m -> merge(requeued, m, false));
+				pending = requeued;
+				flushing = Map.of();
+				emails.clear();
+				pending.forEach((id, m) -> {
+					if (m.kind() != Kind.DELETE)
+						emails.put(m.state().getEmail(), id);
+				});
+			} finally {
+				lock.unlock();
+			}
+			throw ex;
+		}
+
+		Files.deleteIfExists(flushingFile());
+		lock.lock();
+		try {
+			Map<Integer, Mutation> flushed = flushing;
+			flushing = Map.of();
+			flushed.forEach((id, m) -> {
+				if (!pending.containsKey(id))
+					unindex(id, m);
+			});
+		} finally {
+			lock.unlock();
+		}
+		// the history rows of the flush have committed; give them their feed positions
+		changeTracker.touch();
+	}
+
+	/**
+	 * Writes a batch in one transaction, or each write in its own transaction
+	 * when the batch is rejected, and updates the cache once the writes have
+	 * committed.
+	 *
+	 * @param committed Receives the writes that have committed, including those
+	 *                  committed one by one before the database became
+	 *                  unavailable; the caller caches them if this fails.
+	 */
+	private void write(Map<Integer, Mutation> batch, List<Mutation> committed) {
+
+		List<Mutation> rejected;
+		try {
+			rejected = transactionTemplate.execute(status -> writeAll(batch.values()));
+			committed.addAll(batch.values());
+			committed.removeAll(rejected);
+		} catch (DataAccessException ex) {
+			if (unavailable(ex))
+				throw ex;
+			rejected = new ArrayList<>();
+			for (Mutation m : batch.values()) {
+				try {
+					if (transactionTemplate.execute(status -> writeAll(List.of(m))).isEmpty())
+						committed.add(m);
+					else
+						rejected.add(m);
+				} catch (DataAccessException single) {
+					if (unavailable(single))
+						// the writes committed so far stay written; only the others are queued again
+						throw single;
+					log.warn("Queued write of employee {} rejected: {}", m.state().getId(), single.getMessage());
+					rejected.add(m);
+				}
+			}
+		}
+
+		cache(batch.values());
+		for (Mutation m : rejected)
+			reconcile(m);
+
+	}
+
+	private static boolean unavailable(DataAccessException ex) {
+		return ex instanceof DataAccessResourceFailureException || ex instanceof TransientDataAccessException;
+	}
+
+	/**
+	 * Puts the written employees in the cache, and evicts the deleted ones.
+	 */
+	private void cache(Collection<Mutation> written) {
+		for (Mutation m : written) {
+			if (m.kind() == Kind.DELETE)
+				employeeCache.evict(m.state().getId());
+			else
+				employeeCache.put(m.state());
+		}
+	}
+
+	/**
+	 * Sends the inserts, updates and deletes of a batch as three JDBC batches.
+	 *
+	 * @return The updates whose employee no longer had the expected version.
+	 */
+	private List<Mutation> writeAll(Collection<Mutation> batch) {
+
+		List<Mutation> inserts = new ArrayList<>();
+		List<Mutation> updates = new ArrayList<>();
+		List<Object[]> deletes = new ArrayList<>();
+		for (Mutation m : batch) {
+			switch (m.kind()) {
+			case INSERT -> inserts.add(m);
+			case UPDATE -> updates.add(m);
+			case DELETE -> deletes.add(new Object[] { m.state().getId() });
+			}
+		}
+
+		List<Mutation> rejected = new ArrayList<>();
+		List<Mutation> replays = new ArrayList<>();
+		if (!inserts.isEmpty()) {
+			// an insert replayed from the log may already have been flushed
+			List<Integer> present = employeeRepository
+					.findExistingIds(inserts.stream().map(m -> m.state().getId()).toList());
+			inserts.removeIf(m -> present.contains(m.state().getId()) && replays.add(m));
+			jdbcTemplate.batchUpdate(INSERT, inserts, batchSize, (ps, m) -> {
+				Employee e = m.state();
+				ps.setInt(1, e.getId());
+				ps.setString(2, e.getName());
+				ps.setString(3, e.getAddress());
+				ps.setString(4, e.getEmail());
+				ps.setString(5, e.getPhone());
+				ps.setObject(6, e.getSalary());
+				ps.setObject(7, e.getManagerId());
+				ps.setObject(8, e.getDepartmentId());
+				ps.setLong(9, e.getVersion());
+			});
+			historyService.recordAdded(inserts.stream().map(Mutation::state).toList());
+			hierarchyService.recordAdded(inserts.stream().map(Mutation::state).toList());
+		}
+		List<Mutation> updated = new ArrayList<>();
+		updates.removeIf(m -> m.expectedVersion() == null && replays.add(m));
+		if (!replays.isEmpty()) {
+			int[][] counts = jdbcTemplate.batchUpdate(REPLAY, replays, batchSize, (ps, m) -> {
+				Employee e = m.state();
+				ps.setString(1, e.getName());
+				ps.setString(2, e.getAddress());
+				ps.setString(3, e.getEmail());
+				ps.setString(4, e.getPhone());
+				ps.setObject(5, e.getSalary());
+				ps.setObject(6, e.getManagerId());
+				ps.setObject(7, e.getDepartmentId());
+				ps.setLong(8, e.getVersion());
+				ps.setInt(9, e.getId());
+				ps.setLong(10, e.getVersion());
+			});
+			// a replay skipped because the employee is already newer is not a change
+			int i = 0;
+			for (int[] chunk : counts)
+				for (int count : chunk) {
+					if (count != 0)
+						updated.add(replays.get(i));
+					i++;
+				}
+		}
+		if (!updates.isEmpty()) {
+			int[][] counts = jdbcTemplate.batchUpdate(UPDATE, updates, batchSize, (ps, m) -> {
+				Employee e = m.state();
+				ps.setString(1, e.getName());
+				ps.setString(2, e.getAddress());
+				ps.setString(3, e.getEmail());
+				ps.setString(4, e.getPhone());
+				ps.setObject(5, e.getSalary());
+				ps.setObject(6, e.getManagerId());
+				ps.setObject(7, e.getDepartmentId());
+				ps.setLong(8, e.getVersion());
+				ps.setInt(9, e.getId());
+				ps.setLong(10, m.expectedVersion());
+			});
+			// a count of Statement.SUCCESS_NO_INFO, as rewritten MySQL batches may report, is taken as success
+			int i = 0;
+			for (int[] chunk : counts)
+				for (int count : chunk) {
+					if (count == 0)
+						rejected.add(updates.get(i));
+					else
+						updated.add(updates.get(i));
+					i++;
+				}
+		}
+		if (!updated.isEmpty()) {
+			List<Integer> refused = hierarchyService.recordMoved(updated.stream().map(Mutation::state).toList());
+			if (!refused.isEmpty())
+				throw new DataIntegrityViolationException("employees " + refused + " cannot report to their manager");
+			historyService.recordChanged(EmployeeHistoryService.Operation.UPDATE,
+					updated.stream().map(m -> m.state().getId()).toList());
+		}
+		if (!deletes.isEmpty()) {
+			List<Integer> ids = deletes.stream().map(d -> (Integer) d[0]).toList();
+			historyService.recordChanged(EmployeeHistoryService.Operation.DELETE, ids);
+			hierarchyService.recordDeleted(ids);
+			jdbcTemplate.batchUpdate(DELETE, deletes);
+		}
+
+		return rejected;
+	}
+
+	/**
+	 * Corrects the cache, the typeahead index and the salary statistics after a
+	 * queued write was not applied, from the state in the database.
+	 */
+	private void reconcile(Mutation m) {
+
+		int id = m.state().getId();
+		failed.increment();
+		log.warn("Queued {} of employee {} was not applied", m.kind().name().toLowerCase(), id);
+
+		Employee stored = employeeRepository.findById(id).orElse(null);
+		employeeCache.evict(id);
+		Double queuedSalary = m.kind() == Kind.DELETE ? null : m.state().getSalary();
+		if (stored == null) {
+			if (m.kind() != Kind.DELETE) {
+				typeaheadIndex.remove(id);
+				analyticsService.employeeRemoved(queuedSalary);
+			}
+		} else if (m.kind() == Kind.DELETE) {
+			typeaheadIndex.add(stored);
+			analyticsService.employeeAdded(stored.getSalary());
+		} else {
+			typeaheadIndex.update(id, stored.getName(), stored.getEmail(), stored.getAddress());
+			analyticsService.salaryChanged(queuedSalary, stored.getSalary());
+		}
+		changeTracker.touch();
+	}
+
+	/**
+	 * Moves the log to the .flushing file, appending it to the writes of a failed
+	 * flush that are still there, and starts a new log if one was open. Callers
+	 * hold both locks, or run before the flushing thread starts.
+	 */
+	private void rotateLog() throws IOException {
+
+		boolean open = logChannel != null;
+		if (open)
+			logChannel.close();
+		Path flushingFile = flushingFile();
+		if (Files.exists(flushingFile) && Files.exists(logFile)) {
+			Files.write(flushingFile, Files.readAllBytes(logFile), StandardOpenOption.APPEND);
+			Files.delete(logFile);
+		} else if (Files.exists(logFile))
+			Files.move(logFile, flushingFile);
+		logChannel = open ? FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND) : null;
+	}
+
+	/**
+	 * Reads the writes of a log file into the queue. Callers hold the lock.
+	 */
+	private void replay(Path file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank())
+					continue;
+				try {
+					enqueue(objectMapper.readValue(line, Mutation.class), true);
+				} catch (IOException ex) {
+					// the last line may be incomplete if the application stopped while writing it
+					log.warn("Skipping unreadable line of {}: {}", file, ex.getMessage());
+				}
+			}
+		}
+	}
+
+	private Path flushingFile() {
+		return logFile.resolveSibling(logFile.getFileName() + ".flushing");
+	}
+
+	/**
+	 * Stops the flushing thread and flushes what is still queued.
+	 */
+	@Override
+	public void destroy() throws IOException {
+		lock.lock();
+		try {
+			running = false;
+			flushDue.signal();
+		} finally {
+			lock.unlock();
+		}
+		if (flusher != null) {
+			try {
+				flusher.join(TimeUnit.SECONDS.toMillis(30));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		flush();
+		logLock.lock();
+		try {
+			logChannel.close();
+		} finally {
+			logLock.unlock();
+		}
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration.toMillis());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Employee copy(Employee e) {
+		Employee copy = new Employee();
+		BeanUtils.copyProperties(e, copy);
+		return copy;
+	}
+}
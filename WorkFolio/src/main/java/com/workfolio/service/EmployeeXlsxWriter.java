@@ -0,0 +1,161 @@
+package com.workfolio.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * EmployeeXlsxWriter writes an export as an Excel workbook (Office Open XML).
+ * Rows are written to the worksheet entry of the zip as they arrive, with their
+ * text inline rather than in a shared string table, so nothing but the current
+ * row is held in memory. The package parts describing the workbook are written
+ * last, once the number of worksheets is known: an export of more rows than a
+ * worksheet can hold continues on a new worksheet, each starting with the
+ * header row.
+ */
+class EmployeeXlsxWriter implements EmployeeRowWriter {
+
+	/**
+	 * The number of rows of an Excel worksheet.
+	 */
+	private static final int MAX_ROWS = 1_048_576;
+
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+	private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+	private static final String DOCUMENT_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+	private final ZipOutputStream zip;
+
+	private final Writer xml;
+
+	private final Object[] header;
+
+	private int sheets;
+
+	private int rowsInSheet;
+
+	EmployeeXlsxWriter(OutputStream out, List<String> header) throws IOException {
+		this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+		// exports are large and short-lived: favour throughput over size
+		this.zip.setLevel(Deflater.BEST_SPEED);
+		this.xml = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+		this.header = header.toArray();
+		startSheet();
+	}
+
+	@Override
+	public void writeRow(Object[] cells) throws IOException {
+		if (rowsInSheet == MAX_ROWS) {
+			endSheet();
+			startSheet();
+		}
+		row(cells);
+	}
+
+	@Override
+	public void finish() throws IOException {
+		endSheet();
+
+		StringBuilder workbook = new StringBuilder(XML_DECLARATION).append("<workbook xmlns=\"").append(MAIN_NS)
+				.append("\" xmlns:r=\"").append(DOCUMENT_RELATIONSHIPS).append("\"><sheets>");
+		StringBuilder workbookRels = new StringBuilder(XML_DECLARATION).append("<Relationships xmlns=\"")
+				.append(RELATIONSHIPS_NS).append("\">");
+		StringBuilder contentTypes = new StringBuilder(XML_DECLARATION).append(
+				"<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+						+ "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+						+ "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+						+ "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+		for (int i = 1; i <= sheets; i++) {
+			workbook.append("<sheet name=\"Employees").append(i == 1 ? "" : " " + i).append("\" sheetId=\"").append(i)
+					.append("\" r:id=\"rId").append(i).append("\"/>");
+			workbookRels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(DOCUMENT_RELATIONSHIPS)
+					.append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+			contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(
+					".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+		}
+
+		entry("xl/workbook.xml", workbook.append("</sheets></workbook>"));
+		entry("xl/_rels/workbook.xml.rels", workbookRels.append("</Relationships>"));
+		entry("_rels/.rels",
+				new StringBuilder(XML_DECLARATION).append("<Relationships xmlns=\"").append(RELATIONSHIPS_NS)
+						.append("\"><Relationship Id=\"rId1\" Type=\"").append(DOCUMENT_RELATIONSHIPS)
+						.append("/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>"));
+		entry("[Content_Types].xml", contentTypes.append("</Types>"));
+		zip.finish();
+	}
+
+	private void startSheet() throws IOException {
+		sheets++;
+		rowsInSheet = 0;
+		zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+		xml.write(XML_DECLARATION);
+		xml.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+		row(header);
+	}
+
+	private void endSheet() throws IOException {
+		xml.write("</sheetData></worksheet>");
+		xml.flush();
+		zip.closeEntry();
+	}
+
+	private void entry(String name, CharSequence content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		xml.append(content);
+		xml.flush();
+		zip.closeEntry();
+	}
+
+	private void row(Object[] cells) throws IOException {
+		rowsInSheet++;
+		xml.write("<row>");
+		for (Object cell : cells) {
+			if (cell == null) {
+				xml.write("<c/>");
+			} else if (cell instanceof Number) {
+				xml.write("<c><v>");
+				xml.write(cell.toString());
+				xml.write("</v></c>");
+			} else {
+				String text = cell.toString();
+				boolean padded = !text.isEmpty()
+						&& (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1)));
+				xml.write(padded ? "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">" : "<c t=\"inlineStr\"><is><t>");
+				escape(text);
+				xml.write("</t></is></c>");
+			}
+		}
+		xml.write("</row>");
+	}
+
+	/**
+	 * Writes text as XML character data, dropping the control characters XML
+	 * cannot represent.
+	 */
+	private void escape(String text) throws IOException {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '&' -> xml.write("&amp;");
+			case '<' -> xml.write("&lt;");
+			case '>' -> xml.write("&gt;");
+			default -> {
+				if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r')
+					xml.write(c);
+			}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.workfolio.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * SigningKeys derives the keys that sign the values WorkFolio hands to
+ * clients, such as the flash cookie, the login cookie and the API tokens, from
+ * the secret configured for them. Each use has its own key, the HMAC-SHA256 of
+ * its purpose under the secret, so a value signed for one use is never
+ * accepted for another, even where both are signed in the same format.
+ */
+public final class SigningKeys {
+
+	/**
+	 * The purpose of the key signing the flash cookie.
+	 */
+	public static final String FLASH_COOKIE = "flash-cookie";
+
+	/**
+	 * The purpose of the key signing the login cookie of the stateless mode.
+	 */
+	public static final String LOGIN_COOKIE = "login-cookie";
+
+	/**
+	 * The purpose of the key signing API tokens.
+	 */
+	public static final String API_TOKEN = "api-token";
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private SigningKeys() {
+	}
+
+	/**
+	 * Derives the key of a purpose from a secret.
+	 *
+	 * @param secret  The configured secret.
+	 * @param purpose The use of the key, one of the constants of this class.
+	 * @return The key of the purpose, 32 bytes long.
+	 */
+	public static byte[] derive(String secret, String purpose) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+			return mac.doFinal(purpose.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("cannot derive the " + purpose + " key", ex);
+		}
+	}
+
+}
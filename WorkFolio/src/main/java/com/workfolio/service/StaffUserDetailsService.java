@@ -0,0 +1,73 @@
+package com.workfolio.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.workfolio.entity.StaffUser;
+import com.workfolio.repository.StaffUserRepository;
+
+/**
+ * StaffUserDetailsService loads the accounts of the HR staff from the
+ * staff_user table for Spring Security, and stores password hashes upgraded by
+ * the password encoder after a successful login.
+ *
+ * When the table is empty at startup, it is given one account from the
+ * spring.security.user properties, with role HR, so that a new installation
+ * can be signed in to as before.
+ */
+@Service
+public class StaffUserDetailsService implements UserDetailsService, UserDetailsPasswordService, InitializingBean {
+
+	private static final Logger log = LoggerFactory.getLogger(StaffUserDetailsService.class);
+
+	@Autowired
+	private StaffUserRepository staffUserRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Value("${spring.security.user.name:}")
+	private String initialUsername;
+
+	@Value("${spring.security.user.password:}")
+	private String initialPassword;
+
+	@Override
+	public void afterPropertiesSet() {
+		if (initialUsername.isBlank() || initialPassword.isBlank() || staffUserRepository.count() > 0)
+			return;
+		staffUserRepository.save(new StaffUser(initialUsername, passwordEncoder.encode(initialPassword), "HR", true));
+		log.info("Created staff user {} from spring.security.user", initialUsername);
+	}
+
+	@Override
+	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		StaffUser user = staffUserRepository.findById(username)
+				.orElseThrow(() -> new UsernameNotFoundException("no staff user " + username));
+		return toUserDetails(user);
+	}
+
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		StaffUser staffUser = staffUserRepository.findById(user.getUsername())
+				.orElseThrow(() -> new UsernameNotFoundException("no staff user " + user.getUsername()));
+		staffUser.setPassword(newPassword);
+		return toUserDetails(staffUserRepository.save(staffUser));
+	}
+
+	private static UserDetails toUserDetails(StaffUser user) {
+		return User.withUsername(user.getUsername()).password(user.getPassword())
+				.roles(user.getRoles().split("\\s*,\\s*")).disabled(!user.isEnabled()).build();
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.workfolio.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import com.workfolio.dto.FieldViolation;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.CustomError;
+import com.workfolio.repository.EmployeeRepositoryCustom;
+
+/**
+ * Checks the hints of NativeHintsConfig against the classes and resources they
+ * name, so a renamed class or a new template is caught without building the
+ * native image.
+ */
+class NativeHintsConfigTest {
+
+	private RuntimeHints hints;
+
+	@BeforeEach
+	void register() {
+		hints = new RuntimeHints();
+		new NativeHintsConfig.WorkFolioRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void everyTypeNamedByTheHintsExists() {
+		List<String> names = hints.reflection().typeHints().map(hint -> hint.getType().getName())
+				.filter(name -> name.startsWith("com.workfolio.")).toList();
+		assertTrue(names.size() > 20);
+		for (String name : names)
+			assertDoesNotThrow(() -> Class.forName(name), name);
+	}
+
+	@Test
+	void modelAndJsonPropertiesAreReachable() {
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(Employee.class, "getName").test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(Employee.class, "setSalary").test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(FieldViolation.class, "getField").test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(CustomError.class, "getFieldErrors").test(hints));
+	}
+
+	@Test
+	void privateRecordsAndQueryResultsAreConstructible() {
+		for (String record : new String[] { "com.workfolio.config.CookieFlashMapManager$Entry",
+				"com.workfolio.service.AuthTokenService$Claims",
+				"com.workfolio.service.EmployeeWriteBehindQueue$Mutation" })
+			assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(record))
+					.withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS)
+					.test(hints), record);
+		assertTrue(RuntimeHintsPredicates.reflection().onType(EmployeeRepositoryCustom.SalaryTotals.class)
+				.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+	}
+
+	@Test
+	void everyTemplateIsAResourceOfTheImage() throws Exception {
+		Resource[] templates = new PathMatchingResourcePatternResolver().getResources("classpath:templates/*.html");
+		assertTrue(templates.length > 0);
+		for (Resource template : templates)
+			assertTrue(RuntimeHintsPredicates.resource().forResource("templates/" + template.getFilename())
+					.test(hints), template.getFilename());
+	}
+
+	@Test
+	void limitedConnectionProxyIsRegistered() {
+		assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+	}
+}
@@ -0,0 +1,119 @@
+package com.workfolio.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaRoutingDataSourceTest {
+
+	private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+
+	private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+	private JdbcTemplate primary;
+
+	private JdbcTemplate replica;
+
+	private ReadReplicaConfig.ReplicaRouting routing;
+
+	private JdbcTemplate routed;
+
+	private TransactionTemplate readWrite;
+
+	private TransactionTemplate readOnly;
+
+	@BeforeEach
+	void start() throws InterruptedException {
+		primary = new JdbcTemplate(h2(PRIMARY_URL));
+		replica = new JdbcTemplate(h2(REPLICA_URL));
+		for (JdbcTemplate db : new JdbcTemplate[] { primary, replica }) {
+			db.execute("create table marker (name varchar(10))");
+			db.execute("create table replica_lag (lag double)");
+			db.update("insert into replica_lag values (0)");
+		}
+		primary.update("insert into marker values ('primary')");
+		replica.update("insert into marker values ('replica')");
+
+		routing = ReadReplicaConfig.replicaRouting(new String[] { REPLICA_URL }, "sa", "", "", 2,
+				Duration.ofMillis(20), Duration.ofSeconds(2), "select lag from replica_lag");
+		DataSource dataSource = (DataSource) routing.postProcessAfterInitialization(h2(PRIMARY_URL), "dataSource");
+		routed = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		awaitReadsFrom("replica");
+	}
+
+	@AfterEach
+	void stop() {
+		routing.destroy();
+		primary.execute("drop all objects");
+		replica.execute("drop all objects");
+	}
+
+	@Test
+	void readOnlyTransactionsGoToTheReplicaAndTheRestToThePrimary() {
+		assertEquals("replica", readOnly.execute(status -> database()));
+		assertEquals("primary", readWrite.execute(status -> database()));
+		// outside a transaction
+		assertEquals("primary", database());
+
+		readWrite.executeWithoutResult(status -> routed.update("insert into marker values ('written')"));
+		assertEquals(1, count(primary, "written"));
+		assertEquals(0, count(replica, "written"));
+	}
+
+	@Test
+	void readsGoToThePrimaryWhileTheReplicaLags() throws InterruptedException {
+		replica.update("update replica_lag set lag = 5");
+		awaitReadsFrom("primary");
+
+		replica.update("update replica_lag set lag = 1");
+		awaitReadsFrom("replica");
+	}
+
+	@Test
+	void readsGoToThePrimaryWhileTheReplicaFailsItsCheck() throws InterruptedException {
+		replica.execute("drop table replica_lag");
+		awaitReadsFrom("primary");
+
+		replica.execute("create table replica_lag (lag double)");
+		replica.update("insert into replica_lag values (0)");
+		awaitReadsFrom("replica");
+	}
+
+	private String database() {
+		return routed.queryForObject("select name from marker where name <> 'written'", String.class);
+	}
+
+	private void awaitReadsFrom(String expected) throws InterruptedException {
+		Supplier<String> read = () -> readOnly.execute(status -> database());
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (!expected.equals(read.get()) && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertEquals(expected, read.get());
+	}
+
+	private static int count(JdbcTemplate db, String name) {
+		return db.queryForObject("select count(*) from marker where name = ?", Integer.class, name);
+	}
+
+	private static DataSource h2(String url) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(url);
+		dataSource.setUser("sa");
+		return dataSource;
+	}
+}
@@ -0,0 +1,61 @@
+package com.workfolio.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.workfolio.WorkFolioApplication;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest(classes = WorkFolioApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:stateless;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"workfolio.session.stateless=true", "workfolio.session.secret=test-secret" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatelessLoginTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void formLoginSetsACookieThatAuthenticatesWithoutASession() throws Exception {
+		MvcResult login = mockMvc.perform(formLogin().user("user").password("1234"))
+				.andExpect(status().is3xxRedirection()).andReturn();
+		Cookie cookie = login.getResponse().getCookie("WORKFOLIO_LOGIN");
+		assertNotNull(cookie);
+		assertNull(login.getRequest().getSession(false));
+
+		MvcResult home = mockMvc.perform(get("/home").cookie(cookie)).andExpect(status().isOk()).andReturn();
+		assertNull(home.getRequest().getSession(false));
+	}
+
+	@Test
+	void requestWithoutTheCookieIsSentToTheLoginPage() throws Exception {
+		mockMvc.perform(get("/home").accept(MediaType.TEXT_HTML)).andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrlPattern("**/login"));
+	}
+
+	@Test
+	void wrongPasswordSetsNoCookie() throws Exception {
+		MvcResult login = mockMvc.perform(formLogin().user("user").password("wrong"))
+				.andExpect(status().is3xxRedirection()).andReturn();
+		Cookie cookie = login.getResponse().getCookie("WORKFOLIO_LOGIN");
+		// at most the removal of a previous login cookie
+		assertTrue(cookie == null || cookie.getMaxAge() == 0);
+		assertNull(login.getRequest().getSession(false));
+	}
+}
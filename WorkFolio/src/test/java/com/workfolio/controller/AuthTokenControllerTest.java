@@ -0,0 +1,142 @@
+package com.workfolio.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.config.CachingAuthenticationProvider;
+import com.workfolio.service.AuthTokenService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(classes = WorkFolioApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:authtoken;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"workfolio.auth.token.enabled=true", "workfolio.session.secret=" + AuthTokenControllerTest.SECRET })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthTokenControllerTest {
+
+	static final String SECRET = "test-secret";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CachingAuthenticationProvider authenticationProvider;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void passwordIsTradedForATokenThatAuthenticatesTheApi() throws Exception {
+		String token = issue();
+
+		mockMvc.perform(get("/api/employees").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void tokenCannotBeTradedForANewOne() throws Exception {
+		String token = issue();
+
+		mockMvc.perform(post("/api/auth/token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isUnauthorized())
+				.andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"Realm\""));
+	}
+
+	@Test
+	void tamperedTokenIsRejected() throws Exception {
+		String token = issue();
+		int dot = token.indexOf('.');
+		String claims = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+		String forged = ENCODER.encodeToString(claims.replace("\"user\"", "\"admin\"").getBytes(StandardCharsets.UTF_8))
+				+ token.substring(dot);
+
+		assertRejected(forged);
+	}
+
+	@Test
+	void expiredTokenIsRejected() throws Exception {
+		String expired = new AuthTokenService(SECRET, Duration.ofSeconds(-1))
+				.issue(UsernamePasswordAuthenticationToken.authenticated("user", null,
+						AuthorityUtils.createAuthorityList("ROLE_USER")))
+				.getToken();
+
+		assertRejected(expired);
+	}
+
+	@Test
+	void valueSignedWithTheSecretItselfIsNotAToken() throws Exception {
+		// as the flash cookie used to be signed
+		String payload = ENCODER.encodeToString(("{\"sub\":\"user\",\"auth\":[\"ROLE_USER\"],\"exp\":"
+				+ Instant.now().plusSeconds(3600).getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8));
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+
+		assertRejected(payload + "." + ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII))));
+	}
+
+	@Test
+	void verifiedCredentialsAreCachedButDoNotLetAnotherPasswordIn() throws Exception {
+		authenticationProvider.evict("user");
+		double hits = credentialCacheGets("hit");
+		double misses = credentialCacheGets("miss");
+
+		mockMvc.perform(get("/api/employees").with(httpBasic("user", "1234"))).andExpect(status().isOk());
+		assertEquals(misses + 1, credentialCacheGets("miss"));
+		assertEquals(hits, credentialCacheGets("hit"));
+
+		mockMvc.perform(get("/api/employees").with(httpBasic("user", "1234"))).andExpect(status().isOk());
+		assertEquals(hits + 1, credentialCacheGets("hit"));
+
+		mockMvc.perform(get("/api/employees").with(httpBasic("user", "wrong"))).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/employees").with(httpBasic("user", "1234"))).andExpect(status().isOk());
+	}
+
+	private String issue() throws Exception {
+		String body = mockMvc.perform(post("/api/auth/token").with(httpBasic("user", "1234")))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).get("token").asText();
+	}
+
+	private void assertRejected(String token) throws Exception {
+		String challenge = mockMvc.perform(get("/api/employees").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isUnauthorized()).andReturn().getResponse()
+				.getHeader(HttpHeaders.WWW_AUTHENTICATE);
+		assertTrue(challenge.startsWith("Bearer"), challenge);
+	}
+
+	private double credentialCacheGets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "verifiedCredentials").tag("result", result)
+				.functionCounter().count();
+	}
+}
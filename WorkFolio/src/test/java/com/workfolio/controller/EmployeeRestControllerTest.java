@@ -0,0 +1,147 @@
+package com.workfolio.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.entity.Employee;
+import com.workfolio.repository.ChangeSequenceRepository;
+import com.workfolio.service.EmployeeChangeTracker;
+import com.workfolio.service.EmployeeFeedSequencer;
+import com.workfolio.service.EmployeeService;
+
+@SpringBootTest(classes = WorkFolioApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class EmployeeRestControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EmployeeFeedSequencer feedSequencer;
+
+	@Autowired
+	private EmployeeChangeTracker changeTracker;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@SpyBean
+	private ChangeSequenceRepository sequenceRepository;
+
+	@Test
+	void listIsTaggedOnceWithTheVersionItWasReadAt() throws Exception {
+		feedSequencer.sequence();
+		String stale = "W/\"" + (changeTracker.current().getLastValue() - 1) + "\"";
+
+		MockHttpServletResponse response = mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, stale))
+				.andExpect(status().isOk()).andReturn().getResponse();
+		assertEquals(1, response.getHeaders(HttpHeaders.ETAG).size());
+		assertEquals("W/\"" + changeTracker.current().getLastValue() + "\"", response.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void listIsNotModifiedUntilAnyNodeWrites() throws Exception {
+		feedSequencer.sequence();
+		String etag = mockMvc.perform(get("/api/employees")).andExpect(status().isOk()).andReturn().getResponse()
+				.getHeader(HttpHeaders.ETAG);
+
+		clearInvocations(sequenceRepository);
+		mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		// answered from the version kept in memory
+		verify(sequenceRepository, never()).findById(any());
+
+		// a write committed and sequenced by another node
+		jdbcTemplate.update("insert into employee_history (employee_id, operation, changed_at, version, name) "
+				+ "values (?, 'INSERT', ?, 0, 'Other Node')", -7, Timestamp.from(Instant.now()));
+		feedSequencer.sequence();
+
+		mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+	}
+
+	@Test
+	void patchOfAnOutdatedVersionIsAConflict() throws Exception {
+		Employee e = new Employee();
+		e.setName("Patched Employee");
+		e.setEmail("patched@workfolio.com");
+		e.setPhone("9000000000");
+		e.setSalary(10000.0);
+		employeeService.addEmployee(e);
+		Long version = employeeService.getEmployeeById(e.getId()).getVersion();
+		String etag = "W/\"" + version + "\"";
+
+		mockMvc.perform(patch("/api/employees/" + e.getId()).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"salary\": 20000}")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"" + (version + 1) + "\""));
+
+		mockMvc.perform(patch("/api/employees/" + e.getId()).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"salary\": 30000}"))
+				.andExpect(status().isConflict());
+		assertEquals(20000.0, employeeService.getEmployeeById(e.getId()).getSalary());
+	}
+
+	@Test
+	void invalidEmployeeIsAnsweredWithEveryRejectedField() throws Exception {
+		mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"\", \"email\": \"not-an-email\", \"phone\": \"123\", \"salary\": 10}"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.fieldErrors.length()").value(4))
+				// a missing value is reported as such, not also as too short
+				.andExpect(jsonPath("$.fieldErrors[0].field").value("name"))
+				.andExpect(jsonPath("$.fieldErrors[0].message").value("Invalid Employee Name"))
+				.andExpect(jsonPath("$.fieldErrors[1].field").value("email"))
+				.andExpect(jsonPath("$.fieldErrors[1].message").value("Invalid Email"))
+				.andExpect(jsonPath("$.fieldErrors[2].field").value("phone"))
+				.andExpect(jsonPath("$.fieldErrors[2].message")
+						.value("please provide a valid phone number without country code"))
+				.andExpect(jsonPath("$.fieldErrors[3].field").value("salary"))
+				.andExpect(jsonPath("$.fieldErrors[3].message").value("Salary must be at least 5000"));
+	}
+
+	@Test
+	void invalidPatchIsAnsweredWithOnlyTheRejectedFields() throws Exception {
+		Employee e = new Employee();
+		e.setName("Invalid Patch");
+		e.setEmail("invalid.patch@workfolio.com");
+		e.setPhone("9000000000");
+		e.setSalary(10000.0);
+		employeeService.addEmployee(e);
+
+		mockMvc.perform(patch("/api/employees/" + e.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"Still Valid\", \"salary\": 10}")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.fieldErrors.length()").value(1))
+				.andExpect(jsonPath("$.fieldErrors[0].field").value("salary"))
+				.andExpect(jsonPath("$.fieldErrors[0].message").value("Salary must be at least 5000"));
+		assertEquals("Invalid Patch", employeeService.getEmployeeById(e.getId()).getName());
+	}
+}
@@ -0,0 +1,121 @@
+package com.workfolio.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.exception.EmployeeConflictException;
+import com.workfolio.exception.EmployeeException;
+import com.workfolio.service.EmployeeIdAllocator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks the status and body each kind of failure is answered with by the
+ * GlobalExceptionHandler, and that every error response is counted.
+ */
+@SpringBootTest(classes = WorkFolioApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:errors;MODE=MySQL;DB_CLOSE_DELAY=-1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class ErrorResponseTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@SpyBean
+	private EmployeeIdAllocator idAllocator;
+
+	@AfterEach
+	void resetAllocator() {
+		reset(allocator());
+	}
+
+	@Test
+	void unreadableRequestIsABadRequest() throws Exception {
+		double before = errors("validation", 400);
+
+		mockMvc.perform(addEmployee("{\"name\": ")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/employees/not-a-number")).andExpect(status().isBadRequest());
+
+		assertEquals(before + 2, errors("validation", 400));
+	}
+
+	@Test
+	void unknownEmployeeIsNotFound() throws Exception {
+		mockMvc.perform(get("/api/employees/987654")).andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.message").value("no employee found with that id : 987654"))
+				.andExpect(jsonPath("$.fieldErrors").doesNotExist());
+	}
+
+	@Test
+	void duplicateEmailIsAConflict() throws Exception {
+		mockMvc.perform(addEmployee(employee("twice@workfolio.com"))).andExpect(status().isCreated());
+		double before = errors("conflict", 409);
+
+		mockMvc.perform(addEmployee(employee("twice@workfolio.com"))).andExpect(status().isConflict())
+				.andExpect(jsonPath("$.message").value(EmployeeConflictException.DUPLICATE_EMAIL.getMessage()));
+
+		assertEquals(before + 1, errors("conflict", 409));
+	}
+
+	@Test
+	void employeeThatCannotBeServedNowIsUnavailable() throws Exception {
+		doThrow(new EmployeeException("no employee ids left to allocate")).when(allocator()).nextId();
+
+		mockMvc.perform(addEmployee(employee("no.ids@workfolio.com"))).andExpect(status().isServiceUnavailable())
+				.andExpect(jsonPath("$.message").value("no employee ids left to allocate"));
+	}
+
+	@Test
+	void unexpectedFailureIsAnInternalServerError() throws Exception {
+		doThrow(new IllegalStateException("allocator broken")).when(allocator()).nextId();
+		double before = errors("unexpected", 500);
+
+		mockMvc.perform(addEmployee(employee("broken@workfolio.com"))).andExpect(status().isInternalServerError());
+
+		assertEquals(before + 1, errors("unexpected", 500));
+	}
+
+	private EmployeeIdAllocator allocator() {
+		return AopTestUtils.getUltimateTargetObject(idAllocator);
+	}
+
+	private double errors(String type, int status) {
+		Counter counter = meterRegistry.find("workfolio.errors").tag("type", type)
+				.tag("status", Integer.toString(status)).counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	private static MockHttpServletRequestBuilder addEmployee(String body) {
+		return post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(body);
+	}
+
+	private static String employee(String email) {
+		return "{\"name\": \"Error Case\", \"email\": \"" + email
+				+ "\", \"phone\": \"9000000000\", \"salary\": 10000}";
+	}
+}
@@ -0,0 +1,68 @@
+package com.workfolio.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.workfolio.dto.EmployeeCursor.SortColumn;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeValidationException;
+
+class EmployeeCursorTest {
+
+	@Test
+	void idCursorRoundTrips() throws Exception {
+		EmployeeCursor cursor = new EmployeeCursor(SortColumn.id, null, 42);
+
+		EmployeeCursor decoded = EmployeeCursor.decode(cursor.encode());
+
+		assertEquals(cursor, decoded);
+		assertNull(decoded.getValue());
+	}
+
+	@Test
+	void nameCursorRoundTripsNamesWithSeparatorsAndAccents() throws Exception {
+		EmployeeCursor cursor = new EmployeeCursor(SortColumn.name, "Zoë: O'Neil:Jr", 7);
+
+		assertEquals(cursor, EmployeeCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void salaryCursorRoundTrips() throws Exception {
+		Employee e = new Employee();
+		e.setId(9);
+		e.setSalary(12345.5);
+		EmployeeCursor cursor = EmployeeCursor.of(SortColumn.salary, e);
+
+		EmployeeCursor decoded = EmployeeCursor.decode(cursor.encode());
+
+		assertEquals(SortColumn.salary, decoded.getSort());
+		assertEquals(12345.5, decoded.getValue());
+		assertEquals(9, decoded.getId());
+	}
+
+	@Test
+	void encodedCursorIsUrlSafe() {
+		String token = new EmployeeCursor(SortColumn.name, "a/b+c?d", 1).encode();
+
+		assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		assertThrows(EmployeeValidationException.class, () -> EmployeeCursor.decode("%%%"));
+		assertThrows(EmployeeValidationException.class, () -> EmployeeCursor.decode(encode("unknown:1:x")));
+		assertThrows(EmployeeValidationException.class, () -> EmployeeCursor.decode(encode("id:x:")));
+		assertThrows(EmployeeValidationException.class, () -> EmployeeCursor.decode(encode("salary:1:abc")));
+		assertThrows(EmployeeValidationException.class, () -> EmployeeCursor.decode(encode("name")));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
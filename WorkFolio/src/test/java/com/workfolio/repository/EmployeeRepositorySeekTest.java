@@ -0,0 +1,112 @@
+package com.workfolio.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeCursor.SortColumn;
+import com.workfolio.entity.Employee;
+
+/**
+ * Pages through employees whose names and salaries repeat, forward and
+ * backward, and checks every employee is read exactly once and in order.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class EmployeeRepositorySeekTest {
+
+	private static final int EMPLOYEES = 23;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@BeforeEach
+	void insertEmployees() {
+		List<Employee> employees = new ArrayList<>();
+		for (int i = 1; i <= EMPLOYEES; i++) {
+			Employee e = new Employee();
+			e.setId(i);
+			// three names and four salaries, interleaved so that ties span pages
+			e.setName(new String[] { "Asha", "Bruno", "Chen" }[i % 3]);
+			e.setSalary(5000.0 + 1000 * (i % 4));
+			e.setEmail("employee" + i + "@workfolio.com");
+			e.setPhone("9000000000");
+			employees.add(e);
+		}
+		employeeRepository.saveAllAndFlush(employees);
+	}
+
+	@Test
+	void forwardPagesFollowSortOrderWithTies() {
+		for (SortColumn sort : SortColumn.values())
+			for (int size : new int[] { 1, 2, 3, 5, EMPLOYEES })
+				assertEquals(expectedOrder(sort), readForward(sort, size), sort + " pages of " + size);
+	}
+
+	@Test
+	void backwardPagesFollowSortOrderWithTies() {
+		for (SortColumn sort : SortColumn.values())
+			for (int size : new int[] { 1, 2, 3, 5, EMPLOYEES })
+				assertEquals(expectedOrder(sort), readBackward(sort, size), sort + " pages of " + size);
+	}
+
+	@Test
+	void backwardFromAForwardPageReturnsThePreviousPage() {
+		List<Employee> first = employeeRepository.findBySeek(SortColumn.salary, null, false, 4);
+		List<Employee> second = employeeRepository.findBySeek(SortColumn.salary,
+				EmployeeCursor.of(SortColumn.salary, first.get(first.size() - 1)), false, 4);
+
+		List<Employee> previous = employeeRepository.findBySeek(SortColumn.salary,
+				EmployeeCursor.of(SortColumn.salary, second.get(0)), true, 4);
+
+		assertEquals(ids(first), ids(previous));
+	}
+
+	private List<Integer> readForward(SortColumn sort, int size) {
+		List<Integer> ids = new ArrayList<>();
+		EmployeeCursor cursor = null;
+		List<Employee> page;
+		do {
+			page = employeeRepository.findBySeek(sort, cursor, false, size);
+			ids.addAll(ids(page));
+			if (!page.isEmpty())
+				cursor = EmployeeCursor.of(sort, page.get(page.size() - 1));
+		} while (page.size() == size);
+		return ids;
+	}
+
+	private List<Integer> readBackward(SortColumn sort, int size) {
+		List<Integer> ids = new ArrayList<>();
+		EmployeeCursor cursor = null;
+		List<Employee> page;
+		do {
+			page = employeeRepository.findBySeek(sort, cursor, true, size);
+			ids.addAll(0, ids(page));
+			if (!page.isEmpty())
+				cursor = EmployeeCursor.of(sort, page.get(0));
+		} while (page.size() == size);
+		return ids;
+	}
+
+	private List<Integer> expectedOrder(SortColumn sort) {
+		Comparator<Employee> order = switch (sort) {
+		case id -> Comparator.comparing(Employee::getId);
+		case name -> Comparator.comparing(Employee::getName).thenComparing(Employee::getId);
+		case salary -> Comparator.comparing(Employee::getSalary).thenComparing(Employee::getId);
+		};
+		return ids(employeeRepository.findAll().stream().sorted(order).toList());
+	}
+
+	private static List<Integer> ids(List<Employee> employees) {
+		return employees.stream().map(Employee::getId).toList();
+	}
+}
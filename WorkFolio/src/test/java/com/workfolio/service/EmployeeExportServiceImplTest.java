@@ -0,0 +1,105 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.service.EmployeeExportService.Column;
+import com.workfolio.service.EmployeeExportService.Format;
+
+@SpringBootTest(classes = WorkFolioApplication.class, properties = {
+		// a database of its own, so the export holds only the employees written here
+		"spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DB_CLOSE_DELAY=-1", "workfolio.export.fetch-size=100" })
+@ActiveProfiles("test")
+class EmployeeExportServiceImplTest {
+
+	private static final int ROWS = 3000;
+
+	@Autowired
+	private EmployeeExportService exportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		if (jdbcTemplate.queryForObject("select count(*) from employee", Integer.class) > 0)
+			return;
+		jdbcTemplate.update("insert into department (name) values ('Exports')");
+		int departmentId = departmentId();
+		List<Object[]> rows = new ArrayList<>();
+		for (int id = 1; id <= ROWS; id++)
+			rows.add(new Object[] { id, "Employee " + id, "export" + id + "@workfolio.com", "9000000000",
+					id == 1 ? "Main Street, 1" : null, 10000.0 + id, id == 1 ? null : 1,
+					id % 2 == 0 ? departmentId : null });
+		jdbcTemplate.batchUpdate("insert into employee (id, name, email, phone, address, salary, version, "
+				+ "manager_id, department_id) values (?, ?, ?, ?, ?, ?, 0, ?, ?)", rows);
+	}
+
+	@Test
+	void everyColumnIsExportedByDefault() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertEquals(ROWS, exportService.exportEmployees(out, Format.CSV, null));
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals(ROWS + 1, lines.length);
+		assertEquals("id,name,email,phone,address,salary,managerId,departmentId", lines[0]);
+		assertEquals("1,Employee 1,export1@workfolio.com,9000000000,\"Main Street, 1\",10001.0,,", lines[1]);
+		assertEquals("2,Employee 2,export2@workfolio.com,9000000000,,10002.0,1," + departmentId(), lines[2]);
+	}
+
+	@Test
+	void onlyTheRequestedColumnsAreExportedInTheirOrder() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		exportService.exportEmployees(out, Format.CSV,
+				List.of(Column.departmentId, Column.id, Column.managerId, Column.id));
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals("departmentId,id,managerId", lines[0]);
+		assertEquals(departmentId() + ",2,1", lines[2]);
+	}
+
+	@Test
+	void rowsAreWrittenAsTheyAreRead() {
+		// a client that goes away once the first block of rows has reached it
+		List<Integer> written = new ArrayList<>();
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (!written.isEmpty())
+					throw new IOException("connection reset");
+				written.add(len);
+			}
+		};
+
+		assertThrows(IOException.class, () -> exportService.exportEmployees(out, Format.CSV, null));
+		// the first block was sent before the whole table was read
+		assertTrue(written.get(0) < ROWS * 60);
+	}
+
+	private int departmentId() {
+		return jdbcTemplate.queryForObject("select id from department where name = 'Exports'", Integer.class);
+	}
+}
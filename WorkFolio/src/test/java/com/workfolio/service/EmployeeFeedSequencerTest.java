@@ -0,0 +1,118 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.dto.EmployeeChange;
+import com.workfolio.dto.EmployeeChangeFeed;
+import com.workfolio.entity.Employee;
+
+@SpringBootTest(classes = WorkFolioApplication.class)
+@ActiveProfiles("test")
+class EmployeeFeedSequencerTest {
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private EmployeeHistoryService historyService;
+
+	@Autowired
+	private EmployeeFeedSequencer feedSequencer;
+
+	@Autowired
+	private EmployeeChangeTracker changeTracker;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void changeCommittedAfterALaterOneIsNotSkipped() throws Exception {
+		feedSequencer.sequence();
+		long start = lastPosition();
+
+		CountDownLatch recorded = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s -> {
+			jdbcTemplate.update("insert into employee_history (employee_id, operation, changed_at, version, name) "
+					+ "values (?, 'INSERT', ?, 0, 'Slow Writer')", -42, Timestamp.from(Instant.now()));
+			recorded.countDown();
+			await(release);
+		}));
+		assertTrue(recorded.await(10, TimeUnit.SECONDS));
+
+		// a later change commits, and is read, while the first is still open
+		Employee fast = EmployeeServiceImplTest.employee(null, "fast.writer@workfolio.com");
+		employeeService.addEmployee(fast);
+		feedSequencer.sequence();
+		EmployeeChangeFeed first = historyService.getChanges(start, 1000);
+		assertEquals(List.of(fast.getId()), employeeIds(first));
+
+		release.countDown();
+		slow.get(10, TimeUnit.SECONDS);
+		feedSequencer.sequence();
+
+		EmployeeChangeFeed second = historyService.getChanges(first.getNext(), 1000);
+		assertEquals(List.of(-42), employeeIds(second));
+		assertTrue(second.getNext() > first.getNext());
+	}
+
+	@Test
+	void writeIsSequencedOffItsThread() throws Exception {
+		feedSequencer.sequence();
+		long before = changeTracker.current().getLastValue();
+
+		// a run in progress, which the write must not wait for
+		synchronized (feedSequencer) {
+			Employee e = EmployeeServiceImplTest.employee(null, "signalled.writer@workfolio.com");
+			CompletableFuture.runAsync(() -> {
+				try {
+					employeeService.addEmployee(e);
+				} catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			}).get(10, TimeUnit.SECONDS);
+			assertEquals(before, changeTracker.current().getLastValue());
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (changeTracker.current().getLastValue() == before && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertTrue(changeTracker.current().getLastValue() > before);
+	}
+
+	private long lastPosition() {
+		Long last = jdbcTemplate.queryForObject("select max(feed_seq) from employee_history", Long.class);
+		return last == null ? 0 : last;
+	}
+
+	private static List<Integer> employeeIds(EmployeeChangeFeed feed) {
+		return feed.getChanges().stream().map(EmployeeChange::getEmployee).map(Employee::getId).toList();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
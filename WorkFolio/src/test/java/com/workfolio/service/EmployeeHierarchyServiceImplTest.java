@@ -0,0 +1,188 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.dto.TeamStatistics;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeConflictException;
+
+@SpringBootTest(classes = WorkFolioApplication.class)
+@ActiveProfiles("test")
+class EmployeeHierarchyServiceImplTest {
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private EmployeeHierarchyService hierarchyService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void addedEmployeesAreIndexedUnderTheirManagers() throws Exception {
+		Employee top = add("added.top", null, 30000.0);
+		Employee manager = add("added.manager", top.getId(), 20000.0);
+		Employee report = add("added.report", manager.getId(), 10000.0);
+
+		assertEquals(List.of(top.getId(), manager.getId()), ids(hierarchyService.getChainOfCommand(report.getId())));
+		assertEquals(List.of(manager.getId(), report.getId()), ids(hierarchyService.getReports(top.getId(), null, 10)));
+		assertTrue(hierarchyService.reportsTo(report.getId(), top.getId()));
+		assertFalse(hierarchyService.reportsTo(top.getId(), report.getId()));
+	}
+
+	@Test
+	void employeesAddedTogetherCannotReportToEachOther() {
+		Employee first = moved(-101, -102);
+		Employee second = moved(-102, -101);
+
+		assertThrows(DataIntegrityViolationException.class, () -> transactionTemplate
+				.executeWithoutResult(status -> hierarchyService.recordAdded(List.of(first, second))));
+	}
+
+	@Test
+	void moveCarriesTheWholeSubtreeAndRefusesCycles() throws Exception {
+		Employee top = add("moved.top", null, 30000.0);
+		Employee manager = add("moved.manager", top.getId(), 20000.0);
+		Employee report = add("moved.report", manager.getId(), 10000.0);
+		Employee other = add("moved.other", null, 40000.0);
+
+		employeeService.updateEmployee(moved(manager.getId(), other.getId()));
+
+		assertEquals(List.of(other.getId(), manager.getId()), ids(hierarchyService.getChainOfCommand(report.getId())));
+		assertFalse(hierarchyService.hasReports(top.getId()));
+		EmployeeConflictException ex = assertThrows(EmployeeConflictException.class,
+				() -> employeeService.updateEmployee(moved(other.getId(), report.getId())));
+		assertSame(EmployeeConflictException.REPORTS_CYCLE, ex);
+		assertEquals(List.of(other.getId()), transactionTemplate
+				.execute(status -> hierarchyService.recordMoved(List.of(moved(other.getId(), report.getId())))));
+	}
+
+	@Test
+	void concurrentMovesCannotMakeACycle() throws Exception {
+		Employee a = add("cycle.a", null, 10000.0);
+		Employee aReport = add("cycle.a.report", a.getId(), 10000.0);
+		Employee b = add("cycle.b", null, 10000.0);
+		Employee bReport = add("cycle.b.report", b.getId(), 10000.0);
+
+		// each move is valid on its own, but together they would make a cycle
+		CountDownLatch moved = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<List<Integer>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(s -> {
+			List<Integer> refused = hierarchyService.recordMoved(List.of(moved(a.getId(), bReport.getId())));
+			moved.countDown();
+			await(release);
+			return refused;
+		}));
+		assertTrue(moved.await(10, TimeUnit.SECONDS));
+		CompletableFuture<List<Integer>> second = CompletableFuture.supplyAsync(() -> transactionTemplate
+				.execute(s -> hierarchyService.recordMoved(List.of(moved(b.getId(), aReport.getId())))));
+		Thread.sleep(200);
+		release.countDown();
+
+		assertEquals(List.of(), first.get(10, TimeUnit.SECONDS));
+		assertEquals(List.of(b.getId()), second.get(10, TimeUnit.SECONDS));
+		assertEquals(List.of(b.getId(), bReport.getId(), a.getId()),
+				ids(hierarchyService.getChainOfCommand(aReport.getId())));
+	}
+
+	@Test
+	void employeeAddedWhileItsManagerMovesIsIndexedAtTheNewPlace() throws Exception {
+		Employee top = add("racing.top", null, 10000.0);
+		Employee other = add("racing.other", null, 10000.0);
+		Employee manager = add("racing.manager", top.getId(), 10000.0);
+
+		CountDownLatch moved = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> move = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s -> {
+			hierarchyService.recordMoved(List.of(moved(manager.getId(), other.getId())));
+			moved.countDown();
+			await(release);
+		}));
+		assertTrue(moved.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Employee> report = CompletableFuture.supplyAsync(() -> {
+			try {
+				return add("racing.report", manager.getId(), 10000.0);
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		Thread.sleep(200);
+		release.countDown();
+		move.get(10, TimeUnit.SECONDS);
+
+		assertEquals(List.of(other.getId(), manager.getId()),
+				ids(hierarchyService.getChainOfCommand(report.get(10, TimeUnit.SECONDS).getId())));
+	}
+
+	@Test
+	void onlyEmployeesWithoutReportsLeaveTheHierarchy() throws Exception {
+		Employee manager = add("deleted.manager", null, 20000.0);
+		Employee report = add("deleted.report", manager.getId(), 10000.0);
+
+		assertThrows(DataIntegrityViolationException.class, () -> transactionTemplate
+				.executeWithoutResult(status -> hierarchyService.recordDeleted(List.of(manager.getId()))));
+		assertTrue(hierarchyService.hasReports(manager.getId()));
+
+		employeeService.deleteEmployee(report.getId());
+		assertFalse(hierarchyService.hasReports(manager.getId()));
+		employeeService.deleteEmployee(manager.getId());
+	}
+
+	@Test
+	void teamStatisticsAggregateTheWholeSubtree() throws Exception {
+		Employee top = add("team.top", null, 50000.0);
+		Employee manager = add("team.manager", top.getId(), 30000.0);
+		add("team.report", manager.getId(), 20000.0);
+		add("team.other.report", manager.getId(), 15000.0);
+
+		TeamStatistics team = hierarchyService.getTeamStatistics(manager.getId());
+		assertEquals(3, team.getHeadcount());
+		assertEquals(65000.0, team.getPayroll());
+		assertEquals(4, hierarchyService.getTeamStatistics(top.getId()).getHeadcount());
+	}
+
+	private Employee add(String name, Integer managerId, double salary) throws Exception {
+		Employee e = EmployeeServiceImplTest.employee(null, name + "@workfolio.com");
+		e.setManagerId(managerId);
+		e.setSalary(salary);
+		employeeService.addEmployee(e);
+		return e;
+	}
+
+	private static Employee moved(int id, int managerId) {
+		Employee e = new Employee();
+		e.setId(id);
+		e.setManagerId(managerId);
+		return e;
+	}
+
+	private static List<Integer> ids(List<Employee> employees) {
+		return employees.stream().map(Employee::getId).toList();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.repository.EmployeeRepository;
+
+@SpringBootTest(classes = WorkFolioApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:idallocator;MODE=MySQL;DB_CLOSE_DELAY=-1", "workfolio.id.block-size=10" })
+@ActiveProfiles("test")
+class EmployeeIdAllocatorTest {
+
+	private static final int BLOCK_SIZE = 10;
+
+	@Autowired
+	private EmployeeIdAllocator idAllocator;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private AutowireCapableBeanFactory beanFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void restartedAllocatorContinuesAfterTheReservedBlocks() throws Exception {
+		idAllocator.nextId();
+		long reserved = nextValue();
+
+		// a restarted node has no block in memory and must not reuse any reserved id
+		EmployeeIdAllocator restarted = beanFactory.createBean(EmployeeIdAllocator.class);
+		assertEquals(reserved, restarted.nextId());
+		assertEquals(reserved + 1, restarted.nextId());
+		assertEquals(reserved + BLOCK_SIZE, nextValue());
+
+		// the running allocator keeps assigning its own block from memory
+		int own = idAllocator.nextId();
+		assertTrue(own < reserved || own >= reserved + BLOCK_SIZE);
+	}
+
+	@Test
+	void firstBlockStartsAfterTheHighestEmployeeId() throws Exception {
+		jdbcTemplate.update("delete from id_block");
+
+		EmployeeIdAllocator fresh = beanFactory.createBean(EmployeeIdAllocator.class);
+		long start = employeeRepository.findMaxId() + 1;
+		assertEquals(start, fresh.nextId());
+		assertEquals(start + BLOCK_SIZE, nextValue());
+	}
+
+	@Test
+	void concurrentCallersOnSeveralNodesReceiveDistinctIds() throws Exception {
+		int nodes = 3;
+		int threadsPerNode = 4;
+		int idsPerThread = 50;
+
+		List<EmployeeIdAllocator> allocators = new ArrayList<>();
+		for (int n = 0; n < nodes; n++)
+			allocators.add(beanFactory.createBean(EmployeeIdAllocator.class));
+
+		Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(nodes * threadsPerNode);
+		try {
+			List<Future<?>> callers = new ArrayList<>();
+			for (EmployeeIdAllocator allocator : allocators)
+				for (int t = 0; t < threadsPerNode; t++)
+					callers.add(executor.submit(() -> {
+						start.await();
+						for (int i = 0; i < idsPerThread; i++)
+							ids.add(allocator.nextId());
+						return null;
+					}));
+			start.countDown();
+			for (Future<?> caller : callers)
+				caller.get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(nodes * threadsPerNode * idsPerThread, ids.size());
+	}
+
+	private long nextValue() {
+		return jdbcTemplate.queryForObject("select next_value from id_block where name = 'employee'", Long.class);
+	}
+}
@@ -0,0 +1,138 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.dto.ImportReport;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.repository.EmployeeRepository;
+
+@SpringBootTest(classes = WorkFolioApplication.class, properties = {
+		"spring.datasource.url=jdbc:h2:mem:import;MODE=MySQL;DB_CLOSE_DELAY=-1", "workfolio.import.chunk-size=2" })
+@ActiveProfiles("test")
+class EmployeeImportServiceImplTest {
+
+	@Autowired
+	private EmployeeImportService importService;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@SpyBean
+	private EmployeeHistoryService historyService;
+
+	@Test
+	void badRowsAreReportedAndSkipped() throws Exception {
+		employeeService.addEmployee(EmployeeServiceImplTest.employee(null, "existing@import.com"));
+
+		ImportReport report = importCsv("""
+				name,email,phone,address,salary
+				First Row,first@import.com,9000000001,"Main Street, 1",20000
+
+				Low Salary,low@import.com,9000000002,,100
+				Same Email,FIRST@import.com,9000000003,,20000
+				Existing,existing@import.com,9000000004,,20000
+				Bad Number,bad@import.com,9000000005,,abc
+				Last Row,last@import.com,9000000006,,30000
+				""");
+
+		assertEquals(6, report.getRowsRead());
+		assertEquals(2, report.getImported());
+		Map<Long, String> errors = errors(report);
+		assertEquals(List.of(4L, 5L, 6L, 7L), List.copyOf(errors.keySet()));
+		assertEquals("Salary must be at least 5000", errors.get(4L));
+		assertEquals("the employee email appears more than once in the file", errors.get(5L));
+		assertEquals("the employee already present with that email", errors.get(6L));
+		assertTrue(errors.get(7L).startsWith("unreadable row"), errors.get(7L));
+
+		Employee first = employeeRepository.findByEmail("first@import.com");
+		assertEquals("Main Street, 1", first.getAddress());
+		assertNotNull(employeeRepository.findByEmail("last@import.com"));
+		assertNull(employeeRepository.findByEmail("low@import.com"));
+	}
+
+	@Test
+	void jsonLinesAreImportedLikeCsvRows() throws Exception {
+		ImportReport report = importService.importEmployees(stream("""
+				{"id":5,"name":"Json Row","email":"json@import.com","phone":"9000000007","salary":25000}
+				{"name":"Missing Email","phone":"9000000008","salary":25000}
+				"""), EmployeeImportService.Format.JSONL);
+
+		assertEquals(1, report.getImported());
+		assertEquals(List.of(2L), List.copyOf(errors(report).keySet()));
+		// ids of the file are not kept
+		assertNotEquals(5, employeeRepository.findByEmail("json@import.com").getId());
+	}
+
+	@Test
+	void chunkRejectedByTheDatabaseIsReportedWithoutStoppingTheImport() throws Exception {
+		doAnswer(invocation -> {
+			Collection<Employee> employees = invocation.getArgument(0);
+			if (employees.stream().anyMatch(e -> e.getEmail().startsWith("rejected")))
+				throw new DataIntegrityViolationException("rejected by the database");
+			return invocation.callRealMethod();
+		}).when((EmployeeHistoryService) AopTestUtils.getUltimateTargetObject(historyService))
+				.recordAdded(anyCollection());
+
+		ImportReport report = importCsv("""
+				name,email,phone,address,salary
+				Chunk One,accepted.one@import.com,9000000011,,20000
+				Chunk One,rejected.one@import.com,9000000012,,20000
+				Chunk Two,accepted.two@import.com,9000000013,,20000
+				Chunk Two,accepted.three@import.com,9000000014,,20000
+				""");
+
+		assertEquals(2, report.getImported());
+		Map<Long, String> errors = errors(report);
+		assertEquals(List.of(2L, 3L), List.copyOf(errors.keySet()));
+		assertTrue(errors.get(2L).startsWith("the chunk containing this row was rejected by the database"));
+		// the chunk is rolled back as a whole
+		assertNull(employeeRepository.findByEmail("accepted.one@import.com"));
+		assertNotNull(employeeRepository.findByEmail("accepted.three@import.com"));
+	}
+
+	@Test
+	void csvWithoutHeaderIsRejected() {
+		assertThrows(EmployeeValidationException.class, () -> importCsv("\n\n"));
+	}
+
+	private ImportReport importCsv(String csv) throws Exception {
+		return importService.importEmployees(stream(csv), EmployeeImportService.Format.CSV);
+	}
+
+	private static ByteArrayInputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Map<Long, String> errors(ImportReport report) {
+		return report.getErrors().stream().collect(Collectors.toMap(ImportReport.RowError::getLine,
+				ImportReport.RowError::getMessage, (a, b) -> a, TreeMap::new));
+	}
+}
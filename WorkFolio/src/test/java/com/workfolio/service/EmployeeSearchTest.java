@@ -0,0 +1,151 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.dto.EmployeeCursor;
+import com.workfolio.dto.EmployeeSearchCriteria;
+import com.workfolio.dto.EmployeeSearchResult;
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeValidationException;
+
+/**
+ * Searches employees through EmployeeService and pages through the results
+ * with the cursor of each page. Every test adds its own employees, marked with
+ * a token in their name or address, so the employees added by other tests are
+ * filtered out.
+ */
+@SpringBootTest(classes = WorkFolioApplication.class)
+@ActiveProfiles("test")
+class EmployeeSearchTest {
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Test
+	void namePrefixSearchIsPagedByName() throws Exception {
+		List<Employee> added = addEmployees("prefix", "Quorra", "Quill", "Quorra", "Quill_x", "Quill", "Quell",
+				"Quillax");
+
+		EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+		criteria.setNamePrefix("Quill");
+
+		List<Integer> expected = added.stream().filter(e -> e.getName().startsWith("Quill"))
+				.sorted(Comparator.comparing(Employee::getName).thenComparing(Employee::getId)).map(Employee::getId)
+				.toList();
+		assertEquals(expected, ids(readAll(criteria, EmployeeCursor.SortColumn.name, 2)));
+
+		// LIKE wildcards in the prefix match only themselves
+		criteria.setNamePrefix("Quill_");
+		assertEquals(List.of(added.get(3).getId()), ids(readAll(criteria, EmployeeCursor.SortColumn.name, 2)));
+	}
+
+	@Test
+	void salaryRangeSearchIsPagedBySalary() throws Exception {
+		List<Employee> added = addEmployees("salaryrange", "Alma", "Bode", "Cato", "Dara", "Emil", "Faye", "Gus");
+		double[] salaries = { 9000, 12000, 7000, 12000, 15000, 20000, 12000 };
+		for (int i = 0; i < added.size(); i++) {
+			Employee raise = new Employee();
+			raise.setId(added.get(i).getId());
+			raise.setSalary(salaries[i]);
+			employeeService.updateEmployee(raise);
+			added.get(i).setSalary(salaries[i]);
+		}
+
+		EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+		criteria.setAddressContains("salaryrange");
+		criteria.setMinSalary(9000.0);
+		criteria.setMaxSalary(15000.0);
+
+		List<Integer> expected = added.stream().filter(e -> e.getSalary() >= 9000 && e.getSalary() <= 15000)
+				.sorted(Comparator.comparing(Employee::getSalary).thenComparing(Employee::getId))
+				.map(Employee::getId).toList();
+		for (int size : new int[] { 1, 2, 3, 10 })
+			assertEquals(expected, ids(readAll(criteria, EmployeeCursor.SortColumn.salary, size)),
+					"pages of " + size);
+	}
+
+	@Test
+	void filtersAreCombined() throws Exception {
+		List<Employee> added = addEmployees("combined", "Hana", "Ivo", "Jude");
+		Employee ivo = added.get(1);
+
+		EmployeeSearchCriteria criteria = new EmployeeSearchCriteria();
+		criteria.setAddressContains("combined");
+		List<Integer> all = added.stream().map(Employee::getId).toList();
+		assertEquals(all, ids(readAll(criteria, EmployeeCursor.SortColumn.id, 2)));
+
+		criteria.setEmail(ivo.getEmail());
+		criteria.setPhone(ivo.getPhone());
+		assertEquals(List.of(ivo.getId()), ids(readAll(criteria, EmployeeCursor.SortColumn.id, 2)));
+
+		criteria.setPhone("9999999999");
+		assertTrue(readAll(criteria, EmployeeCursor.SortColumn.id, 2).isEmpty());
+	}
+
+	@Test
+	void invalidSearchIsRejected() throws Exception {
+		EmployeeSearchCriteria byName = new EmployeeSearchCriteria();
+		byName.setNamePrefix("Quill");
+		EmployeeCursor idCursor = new EmployeeCursor(EmployeeCursor.SortColumn.id, null, 1);
+		assertThrows(EmployeeValidationException.class, () -> employeeService.searchEmployee(byName, idCursor, 10));
+
+		EmployeeSearchCriteria bySalary = new EmployeeSearchCriteria();
+		bySalary.setMinSalary(20000.0);
+		bySalary.setMaxSalary(10000.0);
+		assertThrows(EmployeeValidationException.class, () -> employeeService.searchEmployee(bySalary, null, 10));
+	}
+
+	/**
+	 * Adds one employee per name, with the token in its address and email.
+	 */
+	private List<Employee> addEmployees(String token, String... names) throws Exception {
+		List<Employee> added = new ArrayList<>();
+		for (int i = 0; i < names.length; i++) {
+			Employee e = EmployeeServiceImplTest.employee(null, token + i + "@workfolio.com");
+			e.setName(names[i]);
+			e.setAddress("12 " + token + " street");
+			employeeService.addEmployee(e);
+			added.add(e);
+		}
+		return added;
+	}
+
+	/**
+	 * Reads every page of a search, following the cursor of each page, and checks
+	 * the pages are full until the last one.
+	 */
+	private List<EmployeeSummary> readAll(EmployeeSearchCriteria criteria, EmployeeCursor.SortColumn sort, int size)
+			throws Exception {
+		List<EmployeeSummary> all = new ArrayList<>();
+		EmployeeCursor cursor = null;
+		EmployeeSearchResult page;
+		do {
+			page = employeeService.searchEmployee(criteria, cursor, size);
+			assertTrue(page.getContent().size() <= size);
+			if (page.hasNext()) {
+				assertEquals(size, page.getContent().size());
+				assertEquals(sort, page.getNext().getSort());
+			}
+			all.addAll(page.getContent());
+			cursor = page.getNext();
+		} while (page.hasNext());
+		return all;
+	}
+
+	private static List<Integer> ids(List<EmployeeSummary> employees) {
+		return employees.stream().map(EmployeeSummary::getId).toList();
+	}
+}
@@ -0,0 +1,181 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.dto.FieldViolation;
+import com.workfolio.entity.Employee;
+import com.workfolio.exception.EmployeeConflictException;
+import com.workfolio.exception.EmployeeValidationException;
+import com.workfolio.repository.EmployeeRepository;
+
+@SpringBootTest(classes = WorkFolioApplication.class)
+@ActiveProfiles("test")
+class EmployeeServiceImplTest {
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private EmployeeCache employeeCache;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EmployeeAnalyticsService analyticsService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void emailTakenAfterItWasCachedAsAbsentIsAConflict() {
+		String email = "taken.elsewhere@workfolio.com";
+		assertNull(employeeCache.findByEmail(email));
+
+		// as if another node had added it since
+		transactionTemplate.executeWithoutResult(status -> employeeRepository.persist(employee(-1, email)));
+
+		EmployeeConflictException ex = assertThrows(EmployeeConflictException.class,
+				() -> employeeService.addEmployee(employee(null, email)));
+		assertSame(EmployeeConflictException.DUPLICATE_EMAIL, ex);
+	}
+
+	@Test
+	void salaryChangeReplacesTheSalaryInThePayroll() throws Exception {
+		double payroll = analyticsService.getSalaryStatistics().getTotalPayroll();
+		Employee e = employee(null, "raised@workfolio.com");
+		employeeService.addEmployee(e);
+
+		// no version, so the salary being replaced is read with the update
+		Employee raise = new Employee();
+		raise.setId(e.getId());
+		raise.setSalary(25000.0);
+		employeeService.updateEmployee(raise);
+
+		assertEquals(payroll + 25000.0, analyticsService.getSalaryStatistics().getTotalPayroll(), 0.001);
+	}
+
+	@Test
+	void everyValidChangeIsApplied() throws Exception {
+		Employee e = employee(null, "changed@workfolio.com");
+		employeeService.addEmployee(e);
+
+		Employee change = new Employee();
+		change.setId(e.getId());
+		change.setSalary(250000.0);
+		change.setPhone("9111111111");
+		employeeService.updateEmployee(change);
+		Employee stored = employeeRepository.findById(e.getId()).orElseThrow();
+		assertEquals(250000.0, stored.getSalary());
+		assertEquals("9111111111", stored.getPhone());
+
+		// the lowest salary allowed
+		change = new Employee();
+		change.setId(e.getId());
+		change.setSalary(5000.0);
+		employeeService.updateEmployee(change);
+		assertEquals(5000.0, employeeRepository.findById(e.getId()).orElseThrow().getSalary());
+	}
+
+	@Test
+	void invalidChangeIsRejectedRatherThanDropped() throws Exception {
+		Employee e = employee(null, "rejected.change@workfolio.com");
+		employeeService.addEmployee(e);
+
+		Employee change = new Employee();
+		change.setId(e.getId());
+		change.setSalary(4999.0);
+		change.setPhone("12345");
+		EmployeeValidationException ex = assertThrows(EmployeeValidationException.class,
+				() -> employeeService.updateEmployee(change));
+
+		assertEquals(List.of("phone", "salary"), ex.getViolations().stream().map(FieldViolation::getField).toList());
+		assertEquals(10000.0, employeeRepository.findById(e.getId()).orElseThrow().getSalary());
+	}
+
+	@Test
+	void updateWritesOnlyTheProvidedColumns() throws Exception {
+		Employee e = employee(null, "partial@workfolio.com");
+		employeeService.addEmployee(e);
+		// a column changed behind the caller's back
+		jdbcTemplate.update("update employee set salary = 12345 where id = ?", e.getId());
+
+		Employee change = new Employee();
+		change.setId(e.getId());
+		change.setName("Partly Changed");
+		employeeService.updateEmployee(change);
+
+		Employee stored = employeeRepository.findById(e.getId()).orElseThrow();
+		assertEquals("Partly Changed", stored.getName());
+		assertEquals(12345.0, stored.getSalary());
+	}
+
+	@Test
+	void unchangedColumnsOfTheCachedVersionAreNotWritten() throws Exception {
+		Employee e = employee(null, "dirty.only@workfolio.com");
+		employeeService.addEmployee(e);
+		Long version = employeeCache.findById(e.getId()).orElseThrow().getVersion();
+		jdbcTemplate.update("update employee set name = 'Renamed Directly' where id = ?", e.getId());
+
+		// the name is the cached one, so only the address is dirty
+		Employee change = new Employee();
+		change.setId(e.getId());
+		change.setVersion(version);
+		change.setName("Test Employee");
+		change.setAddress("New Address");
+		employeeService.updateEmployee(change);
+
+		Employee stored = employeeRepository.findById(e.getId()).orElseThrow();
+		assertEquals("Renamed Directly", stored.getName());
+		assertEquals("New Address", stored.getAddress());
+		assertEquals(version + 1, stored.getVersion());
+	}
+
+	@Test
+	void updateOfAnOutdatedVersionIsAConflict() throws Exception {
+		Employee e = employee(null, "outdated@workfolio.com");
+		employeeService.addEmployee(e);
+		Long version = employeeRepository.findById(e.getId()).orElseThrow().getVersion();
+
+		Employee first = new Employee();
+		first.setId(e.getId());
+		first.setVersion(version);
+		first.setSalary(20000.0);
+		employeeService.updateEmployee(first);
+
+		Employee second = new Employee();
+		second.setId(e.getId());
+		second.setVersion(version);
+		second.setSalary(30000.0);
+		EmployeeConflictException ex = assertThrows(EmployeeConflictException.class,
+				() -> employeeService.updateEmployee(second));
+		assertSame(EmployeeConflictException.MODIFIED, ex);
+		assertEquals(20000.0, employeeRepository.findById(e.getId()).orElseThrow().getSalary());
+	}
+
+	static Employee employee(Integer id, String email) {
+		Employee e = new Employee();
+		e.setId(id);
+		e.setName("Test Employee");
+		e.setEmail(email);
+		e.setPhone("9000000000");
+		e.setSalary(10000.0);
+		return e;
+	}
+}
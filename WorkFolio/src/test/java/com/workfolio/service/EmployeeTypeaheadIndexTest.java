@@ -0,0 +1,72 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.workfolio.dto.EmployeeSummary;
+import com.workfolio.entity.Employee;
+import com.workfolio.repository.EmployeeRepository;
+
+class EmployeeTypeaheadIndexTest {
+
+	private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+
+	private final EmployeeTypeaheadIndex index = new EmployeeTypeaheadIndex();
+
+	@BeforeEach
+	void wire() {
+		ReflectionTestUtils.setField(index, "employeeRepository", employeeRepository);
+		ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(index, "enabled", true);
+	}
+
+	@Test
+	void partialUpdateBeforeTheBuildReachesAnEmployeeKeepsItsOtherFields() {
+		// the name changes while the build is running, before it has read the employee
+		index.update(5, "Priya Raman", null, null);
+
+		Employee current = employee(5, "Priya Raman", "priya@workfolio.com", "Chennai");
+		when(employeeRepository.streamSummaries()).thenReturn(
+				Stream.of(new EmployeeSummary(5, "Priya Iyer", "priya@workfolio.com", null, "Chennai", null)));
+		when(employeeRepository.findAllById(any())).thenReturn(List.of(current));
+		ReflectionTestUtils.invokeMethod(index, "load");
+
+		assertEquals(List.of(5), ids(index.search("raman", 10)));
+		assertEquals(List.of(5), ids(index.search("priya@workfolio.com", 10)));
+		assertEquals(List.of(5), ids(index.search("chennai", 10)));
+		assertTrue(index.search("iyer", 10).isEmpty());
+	}
+
+	@Test
+	void disabledIndexIgnoresWrites() {
+		ReflectionTestUtils.setField(index, "enabled", false);
+
+		index.add(employee(1, "Arjun Mehta", "arjun@workfolio.com", "Pune"));
+
+		assertEquals(0, index.stats().getEmployees());
+	}
+
+	private static Employee employee(int id, String name, String email, String address) {
+		Employee e = new Employee();
+		e.setId(id);
+		e.setName(name);
+		e.setEmail(email);
+		e.setAddress(address);
+		return e;
+	}
+
+	private static List<Integer> ids(List<EmployeeSummary> employees) {
+		return employees.stream().map(EmployeeSummary::getId).toList();
+	}
+}
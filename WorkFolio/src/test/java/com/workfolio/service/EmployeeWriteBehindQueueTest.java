@@ -0,0 +1,226 @@
+package com.workfolio.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workfolio.WorkFolioApplication;
+import com.workfolio.entity.Employee;
+import com.workfolio.repository.EmployeeRepository;
+
+@SpringBootTest(classes = WorkFolioApplication.class, properties = {
+		// a database of its own, as this context holds writes the others do not see
+		"spring.datasource.url=jdbc:h2:mem:writebehind;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"workfolio.write-behind.enabled=true", "workfolio.write-behind.flush-interval=1h",
+		"workfolio.write-behind.fsync=false" })
+@ActiveProfiles("test")
+class EmployeeWriteBehindQueueTest {
+
+	private static final Path LOG;
+
+	static {
+		try {
+			LOG = Files.createTempDirectory("write-behind").resolve("write-behind.log");
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@DynamicPropertySource
+	static void logFile(DynamicPropertyRegistry registry) {
+		registry.add("workfolio.write-behind.log", LOG::toString);
+	}
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private EmployeeWriteBehindQueue queue;
+
+	@Autowired
+	private EmployeeCache employeeCache;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@SpyBean
+	private JdbcTemplate jdbcTemplate;
+
+	@SpyBean
+	private EmployeeChangeTracker changeTracker;
+
+	// the email whose insert finds the database unavailable, if any
+	private volatile String unavailableEmail;
+
+	// the email whose insert fails for another reason, if any
+	private volatile String failingEmail;
+
+	@AfterEach
+	void flushLeftovers() throws IOException {
+		unavailableEmail = null;
+		failingEmail = null;
+		queue.flush();
+	}
+
+	@Test
+	void writesOfAnEmployeeAreCoalescedIntoOne() throws Exception {
+		clearInvocations(changeTracker);
+		Employee e = EmployeeServiceImplTest.employee(null, "coalesced@workfolio.com");
+		employeeService.addEmployee(e);
+		employeeService.updateEmployee(rename(e.getId(), "First Rename"));
+		employeeService.updateEmployee(rename(e.getId(), "Second Rename"));
+		Employee gone = EmployeeServiceImplTest.employee(null, "added.then.deleted@workfolio.com");
+		employeeService.addEmployee(gone);
+		employeeService.deleteEmployee(gone.getId());
+
+		assertEquals("Second Rename", queue.find(e.getId()).employee().getName());
+		assertNull(queue.find(gone.getId()));
+		assertEquals(1, queue.size());
+		// nothing has committed yet, so there is nothing to sequence
+		verify(changeTracker, never()).touch();
+
+		queue.flush();
+		verify(changeTracker).touch();
+
+		Employee stored = employeeRepository.findById(e.getId()).orElseThrow();
+		assertEquals("Second Rename", stored.getName());
+		assertEquals(2L, stored.getVersion());
+		assertEquals(1, historyCount(e.getId()));
+		assertFalse(employeeRepository.existsById(gone.getId()));
+		assertEquals(0, historyCount(gone.getId()));
+	}
+
+	@Test
+	void replayingAFlushedLogChangesNothing() throws Exception {
+		Employee e = EmployeeServiceImplTest.employee(null, "replayed@workfolio.com");
+		employeeService.addEmployee(e);
+		employeeService.updateEmployee(rename(e.getId(), "Renamed Once"));
+		byte[] logged = Files.readAllBytes(LOG);
+		queue.flush();
+		int changes = historyCount(e.getId());
+
+		// as if the application had stopped after the flush committed, but before its log was removed
+		Files.write(LOG.resolveSibling(LOG.getFileName() + ".flushing"), logged);
+		employeeService.updateEmployee(rename(e.getId(), "Renamed Since"));
+		queue.flush();
+		queue.recover();
+
+		Employee stored = employeeRepository.findById(e.getId()).orElseThrow();
+		assertEquals("Renamed Since", stored.getName());
+		assertEquals(2L, stored.getVersion());
+		assertEquals(changes + 1, historyCount(e.getId()));
+		assertEquals(0, queue.size());
+		assertFalse(Files.exists(LOG.resolveSibling(LOG.getFileName() + ".flushing")));
+	}
+
+	@Test
+	void onlyWritesThatDidNotCommitAreQueuedAgain() throws Exception {
+		doAnswer(invocation -> {
+			Collection<?> batch = invocation.getArgument(1);
+			if (unavailableEmail != null && batch.size() == 1 && batch.toString().contains(unavailableEmail))
+				throw new TransientDataAccessResourceException("database unavailable");
+			return invocation.callRealMethod();
+		}).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+
+		Employee first = EmployeeServiceImplTest.employee(null, "committed.first@workfolio.com");
+		employeeService.addEmployee(first);
+		// taken by another node after this one cached it as free, so the batch is retried one write at a time
+		String taken = "taken.meanwhile@workfolio.com";
+		assertNull(employeeCache.findByEmail(taken));
+		Employee rejected = EmployeeServiceImplTest.employee(null, taken);
+		employeeService.addEmployee(rejected);
+		transactionTemplate.executeWithoutResult(status -> employeeRepository
+				.persist(EmployeeServiceImplTest.employee(-rejected.getId(), taken)));
+		Employee last = EmployeeServiceImplTest.employee(null, "committed.last@workfolio.com");
+		employeeService.addEmployee(last);
+
+		unavailableEmail = last.getEmail();
+		assertThrows(TransientDataAccessException.class, () -> queue.flush());
+
+		assertNull(queue.find(first.getId()));
+		assertNotNull(queue.find(rejected.getId()));
+		assertNotNull(queue.find(last.getId()));
+		assertEquals(1, historyCount(first.getId()));
+
+		unavailableEmail = null;
+		queue.flush();
+
+		assertEquals(0, queue.size());
+		assertEquals(1, historyCount(first.getId()));
+		assertEquals(1, historyCount(last.getId()));
+		assertFalse(employeeRepository.existsById(rejected.getId()));
+	}
+
+	@Test
+	void writesOfAFlushThatFailedOtherwiseAreQueuedAgain() throws Exception {
+		doAnswer(invocation -> {
+			Collection<?> batch = invocation.getArgument(1);
+			if (failingEmail != null && batch.toString().contains(failingEmail))
+				throw new IllegalStateException("cannot map the employee");
+			return invocation.callRealMethod();
+		}).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+
+		Employee e = EmployeeServiceImplTest.employee(null, "failed.flush@workfolio.com");
+		employeeService.addEmployee(e);
+		failingEmail = e.getEmail();
+		assertThrows(IllegalStateException.class, () -> queue.flush());
+
+		assertNotNull(queue.find(e.getId()));
+		assertEquals(1, queue.size());
+		assertFalse(employeeRepository.existsById(e.getId()));
+
+		failingEmail = null;
+		queue.flush();
+
+		assertEquals(0, queue.size());
+		assertNull(queue.find(e.getId()));
+		assertEquals(1, historyCount(e.getId()));
+	}
+
+	private static Employee rename(int id, String name) {
+		Employee e = new Employee();
+		e.setId(id);
+		e.setName(name);
+		return e;
+	}
+
+	private int historyCount(int id) {
+		return jdbcTemplate.queryForObject("select count(*) from employee_history where employee_id = ?",
+				Integer.class, id);
+	}
+}
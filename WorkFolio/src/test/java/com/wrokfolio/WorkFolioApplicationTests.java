@@ -2,8 +2,12 @@ package com.wrokfolio;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+import com.workfolio.WorkFolioApplication;
+
+@SpringBootTest(classes = WorkFolioApplication.class)
+@ActiveProfiles("test")
 class WorkFolioApplicationTests {
 
 	@Test